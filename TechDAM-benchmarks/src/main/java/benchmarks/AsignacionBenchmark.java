@@ -0,0 +1,64 @@
+package benchmarks;
+
+import dao.EmpleadoDAO;
+import dao.ProyectoDAO;
+import modelo.Empleado;
+import modelo.Proyecto;
+import org.openjdk.jmh.annotations.*;
+import service.ResultadoAsignacion;
+import service.TransaccionesService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * asignarEmpleadosConSavepoint frente a asignarEmpleadosEnBloque con listas de
+ * 10, 100 y 1000 empleados. Las asignaciones creadas se borran al final de cada iteración.
+ * En asignarEnBloque se borran también antes de cada invocación (los ya asignados se omitirían).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsignacionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tamanoLista;
+
+    private final TransaccionesService service = new TransaccionesService();
+    private int proyectoId;
+    private List<Integer> empleadoIds;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        BaseDatosBenchmark.preparar();
+
+        List<Empleado> nuevos = new ArrayList<>(tamanoLista);
+        for (int i = 0; i < tamanoLista; i++) {
+            nuevos.add(new Empleado(0, "Asignable " + i, "Desarrollo", new BigDecimal("1500.00"), true));
+        }
+        empleadoIds = new EmpleadoDAO().crearLote(nuevos).getIds();
+        proyectoId = new ProyectoDAO().crear(new Proyecto(0, "Bench asignaciones", new BigDecimal("50000.00")));
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiar() throws Exception {
+        BaseDatosBenchmark.ejecutar("DELETE FROM asignaciones WHERE proyecto_id = " + proyectoId);
+    }
+
+    @Benchmark
+    public void asignarConSavepoint() {
+        service.asignarEmpleadosConSavepoint(proyectoId, empleadoIds);
+    }
+
+    @Benchmark
+    public List<ResultadoAsignacion> asignarEnBloque() throws Exception {
+        // Se borran las asignaciones previas para que cada invocación inserte la lista completa
+        BaseDatosBenchmark.ejecutar("DELETE FROM asignaciones WHERE proyecto_id = " + proyectoId);
+        return service.asignarEmpleadosEnBloque(proyectoId, empleadoIds);
+    }
+}
@@ -0,0 +1,183 @@
+package benchmarks;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import dao.EmpleadoDAO;
+import modelo.Empleado;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prepara la base de datos de los benchmarks.
+ *
+ * - Por defecto usa el MySQL local (-Dbench.host, -Dbench.puerto, -Dbench.usuario, -Dbench.password).
+ * - Con -Dbench.embebida=true arranca una MariaDB embebida (MariaDB4j) en un puerto libre.
+ * - El esquema se siembra desde techdam_completo.sql en una BD propia ('techdam_bench'),
+ *   para no tocar nunca la BD 'techdam' de desarrollo.
+ * - Las propiedades db.url/db.user/db.password se fijan antes de que DatabaseConfigPool
+ *   cree el pool (en la primera conexión), que las prioriza sobre db.properties.
+ */
+public final class BaseDatosBenchmark {
+
+    public static final String ESQUEMA = "techdam_bench";
+
+    private static final int TROZO_SIEMBRA = 10_000;
+
+    private static DB embebida;
+    private static boolean preparada;
+
+    private BaseDatosBenchmark() {}
+
+    /**
+     * Arranca (si procede) el servidor, recrea el esquema y configura el pool.
+     * Se llama una vez por JVM de benchmark (cada fork de JMH es una JVM nueva).
+     */
+    public static synchronized void preparar() throws Exception {
+        if (preparada) {
+            return;
+        }
+
+        String host = System.getProperty("bench.host", "localhost");
+        int puerto = Integer.getInteger("bench.puerto", 3306);
+        String usuario = System.getProperty("bench.usuario", "root");
+        String password = System.getProperty("bench.password", "root123");
+
+        if (Boolean.getBoolean("bench.embebida")) {
+            DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+            config.setPort(0); // puerto libre aleatorio
+            if ("root".equals(System.getProperty("user.name"))) {
+                config.addArg("--user=root"); // mariadbd se niega a arrancar como root sin esta opción
+            }
+            embebida = DB.newEmbeddedDB(config.build());
+            embebida.start();
+            host = "localhost";
+            puerto = embebida.getConfiguration().getPort();
+            usuario = "root";
+            password = "";
+            Runtime.getRuntime().addShutdownHook(new Thread(BaseDatosBenchmark::detenerEmbebida));
+        }
+
+        String urlServidor = "jdbc:mysql://" + host + ":" + puerto + "/?allowMultiQueries=false";
+        sembrarEsquema(urlServidor, usuario, password);
+
+        System.setProperty("db.url", "jdbc:mysql://" + host + ":" + puerto + "/" + ESQUEMA);
+        System.setProperty("db.user", usuario);
+        System.setProperty("db.password", password);
+
+        // Los DAO y servicios escriben una línea por operación; se silencia para
+        // medir el acceso a datos y no la consola
+        if (!Boolean.getBoolean("bench.verbose")) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        preparada = true;
+    }
+
+    /**
+     * Ejecuta una sentencia SQL directa sobre el esquema de benchmarks.
+     */
+    public static void ejecutar(String sql) throws SQLException {
+        try (Connection con = DriverManager.getConnection(System.getProperty("db.url"),
+                System.getProperty("db.user"), System.getProperty("db.password"));
+             Statement st = con.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    /**
+     * Sustituye los empleados (y las asignaciones) por 'filas' empleados sintéticos
+     * repartidos entre los tres departamentos del script, con un 10 % de inactivos.
+     */
+    public static void sembrarEmpleados(int filas) throws SQLException {
+        ejecutar("DELETE FROM asignaciones");
+        ejecutar("DELETE FROM empleados");
+
+        EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+        String[] departamentos = {"Desarrollo", "Marketing", "Ventas"};
+        List<Empleado> trozo = new ArrayList<>(TROZO_SIEMBRA);
+        for (int i = 0; i < filas; i++) {
+            trozo.add(new Empleado(0, "Empleado " + i, departamentos[i % departamentos.length],
+                    BigDecimal.valueOf(1000 + i % 2000, 0), i % 10 != 0));
+            if (trozo.size() == TROZO_SIEMBRA || i == filas - 1) {
+                empleadoDAO.crearLote(trozo, TROZO_SIEMBRA);
+                trozo.clear();
+            }
+        }
+    }
+
+    private static void sembrarEsquema(String urlServidor, String usuario, String password) throws Exception {
+        try (Connection con = DriverManager.getConnection(urlServidor, usuario, password);
+             Statement st = con.createStatement()) {
+
+            st.execute("DROP DATABASE IF EXISTS " + ESQUEMA);
+            st.execute("CREATE DATABASE " + ESQUEMA);
+            st.execute("USE " + ESQUEMA);
+
+            for (String sentencia : leerScript()) {
+                String minusculas = sentencia.toLowerCase(Locale.ROOT);
+                // El script crea y selecciona 'techdam'; aquí se usa el esquema propio
+                if (minusculas.startsWith("create database") || minusculas.startsWith("use ")) {
+                    continue;
+                }
+                st.execute(sentencia);
+            }
+        }
+    }
+
+    /**
+     * Divide techdam_completo.sql en sentencias, respetando los cambios de DELIMITER
+     * de los procedimientos almacenados.
+     */
+    private static List<String> leerScript() throws Exception {
+        List<String> sentencias = new ArrayList<>();
+        try (InputStream in = BaseDatosBenchmark.class.getClassLoader().getResourceAsStream("techdam_completo.sql")) {
+            if (in == null) {
+                throw new IllegalStateException("No se encontró techdam_completo.sql en el classpath");
+            }
+            BufferedReader lector = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+            String delimitador = ";";
+            StringBuilder actual = new StringBuilder();
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                String limpia = linea.trim();
+                if (actual.isEmpty() && (limpia.isEmpty() || limpia.startsWith("--"))) {
+                    continue;
+                }
+                if (limpia.toUpperCase(Locale.ROOT).startsWith("DELIMITER ")) {
+                    delimitador = limpia.substring("DELIMITER ".length()).trim();
+                    continue;
+                }
+                actual.append(linea).append('\n');
+                if (limpia.endsWith(delimitador)) {
+                    String sentencia = actual.toString().trim();
+                    sentencias.add(sentencia.substring(0, sentencia.length() - delimitador.length()).trim());
+                    actual.setLength(0);
+                }
+            }
+        }
+        return sentencias;
+    }
+
+    private static void detenerEmbebida() {
+        try {
+            if (embebida != null) {
+                embebida.stop();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
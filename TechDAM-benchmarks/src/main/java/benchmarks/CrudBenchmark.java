@@ -0,0 +1,84 @@
+package benchmarks;
+
+import dao.EmpleadoDAO;
+import dao.ProyectoDAO;
+import modelo.Empleado;
+import modelo.Proyecto;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRUD de una sola fila sobre EmpleadoDAO y ProyectoDAO.
+ * El parámetro 'cache' permite comparar obtenerPorId con y sin la caché de lectura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrudBenchmark {
+
+    private static final int EMPLEADOS = 1_000;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private EmpleadoDAO empleadoDAO;
+    private ProyectoDAO proyectoDAO;
+    private List<Integer> empleadoIds;
+    private List<Integer> proyectoIds;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        // Debe fijarse antes de cargar los DAO: el tamaño de la caché se lee una sola vez
+        if (!cache) {
+            System.setProperty("techdam.cache.empleados.tamano", "0");
+            System.setProperty("techdam.cache.proyectos.tamano", "0");
+        }
+        BaseDatosBenchmark.preparar();
+
+        empleadoDAO = new EmpleadoDAO();
+        proyectoDAO = new ProyectoDAO();
+
+        List<Empleado> nuevos = new ArrayList<>(EMPLEADOS);
+        for (int i = 0; i < EMPLEADOS; i++) {
+            nuevos.add(new Empleado(0, "Bench " + i, "Desarrollo", new BigDecimal("1500.00"), true));
+        }
+        empleadoIds = empleadoDAO.crearLote(nuevos).getIds();
+        proyectoIds = proyectoDAO.obtenerTodos().stream().map(Proyecto::getId).toList();
+    }
+
+    @Benchmark
+    public boolean crearYEliminarEmpleado() {
+        int id = empleadoDAO.crear(new Empleado(0, "Temporal", "Ventas", new BigDecimal("1200.00"), true));
+        return empleadoDAO.eliminar(id);
+    }
+
+    @Benchmark
+    public Optional<Empleado> obtenerEmpleadoPorId() {
+        return empleadoDAO.obtenerPorId(aleatorio(empleadoIds));
+    }
+
+    @Benchmark
+    public boolean actualizarEmpleado() {
+        int id = aleatorio(empleadoIds);
+        BigDecimal salario = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1000, 3000));
+        return empleadoDAO.actualizar(new Empleado(id, "Bench " + id, "Desarrollo", salario, true));
+    }
+
+    @Benchmark
+    public Optional<Proyecto> obtenerProyectoPorId() {
+        return proyectoDAO.obtenerPorId(aleatorio(proyectoIds));
+    }
+
+    private static int aleatorio(List<Integer> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Punto de entrada de benchmarks.jar.
+ *
+ * Uso: java [-Dbench.*] -jar target/benchmarks.jar [patrón...]
+ * - Los argumentos son expresiones regulares de los benchmarks a ejecutar (por defecto, todos).
+ * - Los resultados se escriben en JSON en target/jmh-TechDAM-&lt;versión&gt;.json
+ *   (o en -Dbench.resultado) para poder compararlos entre versiones.
+ * - Las propiedades bench.*, db.*, pool.*, mysql.* y techdam.* se reenvían a los forks de JMH.
+ */
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        String version = leerVersion();
+        String fichero = System.getProperty("bench.resultado", "target/jmh-TechDAM-" + version + ".json");
+
+        ChainedOptionsBuilder opciones = new OptionsBuilder()
+                .resultFormat(ResultFormatType.JSON)
+                .result(fichero);
+
+        String[] reenviadas = propiedadesReenviadas();
+        if (reenviadas.length > 0) {
+            opciones.jvmArgsPrepend(reenviadas);
+        }
+
+        if (args.length == 0) {
+            opciones.include(EjecutarBenchmarks.class.getPackageName() + "\\..*Benchmark");
+        }
+        for (String patron : args) {
+            opciones.include(patron);
+        }
+
+        new Runner(opciones.build()).run();
+        System.out.println("Resultados guardados en " + fichero);
+    }
+
+    private static String[] propiedadesReenviadas() {
+        List<String> reenviadas = new ArrayList<>();
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith("bench.") || clave.startsWith("db.") || clave.startsWith("pool.")
+                    || clave.startsWith("mysql.") || clave.startsWith("techdam.")) {
+                reenviadas.add("-D" + clave + "=" + System.getProperty(clave));
+            }
+        }
+        return reenviadas.toArray(new String[0]);
+    }
+
+    private static String leerVersion() throws Exception {
+        Properties props = new Properties();
+        try (InputStream in = EjecutarBenchmarks.class.getClassLoader().getResourceAsStream("bench.properties")) {
+            if (in != null) {
+                props.load(in);
+            }
+        }
+        return props.getProperty("techdam.version", "desconocida");
+    }
+}
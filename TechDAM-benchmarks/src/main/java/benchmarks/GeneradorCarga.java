@@ -0,0 +1,373 @@
+package benchmarks;
+
+import config.DatabaseConfigPool;
+import config.Histograma;
+import config.MetricasPool;
+import dao.EmpleadoDAO;
+import dao.ProyectoDAO;
+import modelo.Empleado;
+import modelo.Proyecto;
+import service.PoliticaReintentos;
+import service.ProcedimientosService;
+import service.TransaccionesService;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba de carga: N clientes concurrentes ejecutan una mezcla de operaciones contra los
+ * DAO y servicios durante un tiempo fijo, y al final se comprueban las invariantes.
+ *
+ * Uso: java [-Dbench.*] [-Dcarga.*] -cp target/benchmarks.jar benchmarks.GeneradorCarga
+ * - carga.clientes (16): clientes concurrentes, cada uno en su hilo en bucle cerrado
+ *   (la siguiente operación empieza cuando termina la anterior, tras carga.pausaMillis).
+ *   Son hilos de plataforma: Connector/J hace la E/S dentro de bloques synchronized, que en
+ *   JDK 21 fijan el hilo virtual a su portador, y con filas calientes se mediría esa
+ *   contención en lugar de la del pool y de InnoDB.
+ * - carga.segundos (30) y carga.calentamiento (5): duración de la medida y del calentamiento
+ *   previo, cuyas operaciones no se cuentan.
+ * - carga.mezcla ("leer=50,actualizar=15,crear=5,transferir=20,asignar=5,salarios=5"):
+ *   peso relativo de cada operación.
+ * - carga.distribucion ("uniforme" o "caliente"): con "caliente", el carga.probCaliente (0.9)
+ *   de los accesos van al carga.fraccionCaliente (0.01) de las claves, para provocar
+ *   contención de bloqueos en las mismas filas.
+ * - carga.empleados (10000) y carga.proyectos (50): tamaño de los datos sembrados.
+ *
+ * Se informa por operación de las operaciones/s, errores y latencias p50/p99/p999, de los
+ * reintentos de PoliticaReintentos y de la espera por conexión del pool (MetricasPool).
+ * Invariantes: el presupuesto total se conserva (las transferencias solo lo mueven), ningún
+ * presupuesto queda negativo, el número de empleados aumenta exactamente en los creados y
+ * las asignaciones no superan las intentadas. Si alguna no se cumple, el código de salida es 1.
+ */
+public class GeneradorCarga {
+
+    private static final BigDecimal PRESUPUESTO_INICIAL = new BigDecimal("1000000.00");
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+    private static final String[] DEPARTAMENTOS = {"Desarrollo", "Marketing", "Ventas"};
+    private static final int EMPLEADOS_POR_ASIGNACION = 5;
+
+    private enum Operacion { LEER, ACTUALIZAR, CREAR, TRANSFERIR, ASIGNAR, SALARIOS }
+
+    /**
+     * Latencia y resultados de un tipo de operación.
+     */
+    private static final class Medida {
+        final Histograma latenciaMicros = new Histograma();
+        final LongAdder fallidas = new LongAdder();
+        final LongAdder excepciones = new LongAdder();
+    }
+
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final ProyectoDAO proyectoDAO = new ProyectoDAO();
+    private final TransaccionesService transaccionesService = new TransaccionesService();
+    private final ProcedimientosService procedimientosService = new ProcedimientosService();
+
+    private final Map<Operacion, Medida> medidas = new EnumMap<>(Operacion.class);
+    private final LongAdder creados = new LongAdder();
+    private final LongAdder asignacionesIntentadas = new LongAdder();
+
+    private final Operacion[] operaciones;
+    private final int[] pesosAcumulados;
+    private final boolean caliente;
+    private final double probCaliente;
+    private final double fraccionCaliente;
+    private final long pausaMillis;
+
+    private int[] empleadoIds;
+    private int[] proyectoIds;
+    private volatile boolean midiendo;
+
+    private GeneradorCarga(String mezcla) {
+        List<Operacion> ops = new ArrayList<>();
+        List<Integer> pesos = new ArrayList<>();
+        int total = 0;
+        for (String parte : mezcla.split(",")) {
+            String[] nombreYPeso = parte.split("=");
+            int peso = Integer.parseInt(nombreYPeso[1].trim());
+            if (peso > 0) {
+                ops.add(Operacion.valueOf(nombreYPeso[0].trim().toUpperCase(Locale.ROOT)));
+                total += peso;
+                pesos.add(total);
+            }
+        }
+        if (ops.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene ninguna operación con peso: " + mezcla);
+        }
+        operaciones = ops.toArray(new Operacion[0]);
+        pesosAcumulados = pesos.stream().mapToInt(Integer::intValue).toArray();
+        for (Operacion op : Operacion.values()) {
+            medidas.put(op, new Medida());
+        }
+
+        caliente = System.getProperty("carga.distribucion", "uniforme").equals("caliente");
+        probCaliente = Double.parseDouble(System.getProperty("carga.probCaliente", "0.9"));
+        fraccionCaliente = Double.parseDouble(System.getProperty("carga.fraccionCaliente", "0.01"));
+        pausaMillis = Long.getLong("carga.pausaMillis", 0L);
+    }
+
+    public static void main(String[] args) throws Exception {
+        PrintStream salida = System.out; // BaseDatosBenchmark silencia System.out
+        int clientes = Integer.getInteger("carga.clientes", 16);
+        int segundos = Integer.getInteger("carga.segundos", 30);
+        int calentamiento = Integer.getInteger("carga.calentamiento", 5);
+        GeneradorCarga carga = new GeneradorCarga(System.getProperty("carga.mezcla",
+                "leer=50,actualizar=15,crear=5,transferir=20,asignar=5,salarios=5"));
+
+        BaseDatosBenchmark.preparar();
+        carga.sembrar(Integer.getInteger("carga.empleados", 10_000), Integer.getInteger("carga.proyectos", 50));
+
+        BigDecimal presupuestoInicial = presupuestoTotal();
+        long empleadosIniciales = contar("SELECT COUNT(*) FROM empleados");
+        long asignacionesIniciales = contar("SELECT COUNT(*) FROM asignaciones");
+
+        salida.printf("Carga: %d clientes, %d s (+%d s de calentamiento), distribución %s, pool de %d conexiones%n",
+                clientes, segundos, calentamiento, carga.caliente ? "caliente" : "uniforme",
+                DatabaseConfigPool.getTamanoMaximoPool());
+
+        // 1. Calentamiento y medida con los clientes en marcha
+        List<Thread> hilos = new ArrayList<>(clientes);
+        long fin = System.nanoTime() + (calentamiento + segundos) * 1_000_000_000L;
+        for (int i = 0; i < clientes; i++) {
+            hilos.add(Thread.ofPlatform().name("cliente-" + i).start(() -> carga.cliente(fin)));
+        }
+        Thread.sleep(calentamiento * 1000L);
+
+        PoliticaReintentos reintentos = PoliticaReintentos.POR_DEFECTO;
+        long operacionesAntes = reintentos.getOperaciones();
+        long reintentosAntes = reintentos.getReintentos();
+        long interbloqueosAntes = reintentos.getInterbloqueos();
+        long timeoutsAntes = reintentos.getTimeoutsBloqueo();
+        long agotadasAntes = reintentos.getAgotadas();
+        MetricasPool pool = DatabaseConfigPool.getMetricas();
+        pool.reiniciar();
+        long inicioMedida = System.nanoTime();
+        carga.midiendo = true;
+
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        double duracion = (System.nanoTime() - inicioMedida) / 1_000_000_000.0;
+
+        // 2. Informe
+        carga.informar(salida, duracion);
+        long operacionesReintentables = reintentos.getOperaciones() - operacionesAntes;
+        long numReintentos = reintentos.getReintentos() - reintentosAntes;
+        salida.printf(Locale.ROOT, "Reintentos: %d en %d operaciones con transacción (%.2f %%), %d interbloqueos, "
+                        + "%d timeouts de bloqueo, %d agotadas%n",
+                numReintentos, operacionesReintentables,
+                operacionesReintentables == 0 ? 0.0 : 100.0 * numReintentos / operacionesReintentables,
+                reintentos.getInterbloqueos() - interbloqueosAntes, reintentos.getTimeoutsBloqueo() - timeoutsAntes,
+                reintentos.getAgotadas() - agotadasAntes);
+        salida.printf("Espera de conexión (µs): %s; timeouts del pool: %d%n", pool.getEsperaMicros(), pool.getTimeouts());
+
+        // 3. Invariantes
+        List<String> incumplidas = new ArrayList<>();
+        BigDecimal presupuestoFinal = presupuestoTotal();
+        if (presupuestoFinal.compareTo(presupuestoInicial) != 0) {
+            incumplidas.add("El presupuesto total no se conserva: " + presupuestoInicial + " -> " + presupuestoFinal);
+        }
+        long negativos = contar("SELECT COUNT(*) FROM proyectos WHERE presupuesto < 0");
+        if (negativos > 0) {
+            incumplidas.add(negativos + " proyectos con presupuesto negativo");
+        }
+        long empleadosEsperados = empleadosIniciales + carga.creados.sum();
+        long empleadosFinales = contar("SELECT COUNT(*) FROM empleados");
+        if (empleadosFinales != empleadosEsperados) {
+            incumplidas.add("Empleados: se esperaban " + empleadosEsperados + " y hay " + empleadosFinales);
+        }
+        long nuevasAsignaciones = contar("SELECT COUNT(*) FROM asignaciones") - asignacionesIniciales;
+        if (nuevasAsignaciones < 0 || nuevasAsignaciones > carga.asignacionesIntentadas.sum()) {
+            incumplidas.add("Asignaciones: " + nuevasAsignaciones + " nuevas con "
+                    + carga.asignacionesIntentadas.sum() + " intentadas");
+        }
+
+        if (incumplidas.isEmpty()) {
+            salida.println("Invariantes: OK (presupuesto total " + presupuestoFinal + ", " + empleadosFinales
+                    + " empleados, " + nuevasAsignaciones + " asignaciones nuevas)");
+        } else {
+            incumplidas.forEach(i -> salida.println("INVARIANTE INCUMPLIDA: " + i));
+        }
+        DatabaseConfigPool.cerrarPool();
+        System.exit(incumplidas.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Sustituye los datos por 'empleados' empleados y 'proyectos' proyectos con el mismo presupuesto.
+     */
+    private void sembrar(int empleados, int proyectos) throws SQLException {
+        BaseDatosBenchmark.sembrarEmpleados(empleados);
+        BaseDatosBenchmark.ejecutar("DELETE FROM proyectos");
+
+        List<Proyecto> nuevos = new ArrayList<>(proyectos);
+        for (int i = 0; i < proyectos; i++) {
+            nuevos.add(new Proyecto(0, "Carga " + i, PRESUPUESTO_INICIAL));
+        }
+        proyectoIds = proyectoDAO.crearLote(nuevos).getIds().stream().mapToInt(Integer::intValue).toArray();
+        empleadoIds = ids("SELECT id FROM empleados ORDER BY id");
+        if (proyectoIds.length < 2 || empleadoIds.length == 0) {
+            throw new IllegalArgumentException("Hacen falta al menos 2 proyectos y 1 empleado");
+        }
+    }
+
+    private void cliente(long fin) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        while (System.nanoTime() < fin) {
+            Operacion op = elegirOperacion(r);
+            boolean contar = midiendo;
+            long inicio = System.nanoTime();
+            boolean correcta;
+            try {
+                correcta = ejecutar(op, r);
+            } catch (RuntimeException e) {
+                if (contar) {
+                    medidas.get(op).excepciones.increment();
+                }
+                correcta = false;
+            }
+            if (contar) {
+                Medida m = medidas.get(op);
+                m.latenciaMicros.registrar((System.nanoTime() - inicio) / 1_000);
+                if (!correcta) {
+                    m.fallidas.increment();
+                }
+            }
+            if (pausaMillis > 0) {
+                try {
+                    Thread.sleep(pausaMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean ejecutar(Operacion op, ThreadLocalRandom r) {
+        switch (op) {
+            case LEER -> {
+                return empleadoDAO.obtenerPorId(empleadoIds[clave(empleadoIds.length, r)]).isPresent();
+            }
+            case ACTUALIZAR -> {
+                int id = empleadoIds[clave(empleadoIds.length, r)];
+                return empleadoDAO.actualizar(new Empleado(id, "Empleado carga " + id,
+                        DEPARTAMENTOS[id % DEPARTAMENTOS.length], BigDecimal.valueOf(1000 + r.nextInt(2000), 0), true));
+            }
+            case CREAR -> {
+                boolean creado = empleadoDAO.crear(new Empleado(0, "Nuevo carga",
+                        DEPARTAMENTOS[r.nextInt(DEPARTAMENTOS.length)], new BigDecimal("1500.00"), true)) != -1;
+                if (creado) {
+                    creados.increment(); // También en el calentamiento: la invariante compara con el inicio
+                }
+                return creado;
+            }
+            case TRANSFERIR -> {
+                int origen = clave(proyectoIds.length, r);
+                int destino = clave(proyectoIds.length, r);
+                if (destino == origen) {
+                    destino = (origen + 1) % proyectoIds.length;
+                }
+                return transaccionesService.transferirPresupuesto(proyectoIds[origen], proyectoIds[destino], MONTO);
+            }
+            case ASIGNAR -> {
+                List<Integer> lista = new ArrayList<>(EMPLEADOS_POR_ASIGNACION);
+                for (int i = 0; i < EMPLEADOS_POR_ASIGNACION; i++) {
+                    lista.add(empleadoIds[clave(empleadoIds.length, r)]);
+                }
+                asignacionesIntentadas.add(lista.size());
+                transaccionesService.asignarEmpleadosConSavepoint(proyectoIds[clave(proyectoIds.length, r)], lista);
+                return true; // El servicio no devuelve resultado: solo se mide su latencia
+            }
+            case SALARIOS -> {
+                // Subida del 0 %: bloquea todas las filas del departamento sin alterar los datos
+                return procedimientosService.actualizarSalariosDepartamento(
+                        DEPARTAMENTOS[clave(DEPARTAMENTOS.length, r)], 0.0) != -1;
+            }
+            default -> throw new IllegalStateException(op.name());
+        }
+    }
+
+    private Operacion elegirOperacion(ThreadLocalRandom r) {
+        int tirada = r.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (tirada < pesosAcumulados[i]) {
+                return operaciones[i];
+            }
+        }
+        return operaciones[operaciones.length - 1];
+    }
+
+    /**
+     * Posición de una clave entre n: uniforme o concentrada en las primeras (zona caliente).
+     */
+    private int clave(int n, ThreadLocalRandom r) {
+        if (caliente && r.nextDouble() < probCaliente) {
+            int calientes = Math.max(2, (int) (n * fraccionCaliente));
+            return r.nextInt(Math.min(calientes, n));
+        }
+        return r.nextInt(n);
+    }
+
+    private void informar(PrintStream salida, double segundos) {
+        salida.printf("%-12s %10s %10s %8s %10s %10s %10s %10s%n",
+                "Operación", "Total", "Ops/s", "Errores", "p50 µs", "p99 µs", "p999 µs", "Máx µs");
+        long total = 0;
+        for (Map.Entry<Operacion, Medida> entrada : medidas.entrySet()) {
+            Histograma h = entrada.getValue().latenciaMicros;
+            if (h.getCuenta() == 0) {
+                continue;
+            }
+            total += h.getCuenta();
+            salida.printf(Locale.ROOT, "%-12s %10d %10.1f %7.2f%% %10d %10d %10d %10d%n",
+                    entrada.getKey().name().toLowerCase(Locale.ROOT), h.getCuenta(), h.getCuenta() / segundos,
+                    100.0 * entrada.getValue().fallidas.sum() / h.getCuenta(),
+                    h.percentil(50), h.percentil(99), h.percentil(99.9), h.getMaximo());
+            if (entrada.getValue().excepciones.sum() > 0) {
+                salida.printf("%-12s %d excepciones no controladas%n", "", entrada.getValue().excepciones.sum());
+            }
+        }
+        salida.printf(Locale.ROOT, "%-12s %10d %10.1f%n", "total", total, total / segundos);
+    }
+
+    /**
+     * Suma de presupuestos leída en el primario (obtenerTodos() puede ir a la réplica, con retraso).
+     */
+    private static BigDecimal presupuestoTotal() throws SQLException {
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement("SELECT COALESCE(SUM(presupuesto), 0) FROM proyectos");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getBigDecimal(1);
+        }
+    }
+
+    private static long contar(String sql) throws SQLException {
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static int[] ids(String sql) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import analitica.InstantaneaEmpleados;
+import dao.EmpleadoDAO;
+import modelo.Empleado;
+
+import java.io.PrintStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Compara la memoria que ocupa la tabla empleados como ArrayList&lt;Empleado&gt;
+ * (EmpleadoDAO.obtenerTodos()) y como InstantaneaEmpleados en el heap y fuera del heap.
+ *
+ * Uso: java [-Dbench.*] -cp target/benchmarks.jar benchmarks.HuellaMemoria [filas]
+ * - La memoria del heap se mide como heap usado tras forzar la recolección, antes y
+ *   después de cargar los datos; la directa con el BufferPoolMXBean "direct".
+ */
+public class HuellaMemoria {
+
+    public static void main(String[] args) throws Exception {
+        int filas = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        PrintStream salida = System.out; // BaseDatosBenchmark silencia System.out
+
+        BaseDatosBenchmark.preparar();
+        BaseDatosBenchmark.sembrarEmpleados(filas);
+        InstantaneaEmpleados.cargar(false); // Carga clases y el diccionario de departamentos
+
+        long base = heapUsado();
+        List<Empleado> lista = new EmpleadoDAO().obtenerTodos();
+        long bytesLista = heapUsado() - base;
+        int tamanoLista = lista.size();
+        lista = null;
+
+        base = heapUsado();
+        InstantaneaEmpleados heap = InstantaneaEmpleados.cargar(false);
+        long bytesHeap = heapUsado() - base;
+        int tamanoHeap = heap.getTamano();
+        long estimadaHeap = heap.getBytesEstimados();
+        heap = null;
+
+        base = heapUsado();
+        long directaBase = memoriaDirecta();
+        InstantaneaEmpleados directa = InstantaneaEmpleados.cargar(true);
+        long bytesDirectaHeap = heapUsado() - base;
+        long bytesDirecta = memoriaDirecta() - directaBase;
+
+        salida.printf("%-32s %10s %14s %12s%n", "Representación", "Filas", "Bytes", "Bytes/fila");
+        imprimir(salida, "ArrayList<Empleado> (heap)", tamanoLista, bytesLista);
+        imprimir(salida, "Instantánea heap", tamanoHeap, bytesHeap);
+        imprimir(salida, "Instantánea heap (estimada)", tamanoHeap, estimadaHeap);
+        imprimir(salida, "Instantánea directa (heap)", directa.getTamano(), bytesDirectaHeap);
+        imprimir(salida, "Instantánea directa (fuera)", directa.getTamano(), bytesDirecta);
+        System.exit(0);
+    }
+
+    private static void imprimir(PrintStream salida, String nombre, int filas, long bytes) {
+        salida.printf("%-32s %10d %14d %12.1f%n", nombre, filas, bytes, filas == 0 ? 0.0 : (double) bytes / filas);
+    }
+
+    private static long heapUsado() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long memoriaDirecta() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
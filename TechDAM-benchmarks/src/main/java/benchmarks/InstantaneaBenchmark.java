@@ -0,0 +1,92 @@
+package benchmarks;
+
+import analitica.InstantaneaEmpleados;
+import dao.EmpleadoDAO;
+import modelo.Empleado;
+import modelo.EstadisticaDepartamento;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregados en memoria con 100k y 1M empleados: lista de Empleado (BigDecimal)
+ * frente a la instantánea columnar en el heap y fuera del heap, secuencial y paralela.
+ * La carga de los datos se hace en el @Setup y no se mide.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class InstantaneaBenchmark {
+
+    private static final BigDecimal SALARIO_MINIMO = new BigDecimal("1500");
+    private static final BigDecimal SALARIO_MAXIMO = new BigDecimal("2500");
+
+    @Param({"100000", "1000000"})
+    public int filas;
+
+    private List<Empleado> lista;
+    private InstantaneaEmpleados heap;
+    private InstantaneaEmpleados directa;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        BaseDatosBenchmark.preparar();
+        BaseDatosBenchmark.sembrarEmpleados(filas);
+        lista = new EmpleadoDAO().obtenerTodos();
+        heap = InstantaneaEmpleados.cargar(false);
+        directa = InstantaneaEmpleados.cargar(true);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> totalPorDepartamentoLista() {
+        Map<String, BigDecimal> totales = new HashMap<>();
+        for (Empleado emp : lista) {
+            totales.merge(emp.getDepartamento(), emp.getSalario(), BigDecimal::add);
+        }
+        return totales;
+    }
+
+    @Benchmark
+    public List<EstadisticaDepartamento> estadisticasHeap() {
+        return heap.estadisticasPorDepartamento(false);
+    }
+
+    @Benchmark
+    public List<EstadisticaDepartamento> estadisticasHeapParalelo() {
+        return heap.estadisticasPorDepartamento(true);
+    }
+
+    @Benchmark
+    public List<EstadisticaDepartamento> estadisticasDirectaParalelo() {
+        return directa.estadisticasPorDepartamento(true);
+    }
+
+    @Benchmark
+    public BigDecimal rangoSalarioLista() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Empleado emp : lista) {
+            if (emp.isActivo() && emp.getSalario().compareTo(SALARIO_MINIMO) >= 0
+                    && emp.getSalario().compareTo(SALARIO_MAXIMO) <= 0) {
+                total = total.add(emp.getSalario());
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal rangoSalarioHeap() {
+        return heap.sumarSalarios(null, SALARIO_MINIMO, SALARIO_MAXIMO, true, false);
+    }
+
+    @Benchmark
+    public BigDecimal rangoSalarioHeapParalelo() {
+        return heap.sumarSalarios(null, SALARIO_MINIMO, SALARIO_MAXIMO, true, true);
+    }
+}
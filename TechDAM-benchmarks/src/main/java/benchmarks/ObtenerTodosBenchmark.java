@@ -0,0 +1,44 @@
+package benchmarks;
+
+import dao.EmpleadoDAO;
+import modelo.Empleado;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura completa de la tabla empleados con 1k, 100k y 1M filas:
+ * obtenerTodos() (lista en memoria) frente a streamTodos() (streaming).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ObtenerTodosBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int filas;
+
+    private EmpleadoDAO empleadoDAO;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        BaseDatosBenchmark.preparar();
+        BaseDatosBenchmark.sembrarEmpleados(filas);
+        empleadoDAO = new EmpleadoDAO();
+    }
+
+    @Benchmark
+    public List<Empleado> obtenerTodos() {
+        return empleadoDAO.obtenerTodos();
+    }
+
+    @Benchmark
+    public void streamTodos(Blackhole bh) {
+        empleadoDAO.forEach(bh::consume);
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import dao.ProyectoDAO;
+import modelo.Proyecto;
+import org.openjdk.jmh.annotations.*;
+import service.TransaccionesService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * transferirPresupuesto con 1, 4 y N hilos (N = núcleos disponibles).
+ * Con pocos proyectos la contención de bloqueos en InnoDB es máxima.
+ * Al terminar se comprueba que el presupuesto total se conserva.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferenciaBenchmark {
+
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+
+    @Param({"2", "100"})
+    public int proyectos;
+
+    private final TransaccionesService service = new TransaccionesService();
+    private List<Integer> proyectoIds;
+    private BigDecimal totalInicial;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        BaseDatosBenchmark.preparar();
+        BaseDatosBenchmark.ejecutar("DELETE FROM asignaciones");
+        BaseDatosBenchmark.ejecutar("DELETE FROM proyectos");
+
+        List<Proyecto> nuevos = new ArrayList<>();
+        for (int i = 0; i < proyectos; i++) {
+            nuevos.add(new Proyecto(0, "Bench " + i, new BigDecimal("1000000.00")));
+        }
+        ProyectoDAO proyectoDAO = new ProyectoDAO();
+        proyectoIds = proyectoDAO.crearLote(nuevos).getIds();
+        totalInicial = totalPresupuesto(proyectoDAO);
+    }
+
+    @TearDown(Level.Trial)
+    public void comprobarInvariante() {
+        BigDecimal totalFinal = totalPresupuesto(new ProyectoDAO());
+        if (totalFinal.compareTo(totalInicial) != 0) {
+            throw new IllegalStateException("El presupuesto total no se conserva: "
+                    + totalInicial + " -> " + totalFinal);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean transferir1Hilo() {
+        return transferir();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean transferir4Hilos() {
+        return transferir();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean transferirNHilos() {
+        return transferir();
+    }
+
+    private boolean transferir() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        int origen = r.nextInt(proyectoIds.size());
+        int destino = (origen + 1 + r.nextInt(proyectoIds.size() - 1)) % proyectoIds.size();
+        return service.transferirPresupuesto(proyectoIds.get(origen), proyectoIds.get(destino), MONTO);
+    }
+
+    private static BigDecimal totalPresupuesto(ProyectoDAO dao) {
+        return dao.obtenerTodos().stream().map(Proyecto::getPresupuesto).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
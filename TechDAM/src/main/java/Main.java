@@ -1,9 +1,38 @@
-import Menu.Menu;
-
-public class Main {
-    public static void main(String[] args) {
-        // Simplemente inicializamos y ejecutamos el menú interactivo
-        Menu menu = new Menu();
-        menu.iniciar();
-    }
-}
+import Menu.Menu;
+import api.ModoHttp;
+import config.DatabaseConfigPool;
+import dao.SentenciasFrecuentes;
+import lote.ModoLote;
+
+public class Main {
+    public static void main(String[] args) {
+        // Modo no interactivo: ejecuta un fichero de órdenes y termina (sin calentamiento ni menú)
+        if (args.length > 0 && args[0].equals(ModoLote.ARGUMENTO)) {
+            System.exit(ModoLote.ejecutar(args));
+        }
+
+        // El pool se crea y se calienta en segundo plano mientras se muestra el menú o arranca el servidor
+        // (se puede desactivar con -Dtechdam.calentamiento=false; entonces se crea en la primera consulta)
+        if (Boolean.parseBoolean(System.getProperty("techdam.calentamiento", "true"))) {
+            DatabaseConfigPool.iniciarEnSegundoPlano(SentenciasFrecuentes.todas())
+                    .exceptionally(e -> {
+                        System.err.println("No se pudo conectar con la base de datos al arrancar: "
+                                + e.getCause().getMessage());
+                        return null;
+                    });
+        }
+
+        // Modo servidor: la API HTTP mantiene vivo el proceso hasta que se pare
+        if (args.length > 0 && args[0].equals(ModoHttp.ARGUMENTO)) {
+            int codigo = ModoHttp.ejecutar(args);
+            if (codigo != 0) {
+                System.exit(codigo);
+            }
+            return;
+        }
+
+        // Inicializamos y ejecutamos el menú interactivo
+        Menu menu = new Menu();
+        menu.iniciar();
+    }
+}
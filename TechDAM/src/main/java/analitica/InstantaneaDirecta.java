@@ -0,0 +1,89 @@
+package analitica;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Instantánea columnar con las columnas en memoria directa (fuera del heap).
+ *
+ * Comentarios académicos:
+ * - Cada columna es un ByteBuffer.allocateDirect() visto como IntBuffer, LongBuffer o
+ *   ShortBuffer; activo se guarda como mapa de bits en un LongBuffer (64 filas por long).
+ * - Las lecturas usan get(índice) absoluto, que no modifica la posición del buffer y por
+ *   tanto es seguro desde varios hilos en el recorrido paralelo.
+ * - La memoria se libera cuando el recolector descarta la instantánea.
+ */
+final class InstantaneaDirecta extends InstantaneaEmpleados {
+
+    private final IntBuffer ids;
+    private final LongBuffer salarios;
+    private final ShortBuffer codigos;
+    private final LongBuffer activos;
+    private final long bytes;
+
+    /**
+     * Copia las columnas de una instantánea del heap, que después puede descartarse.
+     */
+    InstantaneaDirecta(InstantaneaHeap origen) {
+        super(origen.getDepartamentos().toArray(new String[0]), origen.getTamano());
+        int filas = origen.getTamano();
+        int palabras = (filas + 63) >>> 6;
+
+        ids = reservar(4L * filas).asIntBuffer();
+        salarios = reservar(8L * filas).asLongBuffer();
+        codigos = reservar(2L * filas).asShortBuffer();
+        activos = reservar(8L * palabras).asLongBuffer();
+        bytes = 4L * filas + 8L * filas + 2L * filas + 8L * palabras;
+
+        long[] bits = new long[palabras];
+        for (int fila = 0; fila < filas; fila++) {
+            ids.put(fila, origen.id(fila));
+            salarios.put(fila, origen.salarioCentimos(fila));
+            codigos.put(fila, (short) origen.codigoDepartamento(fila));
+            if (origen.activo(fila)) {
+                bits[fila >>> 6] |= 1L << fila;
+            }
+        }
+        activos.put(0, bits);
+    }
+
+    private static ByteBuffer reservar(long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Columna demasiado grande para un ByteBuffer: " + bytes + " bytes");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    int id(int fila) {
+        return ids.get(fila);
+    }
+
+    @Override
+    long salarioCentimos(int fila) {
+        return salarios.get(fila);
+    }
+
+    @Override
+    int codigoDepartamento(int fila) {
+        return codigos.get(fila);
+    }
+
+    @Override
+    boolean activo(int fila) {
+        return (activos.get(fila >>> 6) & (1L << fila)) != 0;
+    }
+
+    @Override
+    long bytesColumnas() {
+        return bytes;
+    }
+
+    @Override
+    public boolean isFueraDelHeap() {
+        return true;
+    }
+}
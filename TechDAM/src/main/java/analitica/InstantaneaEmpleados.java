@@ -0,0 +1,371 @@
+package analitica;
+
+import config.DatabaseConfigPool;
+import dao.DiccionarioDepartamentos;
+import modelo.EstadisticaDepartamento;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Instantánea de solo lectura de la tabla empleados en formato columnar, para informes
+ * que recorren cientos de miles o millones de filas en memoria.
+ *
+ * Comentarios académicos:
+ * - En lugar de un objeto Empleado por fila (con dos String y un BigDecimal), cada columna
+ *   es un array primitivo: int[] para el ID, long[] para el salario en céntimos, short[]
+ *   con el código de departamento y un BitSet para activo. Son unos 14 bytes por fila.
+ * - El departamento se codifica con un diccionario local (0..k-1); el nombre solo se guarda
+ *   una vez por departamento. El nombre del empleado no se incluye: no se usa en agregados.
+ * - Los salarios se agregan como long en céntimos: sumar long es exacto y mucho más rápido
+ *   que sumar BigDecimal; solo el resultado final se convierte a BigDecimal.
+ * - La conversión a céntimos la hace MySQL (CAST(salario * 100 AS SIGNED)) y la tabla se
+ *   lee en streaming, sin crear BigDecimal ni objetos intermedios por fila.
+ * - El recuento y la lectura se hacen en la misma transacción, por lo que ven la misma
+ *   versión de la tabla (REPEATABLE READ) y los arrays se reservan con el tamaño exacto.
+ * - La variante fuera del heap (cargar(true)) guarda las columnas en ByteBuffer directos:
+ *   no ocupan heap ni las recorre el recolector de basura.
+ * - Los recorridos y agregados admiten una versión paralela (IntStream.parallel()) que
+ *   reparte las filas entre los núcleos; como la instantánea es inmutable, no hace falta
+ *   sincronizar nada.
+ */
+public abstract class InstantaneaEmpleados {
+
+    private final String[] departamentos;
+    private final int tamano;
+
+    InstantaneaEmpleados(String[] departamentos, int tamano) {
+        this.departamentos = departamentos;
+        this.tamano = tamano;
+    }
+
+    /**
+     * Carga la tabla empleados en una instantánea en el heap.
+     */
+    public static InstantaneaEmpleados cargar() throws SQLException {
+        return cargar(false);
+    }
+
+    /**
+     * Carga la tabla empleados en una instantánea.
+     *
+     * @param fueraDelHeap true para guardar las columnas en memoria directa (fuera del heap)
+     */
+    public static InstantaneaEmpleados cargar(boolean fueraDelHeap) throws SQLException {
+        InstantaneaHeap heap = leerTabla();
+        return fueraDelHeap ? new InstantaneaDirecta(heap) : heap;
+    }
+
+    // ------------------- COLUMNAS -------------------
+
+    abstract int id(int fila);
+
+    abstract long salarioCentimos(int fila);
+
+    abstract int codigoDepartamento(int fila);
+
+    abstract boolean activo(int fila);
+
+    /**
+     * Bytes ocupados por las columnas (sin contar el diccionario de departamentos).
+     */
+    abstract long bytesColumnas();
+
+    /**
+     * true si las columnas están en memoria directa (fuera del heap).
+     */
+    public abstract boolean isFueraDelHeap();
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Memoria aproximada que ocupa la instantánea, en bytes.
+     */
+    public long getBytesEstimados() {
+        long diccionario = 16L + 4L * departamentos.length;
+        for (String departamento : departamentos) {
+            diccionario += 40L + departamento.length();
+        }
+        return bytesColumnas() + diccionario;
+    }
+
+    /**
+     * Nombres de los departamentos presentes en la instantánea.
+     */
+    public List<String> getDepartamentos() {
+        return List.of(departamentos);
+    }
+
+    // ------------------- RECORRIDOS FILTRADOS -------------------
+    // Los filtros a null no se aplican, igual que en EmpleadoDAO.obtenerPagina().
+
+    /**
+     * Número de empleados que cumplen el filtro.
+     *
+     * @param departamento Departamento, o null para todos
+     * @param salarioMinimo Salario mínimo (incluido), o null
+     * @param salarioMaximo Salario máximo (incluido), o null
+     * @param activo Estado, o null para activos e inactivos
+     * @param paralelo true para repartir el recorrido entre los núcleos
+     */
+    public long contar(String departamento, BigDecimal salarioMinimo, BigDecimal salarioMaximo,
+                       Boolean activo, boolean paralelo) {
+        IntPredicate filtro = filtro(departamento, salarioMinimo, salarioMaximo, activo);
+        return filtro == null ? 0 : filas(paralelo).filter(filtro).count();
+    }
+
+    /**
+     * Suma de los salarios de los empleados que cumplen el filtro.
+     */
+    public BigDecimal sumarSalarios(String departamento, BigDecimal salarioMinimo, BigDecimal salarioMaximo,
+                                    Boolean activo, boolean paralelo) {
+        IntPredicate filtro = filtro(departamento, salarioMinimo, salarioMaximo, activo);
+        if (filtro == null) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        long centimos = filas(paralelo).filter(filtro).mapToLong(this::salarioCentimos).sum();
+        return BigDecimal.valueOf(centimos, 2);
+    }
+
+    /**
+     * IDs de los empleados que cumplen el filtro, en el orden de la tabla.
+     */
+    public int[] buscarIds(String departamento, BigDecimal salarioMinimo, BigDecimal salarioMaximo,
+                           Boolean activo, boolean paralelo) {
+        IntPredicate filtro = filtro(departamento, salarioMinimo, salarioMaximo, activo);
+        return filtro == null ? new int[0] : filas(paralelo).filter(filtro).map(this::id).toArray();
+    }
+
+    /**
+     * Número de empleados, activos y salario total, medio, mínimo y máximo por departamento,
+     * ordenado por nombre de departamento (mismo resultado que EstadisticasService).
+     *
+     * @param paralelo true para repartir el recorrido entre los núcleos
+     */
+    public List<EstadisticaDepartamento> estadisticasPorDepartamento(boolean paralelo) {
+        int k = departamentos.length;
+        Acumulador total = filas(paralelo).collect(() -> new Acumulador(k),
+                (acumulador, fila) -> acumulador.anadir(codigoDepartamento(fila), salarioCentimos(fila), activo(fila)),
+                Acumulador::combinar);
+
+        List<EstadisticaDepartamento> lista = new ArrayList<>(k);
+        for (int codigo = 0; codigo < k; codigo++) {
+            long empleados = total.empleados[codigo];
+            if (empleados == 0) {
+                continue;
+            }
+            BigDecimal suma = BigDecimal.valueOf(total.suma[codigo], 2);
+            lista.add(new EstadisticaDepartamento(departamentos[codigo], (int) empleados, (int) total.activos[codigo],
+                    suma, suma.divide(BigDecimal.valueOf(empleados), 2, RoundingMode.HALF_UP),
+                    BigDecimal.valueOf(total.minimo[codigo], 2), BigDecimal.valueOf(total.maximo[codigo], 2)));
+        }
+        lista.sort((a, b) -> a.departamento().compareTo(b.departamento()));
+        return lista;
+    }
+
+    /**
+     * Código de diccionario del departamento, o -1 si no está en la instantánea.
+     * Se compara sin distinguir mayúsculas, igual que la collation por defecto de MySQL
+     * en la consulta equivalente contra la base de datos.
+     */
+    private int codigoDe(String departamento) {
+        for (int codigo = 0; codigo < departamentos.length; codigo++) {
+            if (departamentos[codigo].equalsIgnoreCase(departamento)) {
+                return codigo;
+            }
+        }
+        return -1;
+    }
+
+    private IntStream filas(boolean paralelo) {
+        IntStream filas = IntStream.range(0, tamano);
+        return paralelo ? filas.parallel() : filas;
+    }
+
+    /**
+     * Condición sobre una fila, o null si ninguna fila puede cumplirla (departamento desconocido).
+     */
+    private IntPredicate filtro(String departamento, BigDecimal salarioMinimo, BigDecimal salarioMaximo,
+                                Boolean activo) {
+        int codigo = -1;
+        if (departamento != null) {
+            codigo = codigoDe(departamento);
+            if (codigo == -1) {
+                return null;
+            }
+        }
+        int codigoBuscado = codigo;
+        long minimo = salarioMinimo != null ? centimos(salarioMinimo, RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maximo = salarioMaximo != null ? centimos(salarioMaximo, RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+        return fila -> {
+            if (codigoBuscado != -1 && codigoDepartamento(fila) != codigoBuscado) {
+                return false;
+            }
+            if (activo != null && activo(fila) != activo) {
+                return false;
+            }
+            long salario = salarioCentimos(fila);
+            return salario >= minimo && salario <= maximo;
+        };
+    }
+
+    private static long centimos(BigDecimal importe, RoundingMode redondeo) {
+        return importe.setScale(2, redondeo).unscaledValue().longValueExact();
+    }
+
+    // ------------------- CARGA -------------------
+
+    private static InstantaneaHeap leerTabla() throws SQLException {
+        Filas filas = leerFilas();
+
+        // Los nombres se resuelven con la conexión ya devuelta: el diccionario puede necesitar otra
+        String[] departamentos = new String[filas.departamentoIds().size()];
+        for (int i = 0; i < departamentos.length; i++) {
+            String nombre = DiccionarioDepartamentos.nombre(filas.departamentoIds().get(i));
+            departamentos[i] = nombre != null ? nombre : "#" + filas.departamentoIds().get(i);
+        }
+        return new InstantaneaHeap(departamentos, filas.ids(), filas.salarios(), filas.codigos(), filas.activos());
+    }
+
+    /**
+     * Columnas leídas de la tabla; los códigos son índices de departamentoIds.
+     */
+    private record Filas(int[] ids, long[] salarios, short[] codigos, BitSet activos, List<Integer> departamentoIds) {
+    }
+
+    private static Filas leerFilas() throws SQLException {
+        String sqlContar = "SELECT COUNT(*) FROM empleados";
+        String sql = "SELECT id, departamento_id, CAST(salario * 100 AS SIGNED), activo FROM empleados";
+
+        try (Connection con = DatabaseConfigPool.getConexionLectura()) {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false); // COUNT y SELECT en la misma transacción: misma versión de la tabla
+
+            try {
+                int filas;
+                try (PreparedStatement ps = con.prepareStatement(sqlContar);
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    filas = rs.getInt(1);
+                }
+
+                int[] ids = new int[filas];
+                long[] salarios = new long[filas];
+                short[] codigos = new short[filas];
+                BitSet activos = new BitSet(filas);
+                Map<Integer, Integer> codigoLocal = new HashMap<>();
+                List<Integer> departamentoIds = new ArrayList<>();
+                int n = 0;
+
+                try (PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+                    ps.setFetchSize(Integer.MIN_VALUE); // Streaming: una fila cada vez
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            if (n == ids.length) { // Solo si el aislamiento no es REPEATABLE READ
+                                int capacidad = Math.max(16, n + (n >> 1));
+                                ids = Arrays.copyOf(ids, capacidad);
+                                salarios = Arrays.copyOf(salarios, capacidad);
+                                codigos = Arrays.copyOf(codigos, capacidad);
+                            }
+                            Integer codigo = codigoLocal.get(rs.getInt(2));
+                            if (codigo == null) {
+                                if (departamentoIds.size() > Short.MAX_VALUE) {
+                                    throw new SQLException("Demasiados departamentos para la instantánea");
+                                }
+                                codigo = departamentoIds.size();
+                                codigoLocal.put(rs.getInt(2), codigo);
+                                departamentoIds.add(rs.getInt(2));
+                            }
+                            ids[n] = rs.getInt(1);
+                            salarios[n] = rs.getLong(3);
+                            codigos[n] = (short) (int) codigo;
+                            if (rs.getBoolean(4)) {
+                                activos.set(n);
+                            }
+                            n++;
+                        }
+                    }
+                }
+                con.commit();
+
+                if (n != ids.length) {
+                    ids = Arrays.copyOf(ids, n);
+                    salarios = Arrays.copyOf(salarios, n);
+                    codigos = Arrays.copyOf(codigos, n);
+                }
+                return new Filas(ids, salarios, codigos, activos, departamentoIds);
+
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "filas=" + tamano +
+                ", departamentos=" + departamentos.length +
+                ", bytes=" + getBytesEstimados() +
+                ", fueraDelHeap=" + isFueraDelHeap() +
+                '}';
+    }
+
+    /**
+     * Totales por código de departamento; cada hilo del recorrido paralelo usa el suyo
+     * y al final se combinan.
+     */
+    private static final class Acumulador {
+        private final long[] empleados;
+        private final long[] activos;
+        private final long[] suma;
+        private final long[] minimo;
+        private final long[] maximo;
+
+        Acumulador(int departamentos) {
+            empleados = new long[departamentos];
+            activos = new long[departamentos];
+            suma = new long[departamentos];
+            minimo = new long[departamentos];
+            maximo = new long[departamentos];
+            Arrays.fill(minimo, Long.MAX_VALUE);
+            Arrays.fill(maximo, Long.MIN_VALUE);
+        }
+
+        void anadir(int codigo, long salario, boolean activo) {
+            empleados[codigo]++;
+            if (activo) {
+                activos[codigo]++;
+            }
+            suma[codigo] += salario;
+            minimo[codigo] = Math.min(minimo[codigo], salario);
+            maximo[codigo] = Math.max(maximo[codigo], salario);
+        }
+
+        void combinar(Acumulador otro) {
+            for (int i = 0; i < empleados.length; i++) {
+                empleados[i] += otro.empleados[i];
+                activos[i] += otro.activos[i];
+                suma[i] += otro.suma[i];
+                minimo[i] = Math.min(minimo[i], otro.minimo[i]);
+                maximo[i] = Math.max(maximo[i], otro.maximo[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package analitica;
+
+import java.util.BitSet;
+
+/**
+ * Instantánea columnar con las columnas en arrays primitivos del heap.
+ */
+final class InstantaneaHeap extends InstantaneaEmpleados {
+
+    private final int[] ids;
+    private final long[] salarios;
+    private final short[] codigos;
+    private final BitSet activos;
+
+    InstantaneaHeap(String[] departamentos, int[] ids, long[] salarios, short[] codigos, BitSet activos) {
+        super(departamentos, ids.length);
+        this.ids = ids;
+        this.salarios = salarios;
+        this.codigos = codigos;
+        this.activos = activos;
+    }
+
+    @Override
+    int id(int fila) {
+        return ids[fila];
+    }
+
+    @Override
+    long salarioCentimos(int fila) {
+        return salarios[fila];
+    }
+
+    @Override
+    int codigoDepartamento(int fila) {
+        return codigos[fila];
+    }
+
+    @Override
+    boolean activo(int fila) {
+        return activos.get(fila);
+    }
+
+    @Override
+    long bytesColumnas() {
+        // Cabecera de 16 bytes por array más los datos
+        return 16L + 4L * ids.length
+                + 16L + 8L * salarios.length
+                + 16L + 2L * codigos.length
+                + 40L + activos.size() / 8;
+    }
+
+    @Override
+    public boolean isFueraDelHeap() {
+        return false;
+    }
+}
@@ -0,0 +1,125 @@
+package api;
+
+import config.DatabaseConfigPool;
+import config.Histograma;
+import config.MetricasPool;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencia y rendimiento de la API HTTP, por ruta.
+ *
+ * Comentarios académicos:
+ * - Cada ruta (por ejemplo "GET /empleados/{id}") tiene su Histograma de latencias en
+ *   microsegundos y contadores de respuestas 4xx y 5xx; todo se actualiza sin bloqueos.
+ * - Las peticiones por segundo se calculan desde el inicio o el último reinicio.
+ * - Las peticiones rechazadas (503) no llegan a ejecutarse: indican que el límite de
+ *   concurrencia o el pool de conexiones están saturados.
+ */
+public final class EstadisticasHttp {
+
+    private static final class Ruta {
+        final Histograma latenciaMicros = new Histograma();
+        final LongAdder erroresCliente = new LongAdder();
+        final LongAdder erroresServidor = new LongAdder();
+    }
+
+    private final Map<String, Ruta> rutas = new ConcurrentHashMap<>();
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final LongAdder rechazadas = new LongAdder();
+    private volatile long inicioNanos = System.nanoTime();
+
+    void empezar() {
+        enCurso.incrementAndGet();
+    }
+
+    void terminar(String ruta, int estado, long nanos) {
+        enCurso.decrementAndGet();
+        Ruta r = rutas.computeIfAbsent(ruta, k -> new Ruta());
+        r.latenciaMicros.registrar(nanos / 1_000);
+        if (estado >= 500) {
+            r.erroresServidor.increment();
+        } else if (estado >= 400) {
+            r.erroresCliente.increment();
+        }
+    }
+
+    void rechazar() {
+        rechazadas.increment();
+    }
+
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+
+    public long getPeticiones() {
+        long total = 0;
+        for (Ruta r : rutas.values()) {
+            total += r.latenciaMicros.getCuenta();
+        }
+        return total;
+    }
+
+    /**
+     * Histograma de latencias (µs) de una ruta, o null si aún no ha recibido peticiones.
+     */
+    public Histograma getLatenciaMicros(String ruta) {
+        Ruta r = rutas.get(ruta);
+        return r != null ? r.latenciaMicros : null;
+    }
+
+    /**
+     * Empieza un nuevo intervalo de medida.
+     */
+    public void reiniciar() {
+        rutas.clear();
+        rechazadas.reset();
+        inicioNanos = System.nanoTime();
+    }
+
+    /**
+     * Estadísticas en JSON, con las del pool principal si ya está creado.
+     */
+    public String aJson() {
+        double segundos = (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+        long peticiones = getPeticiones();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT,
+                "{\"segundos\":%.1f,\"peticiones\":%d,\"peticionesPorSegundo\":%.1f,\"enCurso\":%d,\"rechazadas\":%d,\"rutas\":{",
+                segundos, peticiones, segundos > 0 ? peticiones / segundos : 0, getEnCurso(), getRechazadas()));
+
+        boolean primera = true;
+        for (Map.Entry<String, Ruta> entrada : new TreeMap<>(rutas).entrySet()) {
+            Histograma h = entrada.getValue().latenciaMicros;
+            sb.append(primera ? "" : ",").append(Json.cadena(entrada.getKey()));
+            sb.append(String.format(Locale.ROOT,
+                    ":{\"peticiones\":%d,\"errores4xx\":%d,\"errores5xx\":%d,\"mediaMicros\":%.0f," +
+                            "\"p50Micros\":%d,\"p99Micros\":%d,\"p999Micros\":%d,\"maxMicros\":%d}",
+                    h.getCuenta(), entrada.getValue().erroresCliente.sum(), entrada.getValue().erroresServidor.sum(),
+                    h.getMedia(), h.percentil(50), h.percentil(99), h.percentil(99.9), h.getMaximo()));
+            primera = false;
+        }
+        sb.append('}');
+
+        MetricasPool pool = DatabaseConfigPool.getMetricas();
+        if (pool != null) {
+            sb.append(String.format(Locale.ROOT,
+                    ",\"pool\":{\"activas\":%d,\"inactivas\":%d,\"hilosEsperando\":%d,\"timeouts\":%d," +
+                            "\"esperaP50Micros\":%d,\"esperaP99Micros\":%d,\"esperaMaximaMicros\":%d}",
+                    pool.getConexionesActivas(), pool.getConexionesInactivas(), pool.getHilosEsperando(),
+                    pool.getTimeouts(), pool.getEsperaP50Micros(), pool.getEsperaP99Micros(),
+                    pool.getEsperaMaximaMicros()));
+        }
+        return sb.append('}').toString();
+    }
+}
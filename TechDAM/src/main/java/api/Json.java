@@ -0,0 +1,225 @@
+package api;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lectura y escritura mínima de JSON para la API HTTP, sin dependencias externas.
+ *
+ * Comentarios académicos:
+ * - leer() convierte el texto en Map (objetos), List (arrays), String, BigDecimal
+ *   (números, sin perder decimales en importes), Boolean o null.
+ * - Para escribir basta con cadena(), que escapa comillas, barras y caracteres de control;
+ *   el resto de valores (números, true/false, null) se escriben tal cual.
+ * - La lectura es recursiva, así que se limita el anidamiento (MAX_PROFUNDIDAD): un cuerpo
+ *   como "[[[[..." agotaría la pila del hilo en lugar de dar un error de datos (400).
+ */
+final class Json {
+
+    // Objetos y arrays anidados como máximo; las peticiones de la API usan 2 niveles
+    private static final int MAX_PROFUNDIDAD = 32;
+
+    private final String texto;
+    private int pos;
+    private int profundidad;
+
+    private Json(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * @throws IllegalArgumentException Si el texto no es JSON válido
+     */
+    static Object leer(String texto) {
+        Json lector = new Json(texto);
+        Object valor = lector.valor();
+        lector.saltarEspacios();
+        if (lector.pos != texto.length()) {
+            throw lector.error("contenido después del final");
+        }
+        return valor;
+    }
+
+    /**
+     * Cadena JSON entre comillas, o null si el valor es null.
+     */
+    static String cadena(String valor) {
+        if (valor == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(valor.length() + 2).append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // ------------------- LECTURA -------------------
+
+    private Object valor() {
+        saltarEspacios();
+        if (pos >= texto.length()) {
+            throw error("se esperaba un valor");
+        }
+        char c = texto.charAt(pos);
+        return switch (c) {
+            case '{' -> objeto();
+            case '[' -> array();
+            case '"' -> cadena();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> numero();
+        };
+    }
+
+    private Map<String, Object> objeto() {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        entrar(); // {
+        if (consumir('}')) {
+            profundidad--;
+            return mapa;
+        }
+        do {
+            saltarEspacios();
+            if (pos >= texto.length() || texto.charAt(pos) != '"') {
+                throw error("se esperaba el nombre de un campo");
+            }
+            String clave = cadena();
+            saltarEspacios();
+            if (!consumir(':')) {
+                throw error("se esperaba ':'");
+            }
+            mapa.put(clave, valor());
+            saltarEspacios();
+        } while (consumir(','));
+        if (!consumir('}')) {
+            throw error("se esperaba ',' o '}'");
+        }
+        profundidad--;
+        return mapa;
+    }
+
+    private List<Object> array() {
+        List<Object> lista = new ArrayList<>();
+        entrar(); // [
+        if (consumir(']')) {
+            profundidad--;
+            return lista;
+        }
+        do {
+            lista.add(valor());
+            saltarEspacios();
+        } while (consumir(','));
+        if (!consumir(']')) {
+            throw error("se esperaba ',' o ']'");
+        }
+        profundidad--;
+        return lista;
+    }
+
+    private String cadena() {
+        StringBuilder sb = new StringBuilder();
+        pos++; // "
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= texto.length()) {
+                break;
+            }
+            char escape = texto.charAt(pos++);
+            switch (escape) {
+                case '"', '\\', '/' -> sb.append(escape);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > texto.length()) {
+                        throw error("escape \\u incompleto");
+                    }
+                    sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> throw error("escape no válido \\" + escape);
+            }
+        }
+        throw error("cadena sin cerrar");
+    }
+
+    private BigDecimal numero() {
+        int inicio = pos;
+        while (pos < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(pos)) >= 0) {
+            pos++;
+        }
+        if (inicio == pos) {
+            throw error("carácter inesperado '" + texto.charAt(pos) + "'");
+        }
+        try {
+            return new BigDecimal(texto.substring(inicio, pos));
+        } catch (NumberFormatException e) {
+            throw error("número no válido");
+        }
+    }
+
+    private Object literal(String palabra, Object valor) {
+        if (!texto.startsWith(palabra, pos)) {
+            throw error("se esperaba " + palabra);
+        }
+        pos += palabra.length();
+        return valor;
+    }
+
+    /**
+     * Consume el '{' o '[' de apertura comprobando el límite de anidamiento.
+     */
+    private void entrar() {
+        if (++profundidad > MAX_PROFUNDIDAD) {
+            throw error("más de " + MAX_PROFUNDIDAD + " niveles de anidamiento");
+        }
+        pos++;
+        saltarEspacios();
+    }
+
+    private boolean consumir(char c) {
+        if (pos < texto.length() && texto.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void saltarEspacios() {
+        while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String mensaje) {
+        return new IllegalArgumentException("JSON no válido en la posición " + pos + ": " + mensaje);
+    }
+}
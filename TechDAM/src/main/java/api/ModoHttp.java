@@ -0,0 +1,61 @@
+package api;
+
+import config.DatabaseConfigPool;
+
+import java.io.IOException;
+
+/**
+ * Modo servidor: arranca la API HTTP en lugar del menú.
+ *
+ * Uso: --http [puerto]   (por defecto techdam.http.puerto u 8080)
+ *
+ * El proceso sigue vivo mientras el servidor escucha; al pararlo (Ctrl+C o SIGTERM) se
+ * esperan las peticiones en curso y se cierra el pool de conexiones.
+ */
+public final class ModoHttp {
+
+    /** Argumento que activa este modo. */
+    public static final String ARGUMENTO = "--http";
+
+    // Espera máxima a las peticiones en curso al parar
+    private static final int SEGUNDOS_PARADA = 5;
+
+    private ModoHttp() {
+    }
+
+    /**
+     * Arranca el servidor y vuelve en cuanto está escuchando.
+     *
+     * @param args Argumentos de Main, empezando por --http
+     * @return 0 si el servidor está escuchando; 1 si no se pudo abrir el puerto y 2 si los
+     *         argumentos no son válidos
+     */
+    public static int ejecutar(String[] args) {
+        ServidorHttp servidor;
+        try {
+            if (args.length > 2) {
+                throw new IllegalArgumentException("Argumento no reconocido: " + args[2]);
+            }
+            servidor = args.length == 2
+                    ? new ServidorHttp(System.getProperty("techdam.http.host", "127.0.0.1"), Integer.parseInt(args[1]),
+                            DatabaseConfigPool.getTamanoMaximoPool())
+                    : new ServidorHttp();
+            servidor.iniciar();
+
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: --http [puerto]");
+            return 2;
+
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("No se pudo arrancar el servidor HTTP: " + e.getMessage());
+            return 1;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.detener(SEGUNDOS_PARADA);
+            DatabaseConfigPool.cerrarPool();
+        }, "techdam-parada"));
+        return 0;
+    }
+}
@@ -0,0 +1,621 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.DatabaseConfigPool;
+import dao.EmpleadoDAO;
+import dao.ProyectoDAO;
+import modelo.Empleado;
+import modelo.Proyecto;
+import service.ProcedimientosService;
+import service.TransaccionesService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * API HTTP/JSON de TechDAM sobre el HttpServer del JDK.
+ *
+ * Rutas:
+ * <pre>
+ * GET    /empleados?despuesDe=0&amp;limite=50&amp;departamento=Ventas&amp;activo=true   (página por keyset)
+ * GET    /empleados/todos                 (todos, en streaming)
+ * GET    /empleados/{id}
+ * POST   /empleados                       {"nombre","departamento","salario","activo"}
+ * PUT    /empleados/{id}                  {"nombre","departamento","salario","activo"}
+ * DELETE /empleados/{id}
+ * GET    /proyectos?despuesDe=0&amp;limite=50
+ * GET    /proyectos/todos
+ * GET    /proyectos/{id}
+ * POST   /proyectos                       {"nombre","presupuesto"}
+ * PUT    /proyectos/{id}                  {"nombre","presupuesto"}
+ * DELETE /proyectos/{id}
+ * POST   /transferencias                  {"origen","destino","monto"}
+ * POST   /procedimientos/salarios         {"departamento","porcentaje"} o {"porcentajes":{...},"atomico":true}
+ * POST   /procedimientos/asignaciones     {"empleado","proyecto"}
+ * GET    /estadisticas                    (latencias por ruta y estado del pool)
+ * DELETE /estadisticas                    (empieza un nuevo intervalo de medida)
+ * </pre>
+ *
+ * Comentarios académicos:
+ * - Cada petición se atiende en su propio hilo virtual: un hilo bloqueado en JDBC no
+ *   ocupa un hilo del sistema operativo.
+ * - Los hilos virtuales no limitan la concurrencia, así que un Semaphore con tantos permisos
+ *   como conexiones tiene el pool la limita. Si no hay permiso en techdam.http.esperaMillis
+ *   (1 s por defecto) se responde 503 con Retry-After en lugar de acumular peticiones
+ *   esperando conexión hasta el connectionTimeout de HikariCP.
+ * - Los listados completos (/todos) se escriben en streaming con respuesta chunked: se
+ *   recorren con streamTodos() y la memoria no depende del tamaño de la tabla. Si la
+ *   lectura falla a mitad, ya se ha enviado el 200: se corta la conexión sin el trozo final
+ *   para que el cliente lo vea como un error y no como un JSON completo.
+ * - Los listados paginados devuelven "siguiente", el ID a pasar en despuesDe para pedir
+ *   la página siguiente (null en la última).
+ * - Por defecto solo escucha en 127.0.0.1 (techdam.http.host para cambiarlo).
+ * - Con la escritura diferida de EmpleadoDAO activa, PUT /empleados/{id} responde 202
+ *   (aceptado) en lugar de 200: el cambio se escribe más tarde y un ID inexistente no da
+ *   404 sino que cuenta como "inexistentes" en las métricas del búfer.
+ */
+public class ServidorHttp {
+
+    private static final String TIPO_JSON = "application/json; charset=utf-8";
+
+    // Límites de las peticiones
+    private static final int LIMITE_POR_DEFECTO = 50;
+    private static final int LIMITE_MAXIMO = 1000;
+    private static final int CUERPO_MAXIMO = 1024 * 1024;
+
+    private static final long ESPERA_PERMISO_MILLIS = Long.getLong("techdam.http.esperaMillis", 1_000L);
+
+    /**
+     * Atiende una ruta y devuelve el código HTTP enviado.
+     */
+    @FunctionalInterface
+    private interface Manejador {
+        int atender(HttpExchange ex, Matcher ruta) throws IOException;
+    }
+
+    /**
+     * @param nombre Nombre en las estadísticas, por ejemplo "GET /empleados/{id}"
+     * @param limitada true si usa la base de datos y cuenta para el límite de concurrencia
+     */
+    private record Ruta(String metodo, Pattern patron, String nombre, boolean limitada, Manejador manejador) {
+    }
+
+    /**
+     * Error que se devuelve al cliente con su código HTTP.
+     */
+    private static final class ErrorHttp extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int estado;
+
+        ErrorHttp(int estado, String mensaje) {
+            super(mensaje);
+            this.estado = estado;
+        }
+    }
+
+    /**
+     * Fallo a mitad de una respuesta en streaming: ya se envió el 200 y no se puede responder
+     * con un error, así que se corta la conexión sin el trozo final.
+     */
+    private static final class TransmisionInterrumpida extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TransmisionInterrumpida(RuntimeException causa) {
+            super(causa.getMessage(), causa);
+        }
+    }
+
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final ProyectoDAO proyectoDAO = new ProyectoDAO();
+    private final TransaccionesService transaccionesService = new TransaccionesService();
+    private final ProcedimientosService procedimientosService = new ProcedimientosService();
+
+    private final String host;
+    private final int puerto;
+    private final Semaphore permisos;
+    private final EstadisticasHttp estadisticas = new EstadisticasHttp();
+    private final List<Ruta> rutas;
+
+    private HttpServer servidor;
+    private ExecutorService ejecutor;
+
+    /**
+     * Servidor en techdam.http.host:techdam.http.puerto (127.0.0.1:8080 por defecto),
+     * con tantas peticiones a la vez como conexiones tiene el pool.
+     */
+    public ServidorHttp() {
+        this(System.getProperty("techdam.http.host", "127.0.0.1"), Integer.getInteger("techdam.http.puerto", 8080),
+                DatabaseConfigPool.getTamanoMaximoPool());
+    }
+
+    /**
+     * @param host Dirección en la que escuchar
+     * @param puerto Puerto (0 para uno libre, ver getPuerto())
+     * @param maxConcurrencia Máximo de peticiones a la base de datos atendiéndose a la vez
+     */
+    public ServidorHttp(String host, int puerto, int maxConcurrencia) {
+        if (maxConcurrencia <= 0) {
+            throw new IllegalArgumentException("La concurrencia máxima debe ser mayor que 0");
+        }
+        this.host = host;
+        this.puerto = puerto;
+        this.permisos = new Semaphore(maxConcurrencia);
+        this.rutas = List.of(
+                new Ruta("GET", Pattern.compile("/empleados"), "GET /empleados", true, this::paginaEmpleados),
+                new Ruta("GET", Pattern.compile("/empleados/todos"), "GET /empleados/todos", true,
+                        (ex, m) -> transmitir(ex, empleadoDAO.streamTodos(), ServidorHttp::json)),
+                new Ruta("GET", Pattern.compile("/empleados/(\\d+)"), "GET /empleados/{id}", true, this::obtenerEmpleado),
+                new Ruta("POST", Pattern.compile("/empleados"), "POST /empleados", true, this::crearEmpleado),
+                new Ruta("PUT", Pattern.compile("/empleados/(\\d+)"), "PUT /empleados/{id}", true, this::actualizarEmpleado),
+                new Ruta("DELETE", Pattern.compile("/empleados/(\\d+)"), "DELETE /empleados/{id}", true, this::eliminarEmpleado),
+                new Ruta("GET", Pattern.compile("/proyectos"), "GET /proyectos", true, this::paginaProyectos),
+                new Ruta("GET", Pattern.compile("/proyectos/todos"), "GET /proyectos/todos", true,
+                        (ex, m) -> transmitir(ex, proyectoDAO.streamTodos(), ServidorHttp::json)),
+                new Ruta("GET", Pattern.compile("/proyectos/(\\d+)"), "GET /proyectos/{id}", true, this::obtenerProyecto),
+                new Ruta("POST", Pattern.compile("/proyectos"), "POST /proyectos", true, this::crearProyecto),
+                new Ruta("PUT", Pattern.compile("/proyectos/(\\d+)"), "PUT /proyectos/{id}", true, this::actualizarProyecto),
+                new Ruta("DELETE", Pattern.compile("/proyectos/(\\d+)"), "DELETE /proyectos/{id}", true, this::eliminarProyecto),
+                new Ruta("POST", Pattern.compile("/transferencias"), "POST /transferencias", true, this::transferir),
+                new Ruta("POST", Pattern.compile("/procedimientos/salarios"), "POST /procedimientos/salarios", true,
+                        this::actualizarSalarios),
+                new Ruta("POST", Pattern.compile("/procedimientos/asignaciones"), "POST /procedimientos/asignaciones", true,
+                        this::asignar),
+                new Ruta("GET", Pattern.compile("/estadisticas"), "GET /estadisticas", false,
+                        (ex, m) -> responder(ex, 200, estadisticas.aJson())),
+                new Ruta("DELETE", Pattern.compile("/estadisticas"), "DELETE /estadisticas", false, (ex, m) -> {
+                    estadisticas.reiniciar();
+                    return responder(ex, 204, null);
+                }));
+    }
+
+    /**
+     * Abre el puerto y empieza a atender peticiones.
+     */
+    public synchronized void iniciar() throws IOException {
+        if (servidor != null) {
+            return;
+        }
+        servidor = HttpServer.create(new InetSocketAddress(host, puerto), 0);
+        ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(ejecutor);
+        servidor.createContext("/", this::atender);
+        servidor.start();
+        System.out.println("Servidor HTTP escuchando en http://" + host + ":" + getPuerto());
+    }
+
+    /**
+     * Deja de aceptar peticiones y espera a que terminen las que están en curso.
+     *
+     * @param segundos Espera máxima a las peticiones en curso
+     */
+    public synchronized void detener(int segundos) {
+        if (servidor == null) {
+            return;
+        }
+        servidor.stop(segundos);
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(segundos, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        servidor = null;
+        System.out.println("Servidor HTTP detenido");
+    }
+
+    /**
+     * Puerto en el que escucha (útil si se creó con puerto 0).
+     */
+    public synchronized int getPuerto() {
+        return servidor != null ? servidor.getAddress().getPort() : puerto;
+    }
+
+    public EstadisticasHttp getEstadisticas() {
+        return estadisticas;
+    }
+
+    // ------------------- DESPACHO -------------------
+
+    private void atender(HttpExchange ex) {
+        long inicio = System.nanoTime();
+        String ruta = ex.getRequestURI().getPath();
+        TransmisionInterrumpida interrumpida = null;
+
+        try {
+            Ruta elegida = null;
+            Matcher coincidencia = null;
+            boolean otroMetodo = false;
+            for (Ruta r : rutas) {
+                Matcher m = r.patron().matcher(ruta);
+                if (m.matches()) {
+                    if (r.metodo().equals(ex.getRequestMethod())) {
+                        elegida = r;
+                        coincidencia = m;
+                        break;
+                    }
+                    otroMetodo = true;
+                }
+            }
+            if (elegida == null) {
+                responderError(ex, otroMetodo ? 405 : 404, otroMetodo ? "Método no permitido" : "Ruta no encontrada");
+                return;
+            }
+
+            if (elegida.limitada() && !permisos.tryAcquire(ESPERA_PERMISO_MILLIS, TimeUnit.MILLISECONDS)) {
+                estadisticas.rechazar();
+                ex.getResponseHeaders().set("Retry-After", "1");
+                responderError(ex, 503, "Servidor saturado, vuelva a intentarlo");
+                return;
+            }
+
+            estadisticas.empezar();
+            int estado = 500;
+            try {
+                estado = elegida.manejador().atender(ex, coincidencia);
+            } catch (TransmisionInterrumpida e) {
+                System.err.println("Error transmitiendo " + elegida.nombre() + ": " + e.getMessage());
+                interrumpida = e;
+            } catch (ErrorHttp e) {
+                estado = responderSiSePuede(ex, e.estado, e.getMessage());
+            } catch (IllegalArgumentException | ArithmeticException e) { // Números y campos no válidos
+                estado = responderSiSePuede(ex, 400, "Datos no válidos: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error atendiendo " + elegida.nombre() + ": " + e.getMessage());
+                estado = responderSiSePuede(ex, 500, "Error interno");
+            } finally {
+                if (elegida.limitada()) {
+                    permisos.release();
+                }
+                estadisticas.terminar(elegida.nombre(), estado, System.nanoTime() - inicio);
+            }
+
+        } catch (IOException e) {
+            // El cliente cerró la conexión: no hay a quién responder
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (interrumpida == null) {
+                ex.close();
+            }
+        }
+        if (interrumpida != null) {
+            // Sin cerrar el intercambio: HttpServer cierra la conexión sin el trozo final y el
+            // cliente ve una respuesta cortada en lugar de un JSON aparentemente completo
+            throw interrumpida;
+        }
+    }
+
+    // ------------------- EMPLEADOS -------------------
+
+    private int paginaEmpleados(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, String> parametros = parametros(ex);
+        String activo = parametros.get("activo");
+        List<Empleado> pagina = empleadoDAO.obtenerPagina(despuesDe(parametros), limite(parametros),
+                parametros.get("departamento"), activo != null ? Boolean.valueOf(activo) : null);
+        return responder(ex, 200, pagina(pagina, limite(parametros), Empleado::getId, ServidorHttp::json));
+    }
+
+    private int obtenerEmpleado(HttpExchange ex, Matcher m) throws IOException {
+        Optional<Empleado> emp = empleadoDAO.obtenerPorId(Integer.parseInt(m.group(1)));
+        if (emp.isEmpty()) {
+            throw new ErrorHttp(404, "Empleado " + m.group(1) + " no encontrado");
+        }
+        return responder(ex, 200, json(emp.get()));
+    }
+
+    private int crearEmpleado(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, Object> cuerpo = cuerpo(ex);
+        Empleado emp = new Empleado(0, texto(cuerpo, "nombre"), texto(cuerpo, "departamento"),
+                decimal(cuerpo, "salario"), booleano(cuerpo, "activo", true));
+        int id = empleadoDAO.crear(emp);
+        if (id == -1) {
+            throw new ErrorHttp(500, "No se pudo crear el empleado");
+        }
+        ex.getResponseHeaders().set("Location", "/empleados/" + id);
+        return responder(ex, 201, "{\"id\":" + id + "}");
+    }
+
+    private int actualizarEmpleado(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, Object> cuerpo = cuerpo(ex);
+        Empleado emp = new Empleado(Integer.parseInt(m.group(1)), texto(cuerpo, "nombre"),
+                texto(cuerpo, "departamento"), decimal(cuerpo, "salario"), booleano(cuerpo, "activo", true));
+        if (!empleadoDAO.actualizar(emp)) {
+            throw new ErrorHttp(404, "Empleado " + m.group(1) + " no encontrado o no actualizado");
+        }
+        // Con escritura diferida solo se ha aceptado: aún no se sabe si el empleado existe
+        return responder(ex, EmpleadoDAO.getEscrituraDiferida() != null ? 202 : 200, json(emp));
+    }
+
+    private int eliminarEmpleado(HttpExchange ex, Matcher m) throws IOException {
+        if (!empleadoDAO.eliminar(Integer.parseInt(m.group(1)))) {
+            throw new ErrorHttp(404, "Empleado " + m.group(1) + " no encontrado o no eliminado");
+        }
+        return responder(ex, 204, null);
+    }
+
+    // ------------------- PROYECTOS -------------------
+
+    private int paginaProyectos(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, String> parametros = parametros(ex);
+        List<Proyecto> pagina = proyectoDAO.obtenerPagina(despuesDe(parametros), limite(parametros));
+        return responder(ex, 200, pagina(pagina, limite(parametros), Proyecto::getId, ServidorHttp::json));
+    }
+
+    private int obtenerProyecto(HttpExchange ex, Matcher m) throws IOException {
+        Optional<Proyecto> proyecto = proyectoDAO.obtenerPorId(Integer.parseInt(m.group(1)));
+        if (proyecto.isEmpty()) {
+            throw new ErrorHttp(404, "Proyecto " + m.group(1) + " no encontrado");
+        }
+        return responder(ex, 200, json(proyecto.get()));
+    }
+
+    private int crearProyecto(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, Object> cuerpo = cuerpo(ex);
+        int id = proyectoDAO.crear(new Proyecto(0, texto(cuerpo, "nombre"), decimal(cuerpo, "presupuesto")));
+        if (id == -1) {
+            throw new ErrorHttp(500, "No se pudo crear el proyecto");
+        }
+        ex.getResponseHeaders().set("Location", "/proyectos/" + id);
+        return responder(ex, 201, "{\"id\":" + id + "}");
+    }
+
+    private int actualizarProyecto(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, Object> cuerpo = cuerpo(ex);
+        Proyecto proyecto = new Proyecto(Integer.parseInt(m.group(1)), texto(cuerpo, "nombre"),
+                decimal(cuerpo, "presupuesto"));
+        if (!proyectoDAO.actualizar(proyecto)) {
+            throw new ErrorHttp(404, "Proyecto " + m.group(1) + " no encontrado o no actualizado");
+        }
+        return responder(ex, 200, json(proyecto));
+    }
+
+    private int eliminarProyecto(HttpExchange ex, Matcher m) throws IOException {
+        if (!proyectoDAO.eliminar(Integer.parseInt(m.group(1)))) {
+            throw new ErrorHttp(404, "Proyecto " + m.group(1) + " no encontrado o no eliminado");
+        }
+        return responder(ex, 204, null);
+    }
+
+    // ------------------- TRANSACCIONES Y PROCEDIMIENTOS -------------------
+
+    private int transferir(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, Object> cuerpo = cuerpo(ex);
+        if (!transaccionesService.transferirPresupuesto(entero(cuerpo, "origen"), entero(cuerpo, "destino"),
+                decimal(cuerpo, "monto"))) {
+            throw new ErrorHttp(409, "Transferencia rechazada (proyecto inexistente, saldo insuficiente o error)");
+        }
+        return responder(ex, 200, "{\"transferido\":true}");
+    }
+
+    private int actualizarSalarios(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, Object> cuerpo = cuerpo(ex);
+
+        if (!cuerpo.containsKey("porcentajes")) {
+            String departamento = texto(cuerpo, "departamento");
+            int afectados = procedimientosService.actualizarSalariosDepartamento(departamento,
+                    decimal(cuerpo, "porcentaje").doubleValue());
+            if (afectados == -1) {
+                throw new ErrorHttp(500, "No se pudo actualizar el departamento " + departamento);
+            }
+            return responder(ex, 200, "{\"departamento\":" + Json.cadena(departamento)
+                    + ",\"empleadosActualizados\":" + afectados + "}");
+        }
+
+        if (!(cuerpo.get("porcentajes") instanceof Map<?, ?> mapa) || mapa.isEmpty()) {
+            throw new ErrorHttp(400, "porcentajes debe ser un objeto {departamento: porcentaje}");
+        }
+        Map<String, BigDecimal> porcentajes = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entrada : mapa.entrySet()) {
+            if (!(entrada.getValue() instanceof BigDecimal porcentaje)) {
+                throw new ErrorHttp(400, "Porcentaje no válido para " + entrada.getKey());
+            }
+            porcentajes.put((String) entrada.getKey(), porcentaje);
+        }
+
+        Map<String, Integer> afectados = procedimientosService.actualizarSalariosDepartamentos(porcentajes,
+                booleano(cuerpo, "atomico", true));
+        if (afectados.isEmpty()) {
+            throw new ErrorHttp(409, "Transacción deshecha, no se aplicó ningún cambio");
+        }
+        StringBuilder sb = new StringBuilder("{\"empleadosActualizados\":{");
+        afectados.forEach((departamento, n) -> sb.append(sb.charAt(sb.length() - 1) == '{' ? "" : ",")
+                .append(Json.cadena(departamento)).append(':').append(n));
+        return responder(ex, 200, sb.append("}}").toString());
+    }
+
+    private int asignar(HttpExchange ex, Matcher m) throws IOException {
+        Map<String, Object> cuerpo = cuerpo(ex);
+        if (procedimientosService.asignarEmpleadoAProyecto(entero(cuerpo, "empleado"), entero(cuerpo, "proyecto")) != 1) {
+            throw new ErrorHttp(409, "No se pudo asignar el empleado al proyecto");
+        }
+        return responder(ex, 201, "{\"asignado\":true}");
+    }
+
+    // ------------------- RESPUESTAS -------------------
+
+    private static int responder(HttpExchange ex, int estado, String json) throws IOException {
+        if (json == null) {
+            ex.sendResponseHeaders(estado, -1); // Sin cuerpo
+            return estado;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", TIPO_JSON);
+        ex.sendResponseHeaders(estado, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+        return estado;
+    }
+
+    private static int responderError(HttpExchange ex, int estado, String mensaje) throws IOException {
+        return responder(ex, estado, "{\"error\":" + Json.cadena(mensaje) + "}");
+    }
+
+    /**
+     * Responde con el error salvo que ya se hubieran enviado las cabeceras (error a mitad
+     * de un streaming): entonces solo se puede cortar la respuesta.
+     */
+    private static int responderSiSePuede(HttpExchange ex, int estado, String mensaje) throws IOException {
+        if (ex.getResponseCode() != -1) {
+            return estado;
+        }
+        return responderError(ex, estado, mensaje);
+    }
+
+    private static <T> String pagina(List<T> elementos, int limite, Function<T, Integer> id, Function<T, String> json) {
+        StringBuilder sb = new StringBuilder("{\"elementos\":[");
+        for (int i = 0; i < elementos.size(); i++) {
+            sb.append(i == 0 ? "" : ",").append(json.apply(elementos.get(i)));
+        }
+        // Página completa: puede haber más, se continúa después del último ID
+        String siguiente = elementos.size() == limite ? String.valueOf(id.apply(elementos.getLast())) : "null";
+        return sb.append("],\"siguiente\":").append(siguiente).append('}').toString();
+    }
+
+    /**
+     * Escribe un array JSON a medida que se leen las filas (Transfer-Encoding: chunked).
+     */
+    private static <T> int transmitir(HttpExchange ex, Stream<T> flujo, Function<T, String> json) throws IOException {
+        try (Stream<T> filas = flujo) {
+            ex.getResponseHeaders().set("Content-Type", TIPO_JSON);
+            ex.sendResponseHeaders(200, 0);
+            Writer out = new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8),
+                    64 * 1024);
+            try {
+                out.write('[');
+                boolean primero = true;
+                for (Iterator<T> it = filas.iterator(); it.hasNext(); primero = false) {
+                    out.write(primero ? "" : ",");
+                    out.write(json.apply(it.next()));
+                }
+                out.write(']');
+            } catch (RuntimeException e) {
+                // No se cierra 'out': cerrarlo enviaría el trozo final (respuesta "completa")
+                throw new TransmisionInterrumpida(e);
+            }
+            out.close();
+        }
+        return 200;
+    }
+
+    private static String json(Empleado emp) {
+        return "{\"id\":" + emp.getId() + ",\"nombre\":" + Json.cadena(emp.getNombre())
+                + ",\"departamento\":" + Json.cadena(emp.getDepartamento())
+                + ",\"salario\":" + numero(emp.getSalario()) + ",\"activo\":" + emp.isActivo() + "}";
+    }
+
+    private static String json(Proyecto p) {
+        return "{\"id\":" + p.getId() + ",\"nombre\":" + Json.cadena(p.getNombre())
+                + ",\"presupuesto\":" + numero(p.getPresupuesto()) + "}";
+    }
+
+    private static String numero(BigDecimal valor) {
+        return valor != null ? valor.toPlainString() : "null";
+    }
+
+    // ------------------- PETICIONES -------------------
+
+    private static Map<String, String> parametros(HttpExchange ex) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = ex.getRequestURI().getRawQuery();
+        if (consulta == null) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private static int despuesDe(Map<String, String> parametros) {
+        return Integer.parseInt(parametros.getOrDefault("despuesDe", "0"));
+    }
+
+    private static int limite(Map<String, String> parametros) {
+        int limite = Integer.parseInt(parametros.getOrDefault("limite", String.valueOf(LIMITE_POR_DEFECTO)));
+        if (limite <= 0 || limite > LIMITE_MAXIMO) {
+            throw new ErrorHttp(400, "limite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return limite;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cuerpo(HttpExchange ex) throws IOException {
+        byte[] bytes;
+        try (InputStream in = ex.getRequestBody()) {
+            bytes = in.readNBytes(CUERPO_MAXIMO + 1);
+        }
+        if (bytes.length > CUERPO_MAXIMO) {
+            throw new ErrorHttp(413, "El cuerpo supera " + CUERPO_MAXIMO + " bytes");
+        }
+        if (!(Json.leer(new String(bytes, StandardCharsets.UTF_8)) instanceof Map<?, ?> objeto)) {
+            throw new ErrorHttp(400, "Se esperaba un objeto JSON");
+        }
+        return (Map<String, Object>) objeto;
+    }
+
+    private static Object campo(Map<String, Object> cuerpo, String nombre) {
+        Object valor = cuerpo.get(nombre);
+        if (valor == null) {
+            throw new ErrorHttp(400, "Falta el campo '" + nombre + "'");
+        }
+        return valor;
+    }
+
+    private static String texto(Map<String, Object> cuerpo, String nombre) {
+        if (!(campo(cuerpo, nombre) instanceof String valor) || valor.isBlank()) {
+            throw new ErrorHttp(400, "'" + nombre + "' debe ser un texto no vacío");
+        }
+        return valor.trim();
+    }
+
+    private static BigDecimal decimal(Map<String, Object> cuerpo, String nombre) {
+        if (!(campo(cuerpo, nombre) instanceof BigDecimal valor)) {
+            throw new ErrorHttp(400, "'" + nombre + "' debe ser un número");
+        }
+        return valor;
+    }
+
+    private static int entero(Map<String, Object> cuerpo, String nombre) {
+        return decimal(cuerpo, nombre).intValueExact();
+    }
+
+    private static boolean booleano(Map<String, Object> cuerpo, String nombre, boolean porDefecto) {
+        Object valor = cuerpo.get(nombre);
+        if (valor == null) {
+            return porDefecto;
+        }
+        if (!(valor instanceof Boolean b)) {
+            throw new ErrorHttp(400, "'" + nombre + "' debe ser true o false");
+        }
+        return b;
+    }
+}
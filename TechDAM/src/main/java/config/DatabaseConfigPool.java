@@ -1,65 +1,462 @@
-package config;
-
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
-
-import java.io.InputStream;
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.Properties;
-
-/**
- * Clase de configuración de pool de conexiones HikariCP.
- * Lee los parámetros desde 'db.properties' y permite obtener conexiones de manera segura.
- */
-public class DatabaseConfigPool {
-
-    private static HikariDataSource dataSource;
-
-    static {
-        try {
-            Properties props = new Properties();
-
-            // Cargar archivo db.properties desde resources
-            try (InputStream input = DatabaseConfigPool.class.getClassLoader().getResourceAsStream("db.properties")) {
-                if (input == null) {
-                    throw new RuntimeException("No se encontró el archivo db.properties");
-                }
-                props.load(input);
-            }
-
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl(props.getProperty("db.url")); // jdbc:mysql://localhost:3306/techDAM
-            config.setUsername(props.getProperty("db.user"));
-            config.setPassword(props.getProperty("db.password"));
-            config.setMaximumPoolSize(5);
-            config.setMinimumIdle(2);
-            config.setIdleTimeout(10000);
-            config.setConnectionTimeout(10000);
-            config.setPoolName("DAMPool");
-
-            dataSource = new HikariDataSource(config);
-            System.out.println("Pool de conexiones inicializado correctamente");
-
-        } catch (Exception e) {
-            throw new RuntimeException("Error al inicializar el pool de conexiones", e);
-        }
-    }
-
-    /**
-     * Obtiene una conexión del pool.
-     */
-    public static Connection getConexion() throws SQLException {
-        return dataSource.getConnection();
-    }
-
-    /**
-     * Cierra el pool y libera recursos.
-     */
-    public static void cerrarPool() {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
-            System.out.println("Pool de conexiones cerrado");
-        }
-    }
-}
+package config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Clase de configuración de pool de conexiones HikariCP.
+ * Lee los parámetros desde 'db.properties' y permite obtener conexiones de manera segura.
+ *
+ * Resolución de la configuración (de menor a mayor prioridad):
+ * 1. Valores por defecto de esta clase (equivalentes al perfil 'interactive').
+ * 2. Claves base de 'db.properties' (db.*, pool.*, mysql.*).
+ * 3. Claves del perfil activo: perfil.&lt;nombre&gt;.&lt;clave&gt; (db.perfil=batch, por ejemplo).
+ * 4. Propiedades del sistema con el mismo nombre (-Ddb.perfil=batch -Dpool.maximumPoolSize=20).
+ *
+ * Las claves pool.X se pasan a HikariCP como propiedad X y las claves mysql.Y
+ * como propiedad Y del driver MySQL Connector/J (dataSource.Y).
+ *
+ * Si se indica db.replica.url se crea un segundo pool de solo lectura (DAMPoolLectura)
+ * para listados e informes (getConexionLectura). Sin réplica, las lecturas usan el pool
+ * principal, igual que si la réplica no responde al arrancar (se avisa por consola).
+ * Para probarlo en local basta con apuntar db.replica.url a la misma BD.
+ *
+ * Los pools se crean de forma perezosa en el primer getConexion() (o con init()), no al
+ * cargar la clase: la aplicación arranca aunque la BD tarde o no esté disponible, y un
+ * fallo de conexión llega como SQLException en lugar de ExceptionInInitializerError.
+ * iniciarEnSegundoPlano() conecta y prepara las sentencias frecuentes mientras se usa el menú.
+ *
+ * Cada pool registra sus métricas en MetricasPool (esperas, uso, timeouts, percentiles),
+ * publicadas por JMX y, con -Dtechdam.metricas.intervaloSegundos=N, por consola cada N s.
+ */
+public class DatabaseConfigPool {
+
+    private static final String PREFIJO_POOL = "pool.";
+    private static final String PREFIJO_MYSQL = "mysql.";
+    private static final String PREFIJO_PERFIL = "perfil.";
+
+    // Configuración efectiva; se lee sin conectar, con su propio bloqueo para no esperar a init()
+    private static final Object BLOQUEO_CONFIGURACION = new Object();
+    private static Properties configuracion;
+    private static String perfil;
+
+    // Se crean en init(); dataSource se publica el último (volatile) y marca el pool como listo
+    private static volatile HikariDataSource dataSource;
+    private static volatile HikariDataSource dataSourceLectura; // null si no hay réplica
+
+    // Acciones de cerrarPool() antes de cerrar las conexiones (por ejemplo, vaciar búferes de escritura)
+    private static final List<Runnable> AL_CERRAR = new CopyOnWriteArrayList<>();
+
+    // Lecturas forzadas al primario en el hilo actual ("leer lo que acabo de escribir")
+    private static final ThreadLocal<Boolean> LECTURA_DEL_PRIMARIO = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Crea los pools si todavía no existen. Es seguro llamarlo varias veces y desde varios
+     * hilos; getConexion() lo llama de forma perezosa, por lo que solo hace falta llamarlo
+     * para conectar por adelantado. Si falla, la siguiente llamada lo vuelve a intentar.
+     *
+     * @throws SQLException Si no se puede leer la configuración o conectar con la BD
+     */
+    public static void init() throws SQLException {
+        if (dataSource != null) {
+            return;
+        }
+        synchronized (DatabaseConfigPool.class) {
+            if (dataSource != null) {
+                return;
+            }
+            try {
+                Properties efectivas = configuracion();
+
+                HikariConfig config = new HikariConfig(propiedadesHikari(efectivas));
+                config.setJdbcUrl(efectivas.getProperty("db.url")); // jdbc:mysql://localhost:3306/techDAM
+                config.setUsername(efectivas.getProperty("db.user"));
+                config.setPassword(efectivas.getProperty("db.password"));
+                config.setPoolName("DAMPool");
+                config.setMetricsTrackerFactory(MetricasPool::new);
+
+                HikariDataSource principal = new HikariDataSource(config);
+
+                String urlReplica = efectivas.getProperty("db.replica.url", "");
+                if (!urlReplica.isBlank()) {
+                    try {
+                        dataSourceLectura = new HikariDataSource(configuracionReplica(efectivas, urlReplica));
+                    } catch (RuntimeException e) {
+                        // La réplica es opcional: sin ella las lecturas van al principal
+                        System.err.println("Aviso: no se pudo conectar con la réplica (" + e.getMessage()
+                                + "); las lecturas usarán el pool principal");
+                        dataSourceLectura = null;
+                    }
+                }
+                dataSource = principal;
+
+                mostrarConfiguracion(perfil, efectivas);
+                MetricasPool.iniciarInformePeriodico(Long.getLong("techdam.metricas.intervaloSegundos", 0L));
+                System.out.println("Pool de conexiones inicializado correctamente");
+
+            } catch (RuntimeException e) {
+                throw new SQLException("Error al inicializar el pool de conexiones: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Inicializa los pools en un hilo de fondo y los "calienta": abre minimumIdle conexiones
+     * y prepara en cada una las sentencias indicadas, para que la primera consulta no pague
+     * la conexión ni el PREPARE (con cachePrepStmts y useServerPrepStmts el driver guarda
+     * la sentencia preparada en la conexión). En la réplica solo se preparan los SELECT.
+     *
+     * @param sentencias SQL a preparar por adelantado (por ejemplo SentenciasFrecuentes.todas())
+     * @return Futuro que termina al acabar el calentamiento, o con el error si no se pudo conectar
+     */
+    public static CompletableFuture<Void> iniciarEnSegundoPlano(List<String> sentencias) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                long inicio = System.nanoTime();
+                init();
+                int preparadas = calentar(dataSource, sentencias);
+                HikariDataSource lectura = dataSourceLectura;
+                if (lectura != null) {
+                    List<String> lecturas = new ArrayList<>();
+                    for (String sql : sentencias) {
+                        if (sql.regionMatches(true, 0, "SELECT", 0, 6)) {
+                            lecturas.add(sql);
+                        }
+                    }
+                    preparadas += calentar(lectura, lecturas);
+                }
+                System.out.println("Pool calentado: " + preparadas + " sentencias preparadas en "
+                        + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, tarea -> {
+            Thread hilo = new Thread(tarea, "techdam-calentamiento");
+            hilo.setDaemon(true);
+            hilo.start();
+        });
+    }
+
+    /**
+     * Abre a la vez minimumIdle conexiones (el pool las crea en ese momento) y prepara
+     * las sentencias en cada una.
+     */
+    private static int calentar(HikariDataSource pool, List<String> sentencias) throws SQLException {
+        int conexiones = Math.max(1, Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize()));
+        List<Connection> abiertas = new ArrayList<>(conexiones);
+        int preparadas = 0;
+
+        try {
+            for (int i = 0; i < conexiones; i++) {
+                Connection con = pool.getConnection();
+                abiertas.add(con);
+                for (String sql : sentencias) {
+                    con.prepareStatement(sql).close(); // Al cerrarla queda en la caché del driver
+                    preparadas++;
+                }
+            }
+        } finally {
+            for (Connection con : abiertas) {
+                con.close();
+            }
+        }
+        return preparadas;
+    }
+
+    /**
+     * Configuración efectiva (se lee una vez; no necesita conectar con la BD).
+     */
+    private static Properties configuracion() {
+        synchronized (BLOQUEO_CONFIGURACION) {
+            if (configuracion != null) {
+                return configuracion;
+            }
+            Properties props = new Properties();
+
+            // Cargar archivo db.properties desde resources
+            try (InputStream input = DatabaseConfigPool.class.getClassLoader().getResourceAsStream("db.properties")) {
+                if (input == null) {
+                    throw new IllegalStateException("No se encontró el archivo db.properties");
+                }
+                props.load(input);
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo leer db.properties: " + e.getMessage(), e);
+            }
+
+            perfil = System.getProperty("db.perfil", props.getProperty("db.perfil", "interactive"));
+            configuracion = resolverConfiguracion(props, perfil);
+            return configuracion;
+        }
+    }
+
+    /**
+     * Valores por defecto si no aparecen en db.properties (perfil 'interactive').
+     */
+    private static Properties valoresPorDefecto() {
+        Properties p = new Properties();
+        p.setProperty("pool.maximumPoolSize", "5");
+        p.setProperty("pool.minimumIdle", "2");
+        p.setProperty("pool.idleTimeout", "10000");
+        p.setProperty("pool.connectionTimeout", "10000");
+        p.setProperty("pool.leakDetectionThreshold", "0");
+
+        p.setProperty("mysql.cachePrepStmts", "true");
+        p.setProperty("mysql.prepStmtCacheSize", "250");
+        p.setProperty("mysql.prepStmtCacheSqlLimit", "2048");
+        p.setProperty("mysql.useServerPrepStmts", "true");
+        // Necesario para que el driver de MySQL convierta los executeBatch()
+        // de INSERT en un único INSERT multi-fila (ver EmpleadoDAO.crearLote)
+        p.setProperty("mysql.rewriteBatchedStatements", "true");
+        p.setProperty("mysql.useCursorFetch", "false");
+        p.setProperty("mysql.connectTimeout", "10000");
+        p.setProperty("mysql.socketTimeout", "0");
+        return p;
+    }
+
+    /**
+     * Combina valores por defecto, claves base, claves del perfil y propiedades del sistema.
+     */
+    private static Properties resolverConfiguracion(Properties fichero, String perfil) {
+        Properties efectivas = valoresPorDefecto();
+        String prefijoPerfil = PREFIJO_PERFIL + perfil + ".";
+
+        // Claves base del fichero
+        for (String clave : fichero.stringPropertyNames()) {
+            if (!clave.startsWith(PREFIJO_PERFIL)) {
+                efectivas.setProperty(clave, fichero.getProperty(clave));
+            }
+        }
+
+        // Claves del perfil activo
+        boolean perfilEncontrado = false;
+        for (String clave : fichero.stringPropertyNames()) {
+            if (clave.startsWith(prefijoPerfil)) {
+                efectivas.setProperty(clave.substring(prefijoPerfil.length()), fichero.getProperty(clave));
+                perfilEncontrado = true;
+            }
+        }
+        if (!perfilEncontrado && !perfil.equals("interactive")) {
+            throw new IllegalArgumentException("Perfil de base de datos desconocido: " + perfil);
+        }
+
+        // Las propiedades del sistema tienen la última palabra
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith("db.") || clave.startsWith(PREFIJO_POOL) || clave.startsWith(PREFIJO_MYSQL)) {
+                efectivas.setProperty(clave, System.getProperty(clave));
+            }
+        }
+        return efectivas;
+    }
+
+    /**
+     * Traduce pool.X a propiedades de HikariCP y mysql.Y a dataSource.Y (propiedades del driver).
+     */
+    private static Properties propiedadesHikari(Properties efectivas) {
+        Properties hikari = new Properties();
+        for (String clave : efectivas.stringPropertyNames()) {
+            if (clave.startsWith(PREFIJO_POOL)) {
+                hikari.setProperty(clave.substring(PREFIJO_POOL.length()), efectivas.getProperty(clave));
+            } else if (clave.startsWith(PREFIJO_MYSQL)) {
+                hikari.setProperty("dataSource." + clave.substring(PREFIJO_MYSQL.length()), efectivas.getProperty(clave));
+            }
+        }
+        return hikari;
+    }
+
+    /**
+     * Pool de la réplica: mismas propiedades pool.* y mysql.* que el principal,
+     * conexiones de solo lectura y tamaño propio opcional (db.replica.maximumPoolSize).
+     */
+    private static HikariConfig configuracionReplica(Properties efectivas, String urlReplica) {
+        HikariConfig config = new HikariConfig(propiedadesHikari(efectivas));
+        config.setJdbcUrl(urlReplica);
+        config.setUsername(efectivas.getProperty("db.replica.user", efectivas.getProperty("db.user")));
+        config.setPassword(efectivas.getProperty("db.replica.password", efectivas.getProperty("db.password")));
+        config.setPoolName("DAMPoolLectura");
+        config.setReadOnly(true);
+        config.setMetricsTrackerFactory(MetricasPool::new);
+
+        String tamano = efectivas.getProperty("db.replica.maximumPoolSize");
+        if (tamano != null && !tamano.isBlank()) {
+            config.setMaximumPoolSize(Integer.parseInt(tamano.trim()));
+        }
+        return config;
+    }
+
+    /**
+     * Muestra la configuración efectiva (sin la contraseña) para poder ajustarla por despliegue.
+     */
+    private static void mostrarConfiguracion(String perfil, Properties efectivas) {
+        System.out.println("Configuración del pool (perfil '" + perfil + "'):");
+        for (String clave : new TreeSet<>(efectivas.stringPropertyNames())) {
+            String valor = clave.endsWith("password") ? "******" : efectivas.getProperty(clave);
+            System.out.println("  " + clave + "=" + valor);
+        }
+    }
+
+    /**
+     * Obtiene una conexión del pool.
+     * Dentro de una UnidadDeTrabajo devuelve la conexión compartida de la unidad,
+     * de modo que los DAO participan en su transacción.
+     */
+    public static Connection getConexion() throws SQLException {
+        Connection compartida = UnidadDeTrabajo.conexionActual();
+        if (compartida != null) {
+            return compartida;
+        }
+        return principal().getConnection();
+    }
+
+    /**
+     * Obtiene una conexión para consultas de solo lectura (listados, informes).
+     *
+     * - Dentro de una UnidadDeTrabajo, la conexión de la unidad (ve sus propios cambios).
+     * - Dentro de leerDelPrimario(), una conexión del pool principal.
+     * - Si hay réplica, una conexión de solo lectura de DAMPoolLectura.
+     * - Si no, una conexión del pool principal.
+     */
+    public static Connection getConexionLectura() throws SQLException {
+        Connection compartida = UnidadDeTrabajo.conexionActual();
+        if (compartida != null) {
+            return compartida;
+        }
+        HikariDataSource principal = principal();
+        HikariDataSource lectura = dataSourceLectura;
+        if (lectura == null || LECTURA_DEL_PRIMARIO.get()) {
+            return principal.getConnection();
+        }
+        return lectura.getConnection();
+    }
+
+    /**
+     * Ejecuta las lecturas indicadas contra el pool principal, aunque haya réplica.
+     * Sirve para mostrar un dato justo después de modificarlo, cuando la réplica
+     * todavía puede no haber recibido el cambio.
+     */
+    public static <T> T leerDelPrimario(Supplier<T> lecturas) {
+        boolean anterior = LECTURA_DEL_PRIMARIO.get();
+        LECTURA_DEL_PRIMARIO.set(true);
+        try {
+            return lecturas.get();
+        } finally {
+            LECTURA_DEL_PRIMARIO.set(anterior);
+        }
+    }
+
+    /**
+     * Indica si las lecturas del hilo actual deben ir al primario.
+     */
+    public static boolean isLecturaDelPrimario() {
+        return LECTURA_DEL_PRIMARIO.get();
+    }
+
+    /**
+     * Indica si hay un pool de réplica configurado.
+     */
+    public static boolean hayReplica() {
+        return !configuracion().getProperty("db.replica.url", "").isBlank();
+    }
+
+    /**
+     * Conexión del pool que no participa en la unidad de trabajo activa
+     * (datos de referencia que deben confirmarse por su cuenta, como los departamentos).
+     */
+    public static Connection getConexionIndependiente() throws SQLException {
+        return principal().getConnection();
+    }
+
+    /**
+     * Pool principal, creándolo si todavía no existe.
+     */
+    private static HikariDataSource principal() throws SQLException {
+        HikariDataSource pool = dataSource;
+        if (pool == null) {
+            init();
+            pool = dataSource;
+        }
+        return pool;
+    }
+
+    /**
+     * Indica si los pools ya están creados.
+     */
+    public static boolean isIniciado() {
+        return dataSource != null;
+    }
+
+    /**
+     * Número máximo de conexiones del pool (pool.maximumPoolSize efectivo).
+     * Sirve para limitar la concurrencia de quien lanza consultas en paralelo.
+     */
+    public static int getTamanoMaximoPool() {
+        HikariDataSource pool = dataSource;
+        if (pool != null) {
+            return pool.getMaximumPoolSize();
+        }
+        return Integer.parseInt(configuracion().getProperty("pool.maximumPoolSize").trim());
+    }
+
+    /**
+     * Métricas del pool principal (esperas, uso, timeouts y estado de las conexiones),
+     * o null si el pool todavía no se ha creado.
+     */
+    public static MetricasPool getMetricas() {
+        HikariDataSource pool = dataSource;
+        return pool != null ? MetricasPool.de(pool.getPoolName()) : null;
+    }
+
+    /**
+     * Métricas del pool de la réplica, o null si no hay réplica o no se ha creado.
+     */
+    public static MetricasPool getMetricasLectura() {
+        HikariDataSource pool = dataSourceLectura;
+        return pool != null ? MetricasPool.de(pool.getPoolName()) : null;
+    }
+
+    /**
+     * Registra una acción que cerrarPool() ejecuta antes de cerrar las conexiones, cuando
+     * todavía se puede escribir en la BD (por ejemplo, vaciar las escrituras diferidas).
+     */
+    public static void alCerrar(Runnable accion) {
+        AL_CERRAR.add(accion);
+    }
+
+    /**
+     * Cierra el pool y libera recursos. Un getConexion() posterior lo vuelve a crear.
+     */
+    public static synchronized void cerrarPool() {
+        for (Runnable accion : AL_CERRAR) {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error al preparar el cierre del pool: " + e.getMessage());
+            }
+        }
+        MetricasPool.detenerInformePeriodico();
+        HikariDataSource lectura = dataSourceLectura;
+        HikariDataSource principal = dataSource;
+        dataSource = null;
+        dataSourceLectura = null;
+
+        if (lectura != null && !lectura.isClosed()) {
+            lectura.close();
+        }
+        if (principal != null && !principal.isClosed()) {
+            principal.close();
+            System.out.println("Pool de conexiones cerrado");
+        }
+    }
+}
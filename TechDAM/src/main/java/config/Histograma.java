@@ -0,0 +1,113 @@
+package config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias concurrente y de memoria fija, para calcular percentiles.
+ *
+ * Comentarios académicos:
+ * - Los cubos son logarítmico-lineales: los valores menores que 16 tienen un cubo cada uno
+ *   y a partir de ahí cada potencia de 2 se divide en 8 cubos. El error relativo de un
+ *   percentil es como máximo del 12,5 % y todo el rango de long cabe en 488 contadores.
+ * - registrar() solo hace incrementos atómicos (sin bloqueos), por lo que se puede llamar
+ *   en cada petición de conexión desde muchos hilos.
+ * - La unidad de los valores la decide quien registra (microsegundos, milisegundos...).
+ */
+public final class Histograma {
+
+    private static final int EXACTOS = 16;
+    private static final int SUBCUBOS = 8;
+    private static final int CUBOS = EXACTOS + (63 - 4) * SUBCUBOS;
+
+    private final AtomicLongArray cuentas = new AtomicLongArray(CUBOS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra un valor (los negativos se cuentan como 0).
+     */
+    public void registrar(long valor) {
+        long v = Math.max(0, valor);
+        cuentas.incrementAndGet(cubo(v));
+        total.increment();
+        suma.add(v);
+        if (v > maximo.get()) {
+            maximo.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    public long getCuenta() {
+        return total.sum();
+    }
+
+    public double getMedia() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : (double) suma.sum() / n;
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Valor por debajo del cual queda el porcentaje indicado de las muestras.
+     *
+     * @param percentil Entre 0 y 100 (por ejemplo 99.9)
+     * @return Límite superior del cubo que contiene el percentil, o 0 si no hay muestras
+     */
+    public long percentil(double percentil) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(n * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CUBOS; i++) {
+            acumulado += cuentas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Vacía el histograma (por ejemplo, al empezar un nuevo intervalo de medida).
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBOS; i++) {
+            cuentas.set(i, 0);
+        }
+        total.reset();
+        suma.reset();
+        maximo.set(0);
+    }
+
+    private static int cubo(long v) {
+        if (v < EXACTOS) {
+            return (int) v;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(v); // >= 4
+        int sub = (int) ((v >>> (exponente - 3)) & (SUBCUBOS - 1));
+        return EXACTOS + (exponente - 4) * SUBCUBOS + sub;
+    }
+
+    private static long limiteSuperior(int cubo) {
+        if (cubo < EXACTOS) {
+            return cubo;
+        }
+        int exponente = (cubo - EXACTOS) / SUBCUBOS + 4;
+        int sub = (cubo - EXACTOS) % SUBCUBOS;
+        long inferior = (long) (SUBCUBOS + sub) << (exponente - 3);
+        return inferior + (1L << (exponente - 3)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, media=%.1f, p50=%d, p99=%d, p999=%d, max=%d",
+                getCuenta(), getMedia(), percentil(50), percentil(99), percentil(99.9), getMaximo());
+    }
+}
@@ -0,0 +1,293 @@
+package config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de un pool HikariCP: tiempo de espera para obtener una conexión, tiempo de uso,
+ * tiempo de creación, timeouts y estado del pool (activas, inactivas, hilos esperando).
+ *
+ * Comentarios académicos:
+ * - HikariCP llama a esta clase (IMetricsTracker) en cada getConnection(), close() y
+ *   creación de conexión; se registra con config.setMetricsTrackerFactory(MetricasPool::new).
+ * - Los tiempos se guardan en histogramas (Histograma) para dar percentiles p50/p99/p999:
+ *   la media esconde las esperas largas, que son las que indican que el pool se queda corto.
+ * - Las métricas se publican por JMX (MetricasPoolMXBean) y, si se indica
+ *   -Dtechdam.metricas.intervaloSegundos, se escribe un informe periódico por consola.
+ * - Si una espera supera -Dtechdam.metricas.esperaAvisoMillis (500 ms por defecto) se
+ *   escribe un aviso, como máximo uno por segundo para no inundar la consola.
+ * - Para dimensionar maximumPoolSize: si hay hilos esperando y el p99 de espera crece
+ *   mientras el de uso se mantiene, faltan conexiones; si las activas nunca llegan al
+ *   máximo, sobran.
+ */
+public final class MetricasPool implements IMetricsTracker, MetricasPoolMXBean {
+
+    private static final long ESPERA_AVISO_MICROS =
+            Long.getLong("techdam.metricas.esperaAvisoMillis", 500L) * 1000L;
+    private static final long INTERVALO_AVISOS_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Map<String, MetricasPool> POOLS = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService informePeriodico;
+
+    private final String nombrePool;
+    private final PoolStats estado;
+    private final Histograma esperaMicros = new Histograma();
+    private final Histograma usoMillis = new Histograma();
+    private final Histograma creacionMillis = new Histograma();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder esperasLentas = new LongAdder();
+    private final AtomicLong ultimoAviso = new AtomicLong(System.nanoTime() - INTERVALO_AVISOS_NANOS);
+    private ObjectName nombreJmx;
+
+    /**
+     * Lo crea HikariCP al arrancar el pool (MetricsTrackerFactory).
+     */
+    public MetricasPool(String nombrePool, PoolStats estado) {
+        this.nombrePool = nombrePool;
+        this.estado = estado;
+        POOLS.put(nombrePool, this);
+
+        try {
+            nombreJmx = new ObjectName("techdam:type=MetricasPool,name=" + nombrePool);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, nombreJmx);
+        } catch (Exception e) {
+            nombreJmx = null;
+            System.err.println("No se pudieron publicar por JMX las métricas de " + nombrePool + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Métricas del pool con ese nombre (DAMPool, DAMPoolLectura), o null si no existe.
+     */
+    public static MetricasPool de(String nombrePool) {
+        return POOLS.get(nombrePool);
+    }
+
+    /**
+     * Informe de todos los pools, una línea por pool.
+     */
+    public static String informeTodos() {
+        List<String> lineas = new ArrayList<>();
+        for (MetricasPool metricas : POOLS.values()) {
+            lineas.add(metricas.getInforme());
+        }
+        return String.join(System.lineSeparator(), lineas);
+    }
+
+    /**
+     * Escribe informeTodos() por consola cada 'segundos' en un hilo demonio.
+     */
+    public static synchronized void iniciarInformePeriodico(long segundos) {
+        if (informePeriodico != null || segundos <= 0) {
+            return;
+        }
+        informePeriodico = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "techdam-metricas-pool");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        informePeriodico.scheduleAtFixedRate(() -> System.out.println(informeTodos()),
+                segundos, segundos, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void detenerInformePeriodico() {
+        if (informePeriodico != null) {
+            informePeriodico.shutdownNow();
+            informePeriodico = null;
+        }
+    }
+
+    // ------------------- IMetricsTracker (llamado por HikariCP) -------------------
+
+    @Override
+    public void recordConnectionAcquiredNanos(long nanos) {
+        long micros = nanos / 1000;
+        esperaMicros.registrar(micros);
+
+        if (micros >= ESPERA_AVISO_MICROS) {
+            esperasLentas.increment();
+            long ahora = System.nanoTime();
+            long anterior = ultimoAviso.get();
+            if (ahora - anterior >= INTERVALO_AVISOS_NANOS && ultimoAviso.compareAndSet(anterior, ahora)) {
+                System.err.println("Aviso: " + nombrePool + " tardó " + micros / 1000 + " ms en entregar una conexión"
+                        + " (activas=" + estado.getActiveConnections() + "/" + estado.getMaxConnections()
+                        + ", hilos esperando=" + estado.getPendingThreads() + ")");
+            }
+        }
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long millis) {
+        usoMillis.registrar(millis);
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long millis) {
+        creacionMillis.registrar(millis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+        System.err.println("Aviso: timeout esperando una conexión de " + nombrePool
+                + " (activas=" + estado.getActiveConnections() + "/" + estado.getMaxConnections()
+                + ", hilos esperando=" + estado.getPendingThreads() + ")");
+    }
+
+    /**
+     * HikariCP lo llama al cerrar el pool.
+     */
+    @Override
+    public void close() {
+        POOLS.remove(nombrePool, this);
+        if (nombreJmx != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(nombreJmx);
+            } catch (Exception e) {
+                System.err.println("No se pudo retirar de JMX " + nombreJmx + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // ------------------- MetricasPoolMXBean -------------------
+
+    public String getNombrePool() {
+        return nombrePool;
+    }
+
+    @Override
+    public int getConexionesActivas() {
+        return estado.getActiveConnections();
+    }
+
+    @Override
+    public int getConexionesInactivas() {
+        return estado.getIdleConnections();
+    }
+
+    @Override
+    public int getConexionesTotales() {
+        return estado.getTotalConnections();
+    }
+
+    @Override
+    public int getHilosEsperando() {
+        return estado.getPendingThreads();
+    }
+
+    @Override
+    public int getTamanoMaximo() {
+        return estado.getMaxConnections();
+    }
+
+    @Override
+    public long getPeticiones() {
+        return esperaMicros.getCuenta();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Peticiones cuya espera superó el umbral de aviso.
+     */
+    @Override
+    public long getEsperasLentas() {
+        return esperasLentas.sum();
+    }
+
+    @Override
+    public long getEsperaP50Micros() {
+        return esperaMicros.percentil(50);
+    }
+
+    @Override
+    public long getEsperaP99Micros() {
+        return esperaMicros.percentil(99);
+    }
+
+    @Override
+    public long getEsperaP999Micros() {
+        return esperaMicros.percentil(99.9);
+    }
+
+    @Override
+    public long getEsperaMaximaMicros() {
+        return esperaMicros.getMaximo();
+    }
+
+    @Override
+    public long getUsoP50Millis() {
+        return usoMillis.percentil(50);
+    }
+
+    @Override
+    public long getUsoP99Millis() {
+        return usoMillis.percentil(99);
+    }
+
+    @Override
+    public long getUsoMaximoMillis() {
+        return usoMillis.getMaximo();
+    }
+
+    @Override
+    public long getCreacionP99Millis() {
+        return creacionMillis.percentil(99);
+    }
+
+    public Histograma getEsperaMicros() {
+        return esperaMicros;
+    }
+
+    public Histograma getUsoMillis() {
+        return usoMillis;
+    }
+
+    public Histograma getCreacionMillis() {
+        return creacionMillis;
+    }
+
+    @Override
+    public String getInforme() {
+        return nombrePool + ": activas=" + getConexionesActivas() + "/" + getTamanoMaximo() +
+                ", inactivas=" + getConexionesInactivas() +
+                ", esperando=" + getHilosEsperando() +
+                ", timeouts=" + getTimeouts() +
+                ", esperasLentas=" + getEsperasLentas() +
+                " | espera(µs) " + esperaMicros +
+                " | uso(ms) " + usoMillis +
+                " | creación(ms) " + creacionMillis;
+    }
+
+    /**
+     * Vacía los histogramas y contadores (el estado del pool no se toca).
+     */
+    @Override
+    public void reiniciar() {
+        esperaMicros.reiniciar();
+        usoMillis.reiniciar();
+        creacionMillis.reiniciar();
+        timeouts.reset();
+        esperasLentas.reset();
+    }
+
+    @Override
+    public String toString() {
+        return getInforme();
+    }
+}
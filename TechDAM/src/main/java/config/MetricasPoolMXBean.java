@@ -0,0 +1,45 @@
+package config;
+
+/**
+ * Métricas de un pool de conexiones publicadas por JMX
+ * (techdam:type=MetricasPool,name=&lt;pool&gt;, visibles en JConsole o VisualVM).
+ * Los tiempos de espera van en microsegundos y los de uso y creación en milisegundos.
+ */
+public interface MetricasPoolMXBean {
+
+    int getConexionesActivas();
+
+    int getConexionesInactivas();
+
+    int getConexionesTotales();
+
+    int getHilosEsperando();
+
+    int getTamanoMaximo();
+
+    long getPeticiones();
+
+    long getTimeouts();
+
+    long getEsperasLentas();
+
+    long getEsperaP50Micros();
+
+    long getEsperaP99Micros();
+
+    long getEsperaP999Micros();
+
+    long getEsperaMaximaMicros();
+
+    long getUsoP50Millis();
+
+    long getUsoP99Millis();
+
+    long getUsoMaximoMillis();
+
+    long getCreacionP99Millis();
+
+    String getInforme();
+
+    void reiniciar();
+}
@@ -0,0 +1,283 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unidad de trabajo: una sola conexión y una sola transacción para una operación
+ * de negocio compuesta por varias llamadas a DAO y servicios.
+ *
+ * Comentarios académicos:
+ * - La conexión se asocia al hilo actual (ThreadLocal). Mientras la unidad está activa,
+ *   DatabaseConfigPool.getConexion() devuelve esa misma conexión, así que los DAO se
+ *   unen a la transacción sin cambiar su código.
+ * - La conexión compartida es un proxy: close(), commit() y setAutoCommit() no hacen nada
+ *   (los gestiona la unidad) y rollback() marca la unidad para deshacerse al final.
+ *   Los savepoints funcionan con normalidad.
+ * - Si la operación lanza una excepción o algún DAO llamó a rollback(), se deshace todo;
+ *   en otro caso se hace un único commit. Un DAO que se traga el error y solo llama a
+ *   rollback() debe anotarlo con anotarCausaRollback(): la excepción de la unidad lo lleva
+ *   como causa (con su SQLState y código) para que PoliticaReintentos pueda reintentar.
+ * - Una unidad anidada se une a la exterior.
+ * - Mientras un Stream de streamTodos() está abierto la conexión está ocupada: dentro
+ *   de una unidad hay que consumirlo por completo antes de lanzar otra consulta.
+ */
+public final class UnidadDeTrabajo {
+
+    /**
+     * Operación que devuelve un resultado.
+     */
+    @FunctionalInterface
+    public interface Operacion<T> {
+        T ejecutar() throws SQLException;
+    }
+
+    /**
+     * Operación sin resultado.
+     */
+    @FunctionalInterface
+    public interface Accion {
+        void ejecutar() throws SQLException;
+    }
+
+    /**
+     * SQLState estándar "transaction resolution unknown": la conexión se perdió después de
+     * enviar el commit y no se sabe si la transacción se confirmó.
+     */
+    public static final String ESTADO_COMMIT_INCIERTO = "08007";
+
+    private static final ThreadLocal<Contexto> ACTUAL = new ThreadLocal<>();
+
+    private UnidadDeTrabajo() {}
+
+    /**
+     * Ejecuta la operación en una única conexión y transacción.
+     *
+     * @return Resultado de la operación, si se confirmó la transacción
+     * @throws SQLException Si la operación falla o se marcó para rollback (ya deshecha)
+     */
+    public static <T> T ejecutar(Operacion<T> operacion) throws SQLException {
+        if (ACTUAL.get() != null) {
+            return operacion.ejecutar(); // Se une a la unidad exterior
+        }
+
+        Connection real = DatabaseConfigPool.getConexionIndependiente();
+        Contexto contexto = new Contexto(real);
+        ACTUAL.set(contexto);
+
+        T resultado;
+        boolean terminada = false; // Confirmada o ya deshecha
+        try {
+            real.setAutoCommit(false);
+            resultado = operacion.ejecutar();
+
+            if (contexto.soloRollback) {
+                SQLException causa = contexto.causaRollback;
+                String mensaje = "La unidad de trabajo se marcó para rollback; no se aplicaron cambios";
+                throw causa == null ? new SQLException(mensaje)
+                        : new SQLException(mensaje + ": " + causa.getMessage(), causa.getSQLState(), causa.getErrorCode(), causa);
+            }
+            confirmar(real);
+            terminada = true;
+
+        } catch (SQLException | RuntimeException e) {
+            terminada = true;
+            try {
+                real.rollback();
+            } catch (SQLException ex) {
+                e.addSuppressed(ex);
+            }
+            if (!(e instanceof SQLException sql && esCommitIncierto(sql))) {
+                contexto.ejecutarTrasDeshacer();
+            }
+            throw e;
+
+        } finally {
+            ACTUAL.remove();
+            if (!terminada) {
+                // Un Error (AssertionError, OutOfMemoryError...): setAutoCommit(true)
+                // confirmaría la transacción a medias
+                try {
+                    real.rollback();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+            try {
+                real.setAutoCommit(true);
+                real.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+
+        // Fuera del try: la transacción ya está confirmada y un fallo aquí no debe deshacerla
+        // ni llegar al llamador como si no se hubiera aplicado
+        contexto.ejecutarTrasConfirmar();
+        return resultado;
+    }
+
+    /**
+     * Ejecuta una acción sin resultado en una única conexión y transacción.
+     */
+    public static void ejecutarSinResultado(Accion accion) throws SQLException {
+        ejecutar(() -> {
+            accion.ejecutar();
+            return null;
+        });
+    }
+
+    /**
+     * Confirma la transacción de una conexión con autoCommit desactivado.
+     *
+     * Si la conexión se pierde durante el commit (SQLState 08xxx), la BD puede haberlo
+     * aplicado o no: se lanza una SQLException con SQLState ESTADO_COMMIT_INCIERTO, que
+     * PoliticaReintentos no reintenta porque repetir la operación podría aplicarla dos veces.
+     */
+    public static void confirmar(Connection con) throws SQLException {
+        try {
+            con.commit();
+        } catch (SQLException e) {
+            String estado = e.getSQLState();
+            if (estado != null && estado.startsWith("08")) {
+                throw new SQLException("Se perdió la conexión durante el commit; no se sabe si se confirmó: "
+                        + e.getMessage(), ESTADO_COMMIT_INCIERTO, e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Indica si el error (o alguno de su cadena) es un commit con resultado desconocido.
+     */
+    public static boolean esCommitIncierto(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && ESTADO_COMMIT_INCIERTO.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el hilo actual está dentro de una unidad de trabajo.
+     */
+    public static boolean activa() {
+        return ACTUAL.get() != null;
+    }
+
+    /**
+     * Registra una tarea para después del commit de la unidad actual
+     * (por ejemplo, invalidar una caché). Sin unidad activa se ejecuta en el acto.
+     * Si la unidad se deshace, la tarea no se ejecuta; si falla, se informa y la unidad
+     * sigue confirmada.
+     */
+    public static void despuesDeConfirmar(Runnable tarea) {
+        Contexto contexto = ACTUAL.get();
+        if (contexto == null) {
+            tarea.run();
+        } else {
+            contexto.trasConfirmar.add(tarea);
+        }
+    }
+
+    /**
+     * Anota el error por el que un DAO va a llamar a rollback() dentro de la unidad actual
+     * (se conserva el primero). Sin unidad activa no hace nada.
+     */
+    public static void anotarCausaRollback(SQLException causa) {
+        Contexto contexto = ACTUAL.get();
+        if (contexto != null && contexto.causaRollback == null) {
+            contexto.causaRollback = causa;
+        }
+    }
+
+    /**
+     * Registra una tarea para después del rollback de la unidad actual (por ejemplo, devolver
+     * a un búfer lo que la unidad iba a sustituir). Sin unidad activa no hace nada.
+     * No se ejecuta si la unidad se confirma ni si el commit queda incierto.
+     */
+    public static void despuesDeDeshacer(Runnable tarea) {
+        Contexto contexto = ACTUAL.get();
+        if (contexto != null) {
+            contexto.trasDeshacer.add(tarea);
+        }
+    }
+
+    /**
+     * Conexión compartida de la unidad actual, o null si no hay unidad activa.
+     */
+    static Connection conexionActual() {
+        Contexto contexto = ACTUAL.get();
+        return contexto == null ? null : contexto.compartida;
+    }
+
+    /**
+     * Estado de una unidad de trabajo activa.
+     */
+    private static class Contexto implements InvocationHandler {
+        private final Connection real;
+        private final Connection compartida;
+        private final List<Runnable> trasConfirmar = new ArrayList<>();
+        private final List<Runnable> trasDeshacer = new ArrayList<>();
+        private boolean soloRollback;
+        private SQLException causaRollback;
+
+        Contexto(Connection real) {
+            this.real = real;
+            this.compartida = (Connection) Proxy.newProxyInstance(
+                    UnidadDeTrabajo.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close", "commit", "setAutoCommit":
+                    return null;
+                case "rollback":
+                    if (args == null || args.length == 0) {
+                        soloRollback = true;
+                        return null;
+                    }
+                    break; // rollback(Savepoint) se delega
+                case "getAutoCommit":
+                    return false;
+                case "isClosed":
+                    return real.isClosed();
+                default:
+                    break;
+            }
+            try {
+                return metodo.invoke(real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void ejecutarTrasConfirmar() {
+            for (Runnable tarea : trasConfirmar) {
+                try {
+                    tarea.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error en una tarea tras el commit: " + e.getMessage());
+                }
+            }
+        }
+
+        void ejecutarTrasDeshacer() {
+            for (Runnable tarea : trasDeshacer) {
+                try {
+                    tarea.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error en una tarea tras el rollback: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
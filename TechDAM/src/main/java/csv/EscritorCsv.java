@@ -0,0 +1,69 @@
+package csv;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Escritor de ficheros CSV (RFC 4180).
+ * Solo se entrecomillan los campos que contienen el separador, comillas o saltos de línea.
+ */
+public class EscritorCsv implements Closeable {
+
+    private final BufferedWriter escritor;
+    private final char separador;
+
+    public EscritorCsv(Path ruta) throws IOException {
+        this(ruta, ',');
+    }
+
+    public EscritorCsv(Path ruta, char separador) throws IOException {
+        this.escritor = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8);
+        this.separador = separador;
+    }
+
+    /**
+     * Escribe un registro. Un campo null se escribe vacío.
+     */
+    public void escribir(String... campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                escritor.write(separador);
+            }
+            escribirCampo(campos[i]);
+        }
+        escritor.write('\n');
+    }
+
+    private void escribirCampo(String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == separador || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            escritor.write(valor);
+            return;
+        }
+        escritor.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                escritor.write('"');
+            }
+            escritor.write(c);
+        }
+        escritor.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        escritor.close();
+    }
+}
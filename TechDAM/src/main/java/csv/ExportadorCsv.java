@@ -0,0 +1,106 @@
+package csv;
+
+import dao.AsignacionDAO;
+import dao.EmpleadoDAO;
+import dao.ProyectoDAO;
+import modelo.Asignacion;
+import modelo.Empleado;
+import modelo.Proyecto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de empleados, proyectos y asignaciones a ficheros CSV.
+ *
+ * Comentarios académicos:
+ * - Las filas se leen con streamTodos() (cursor de MySQL con fetchSize = Integer.MIN_VALUE)
+ *   y se escriben una a una: la memoria es constante sea cual sea el tamaño de la tabla.
+ * - Los ficheros tienen cabecera y se pueden volver a importar con ImportadorCsv.
+ */
+public class ExportadorCsv {
+
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final ProyectoDAO proyectoDAO = new ProyectoDAO();
+    private final AsignacionDAO asignacionDAO = new AsignacionDAO();
+
+    /**
+     * @return Número de filas exportadas
+     */
+    public long exportarEmpleados(Path ruta) throws IOException {
+        long inicio = System.nanoTime();
+        long filas = 0;
+
+        try (Stream<Empleado> empleados = empleadoDAO.streamTodos();
+             EscritorCsv escritor = new EscritorCsv(ruta)) {
+
+            escritor.escribir("id", "nombre", "departamento", "salario", "activo");
+            for (Iterator<Empleado> it = empleados.iterator(); it.hasNext(); filas++) {
+                Empleado emp = it.next();
+                escritor.escribir(String.valueOf(emp.getId()), emp.getNombre(), emp.getDepartamento(),
+                        texto(emp.getSalario()), String.valueOf(emp.isActivo()));
+            }
+        }
+
+        informar("empleados", filas, inicio);
+        return filas;
+    }
+
+    /**
+     * @return Número de filas exportadas
+     */
+    public long exportarProyectos(Path ruta) throws IOException {
+        long inicio = System.nanoTime();
+        long filas = 0;
+
+        try (Stream<Proyecto> proyectos = proyectoDAO.streamTodos();
+             EscritorCsv escritor = new EscritorCsv(ruta)) {
+
+            escritor.escribir("id", "nombre", "presupuesto");
+            for (Iterator<Proyecto> it = proyectos.iterator(); it.hasNext(); filas++) {
+                Proyecto p = it.next();
+                escritor.escribir(String.valueOf(p.getId()), p.getNombre(), texto(p.getPresupuesto()));
+            }
+        }
+
+        informar("proyectos", filas, inicio);
+        return filas;
+    }
+
+    /**
+     * @return Número de filas exportadas
+     */
+    public long exportarAsignaciones(Path ruta) throws IOException {
+        long inicio = System.nanoTime();
+        long filas = 0;
+
+        try (Stream<Asignacion> asignaciones = asignacionDAO.streamTodos();
+             EscritorCsv escritor = new EscritorCsv(ruta)) {
+
+            escritor.escribir("id", "empleado_id", "proyecto_id", "horas_asignadas", "rol", "fecha_asignacion");
+            for (Iterator<Asignacion> it = asignaciones.iterator(); it.hasNext(); filas++) {
+                Asignacion a = it.next();
+                escritor.escribir(String.valueOf(a.getId()), String.valueOf(a.getIdEmpleado()),
+                        String.valueOf(a.getIdProyecto()), String.valueOf(a.getHorasAsignadas()), a.getRol(),
+                        a.getFechaAsignacion() != null ? a.getFechaAsignacion().toString() : null);
+            }
+        }
+
+        informar("asignaciones", filas, inicio);
+        return filas;
+    }
+
+    private static String texto(BigDecimal valor) {
+        return valor != null ? valor.toPlainString() : null;
+    }
+
+    private static void informar(String entidad, long filas, long inicio) {
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        System.out.printf(Locale.ROOT, "Exportadas %d filas de %s en %.2f s (%.0f filas/s)%n",
+                filas, entidad, segundos, segundos > 0 ? filas / segundos : 0);
+    }
+}
@@ -0,0 +1,284 @@
+package csv;
+
+import config.DatabaseConfigPool;
+import config.UnidadDeTrabajo;
+import dao.EmpleadoDAO;
+import dao.ProyectoDAO;
+import dao.ResultadoLote;
+import modelo.Empleado;
+import modelo.Proyecto;
+import service.PoliticaReintentos;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importación masiva de empleados y proyectos desde ficheros CSV.
+ *
+ * Comentarios académicos:
+ * - El fichero se lee en streaming con LectorCsv y se inserta por trozos con crearLote()
+ *   (executeBatch, INSERT multi-fila con rewriteBatchedStatements=true).
+ * - Cada trozo y su punto de control (tabla importaciones_progreso) se confirman en la
+ *   misma UnidadDeTrabajo: si la importación se corta, al volver a lanzarla se saltan
+ *   exactamente los registros ya confirmados y no se duplican filas.
+ * - El punto de control se asocia a la ruta del fichero y a su huella (tamaño y fecha de
+ *   modificación): si el fichero cambia, la importación empieza de cero.
+ * - Las columnas se localizan por nombre en la cabecera, por lo que se puede importar un
+ *   fichero exportado con ExportadorCsv (la columna id se ignora).
+ * - Las filas con datos no válidos se cuentan como error y no detienen la importación.
+ */
+public class ImportadorCsv {
+
+    /** Registros por trozo (y por transacción) si no se indica otro valor. */
+    public static final int TAMANO_TROZO_POR_DEFECTO = 1000;
+
+    // ER_NO_SUCH_TABLE de MySQL/MariaDB
+    private static final int ERROR_TABLA_INEXISTENTE = 1146;
+
+    /**
+     * Convierte los campos de un registro (en el orden de las columnas pedidas) en un objeto.
+     */
+    @FunctionalInterface
+    private interface Conversor<T> {
+        T convertir(String[] valores);
+    }
+
+    /**
+     * Inserta un trozo de objetos y devuelve el resultado por fila.
+     */
+    @FunctionalInterface
+    private interface Insercion<T> {
+        ResultadoLote insertar(List<T> trozo);
+    }
+
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final ProyectoDAO proyectoDAO = new ProyectoDAO();
+    private final PoliticaReintentos reintentos = PoliticaReintentos.POR_DEFECTO;
+    private final int tamanoTrozo;
+
+    public ImportadorCsv() {
+        this(TAMANO_TROZO_POR_DEFECTO);
+    }
+
+    /**
+     * @param tamanoTrozo Registros por transacción
+     */
+    public ImportadorCsv(int tamanoTrozo) {
+        if (tamanoTrozo <= 0) {
+            throw new IllegalArgumentException("El tamaño de trozo debe ser mayor que 0");
+        }
+        this.tamanoTrozo = tamanoTrozo;
+    }
+
+    /**
+     * Importa empleados. Columnas obligatorias: nombre, departamento, salario, activo.
+     */
+    public ResultadoImportacion importarEmpleados(Path ruta) throws IOException, SQLException {
+        return importar(ruta, "empleados", new String[]{"nombre", "departamento", "salario", "activo"},
+                v -> new Empleado(0, obligatorio(v[0], "nombre"), obligatorio(v[1], "departamento"),
+                        new BigDecimal(v[2].trim()), leerBoolean(v[3])),
+                trozo -> empleadoDAO.crearLote(trozo, trozo.size()));
+    }
+
+    /**
+     * Importa proyectos. Columnas obligatorias: nombre, presupuesto.
+     */
+    public ResultadoImportacion importarProyectos(Path ruta) throws IOException, SQLException {
+        return importar(ruta, "proyectos", new String[]{"nombre", "presupuesto"},
+                v -> new Proyecto(0, obligatorio(v[0], "nombre"), new BigDecimal(v[1].trim())),
+                trozo -> proyectoDAO.crearLote(trozo, trozo.size()));
+    }
+
+    private <T> ResultadoImportacion importar(Path ruta, String entidad, String[] columnas,
+                                              Conversor<T> conversor, Insercion<T> insercion)
+            throws IOException, SQLException {
+        long inicio = System.nanoTime();
+        String fichero = ruta.toAbsolutePath().normalize().toString();
+        String huella = Files.size(ruta) + "-" + Files.getLastModifiedTime(ruta).toMillis();
+
+        long confirmados = leerProgreso(fichero, huella);
+        ResultadoImportacion resultado = new ResultadoImportacion(entidad, confirmados);
+
+        try (LectorCsv lector = new LectorCsv(ruta)) {
+            String[] cabecera = lector.siguiente();
+            if (cabecera == null) {
+                resultado.terminar(System.nanoTime() - inicio);
+                return resultado;
+            }
+            int[] posiciones = localizarColumnas(cabecera, columnas);
+
+            // Saltar los registros confirmados en una ejecución anterior
+            long saltados = 0;
+            while (saltados < confirmados && lector.siguiente() != null) {
+                saltados++;
+            }
+            if (confirmados > 0) {
+                System.out.println("Reanudando " + entidad + " desde el registro " + (confirmados + 1));
+            }
+
+            List<T> trozo = new ArrayList<>(tamanoTrozo);
+            List<Long> numeros = new ArrayList<>(tamanoTrozo);
+            Map<Long, String> invalidos = new LinkedHashMap<>();
+            boolean fin = false;
+
+            while (!fin) {
+                trozo.clear();
+                numeros.clear();
+                invalidos.clear();
+                long leidos = 0;
+
+                // 1. Leer y convertir hasta tamanoTrozo registros
+                while (leidos < tamanoTrozo) {
+                    String[] registro = lector.siguiente();
+                    if (registro == null) {
+                        fin = true;
+                        break;
+                    }
+                    leidos++;
+                    long numero = confirmados + leidos;
+                    if (registro.length == 1 && registro[0].isBlank()) {
+                        continue; // Línea vacía
+                    }
+                    try {
+                        trozo.add(conversor.convertir(valores(registro, posiciones)));
+                        numeros.add(numero);
+                    } catch (RuntimeException e) {
+                        invalidos.put(numero, "Datos no válidos (" + e.getMessage() + ")");
+                    }
+                }
+                if (leidos == 0) {
+                    break;
+                }
+
+                // 2. Insertar el trozo y guardar el punto de control en la misma transacción
+                long procesados = confirmados + leidos;
+                ResultadoLote lote;
+                try {
+                    lote = reintentos.ejecutar(() -> UnidadDeTrabajo.ejecutar(() -> {
+                        ResultadoLote r = insercion.insertar(trozo);
+                        guardarProgreso(fichero, entidad, huella, procesados);
+                        return r;
+                    }));
+                } catch (SQLException e) {
+                    resultado.interrumpir("Error en el registro " + (confirmados + 1) + " o siguientes: "
+                            + e.getMessage());
+                    System.out.println("Importación de " + entidad + " interrumpida; se reanudará desde el registro "
+                            + (confirmados + 1) + ": " + e.getMessage());
+                    break;
+                }
+
+                // Los errores solo se cuentan una vez confirmado el trozo (al reanudar se repetirían)
+                invalidos.forEach(resultado::registrarError);
+                for (Map.Entry<Integer, String> error : lote.getErrores().entrySet()) {
+                    resultado.registrarError(numeros.get(error.getKey()), error.getValue());
+                }
+                resultado.sumarTrozo(leidos, lote.getInsertados());
+                confirmados = procesados;
+
+                double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+                System.out.printf(Locale.ROOT, "%s: %d registros confirmados (%.0f filas/s)%n",
+                        entidad, confirmados, resultado.getInsertadas() / segundos);
+            }
+        }
+
+        resultado.terminar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private static int[] localizarColumnas(String[] cabecera, String[] columnas) throws IOException {
+        int[] posiciones = new int[columnas.length];
+        for (int i = 0; i < columnas.length; i++) {
+            posiciones[i] = -1;
+            for (int j = 0; j < cabecera.length; j++) {
+                if (cabecera[j].trim().equalsIgnoreCase(columnas[i])) {
+                    posiciones[i] = j;
+                    break;
+                }
+            }
+            if (posiciones[i] == -1) {
+                throw new IOException("Falta la columna '" + columnas[i] + "' en la cabecera del CSV");
+            }
+        }
+        return posiciones;
+    }
+
+    private static String[] valores(String[] registro, int[] posiciones) {
+        String[] valores = new String[posiciones.length];
+        for (int i = 0; i < posiciones.length; i++) {
+            if (posiciones[i] >= registro.length) {
+                throw new IllegalArgumentException("faltan columnas");
+            }
+            valores[i] = registro[posiciones[i]];
+        }
+        return valores;
+    }
+
+    private static String obligatorio(String valor, String columna) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException(columna + " vacío");
+        }
+        return valor.trim();
+    }
+
+    private static boolean leerBoolean(String valor) {
+        return switch (valor.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "1", "si", "sí" -> true;
+            case "false", "0", "no", "" -> false;
+            default -> throw new IllegalArgumentException("activo no válido: " + valor);
+        };
+    }
+
+    // ------------------- PUNTO DE CONTROL -------------------
+
+    /**
+     * Registros ya confirmados de este fichero, o 0 si no hay punto de control o el fichero cambió.
+     */
+    private long leerProgreso(String fichero, String huella) throws SQLException {
+        String sql = "SELECT huella, registros_confirmados FROM importaciones_progreso WHERE fichero = ?";
+
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setString(1, fichero);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getString(1).equals(huella)) {
+                    return rs.getLong(2);
+                }
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() == ERROR_TABLA_INEXISTENTE) {
+                throw new SQLException("Falta la tabla importaciones_progreso: ejecute migracion_importaciones.sql",
+                        e.getSQLState(), e.getErrorCode(), e);
+            }
+            throw e;
+        }
+        return 0;
+    }
+
+    private void guardarProgreso(String fichero, String entidad, String huella, long registros) throws SQLException {
+        String sql = "INSERT INTO importaciones_progreso(fichero, entidad, huella, registros_confirmados) " +
+                "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE entidad = VALUES(entidad), " +
+                "huella = VALUES(huella), registros_confirmados = VALUES(registros_confirmados)";
+
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setString(1, fichero);
+            ps.setString(2, entidad);
+            ps.setString(3, huella);
+            ps.setLong(4, registros);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de ficheros CSV (RFC 4180) registro a registro.
+ *
+ * Comentarios académicos:
+ * - Se lee con Files.newBufferedReader (NIO) a un buffer propio de caracteres y se
+ *   recorre carácter a carácter con una pequeña máquina de estados: sin split() ni
+ *   expresiones regulares por campo.
+ * - Admite campos entre comillas con separadores, saltos de línea y comillas dobles ("").
+ * - La memoria es constante: solo se guarda el registro actual.
+ */
+public class LectorCsv implements Closeable {
+
+    private static final int SIN_PENDIENTE = -2;
+
+    private final Reader lector;
+    private final char separador;
+    private final char[] buffer = new char[64 * 1024];
+    private int posicion;
+    private int limite;
+    private int pendiente = SIN_PENDIENTE;
+
+    private final List<String> campos = new ArrayList<>();
+    private final StringBuilder campo = new StringBuilder();
+    private long registros;
+
+    public LectorCsv(Path ruta) throws IOException {
+        this(ruta, ',');
+    }
+
+    public LectorCsv(Path ruta, char separador) throws IOException {
+        this(Files.newBufferedReader(ruta, StandardCharsets.UTF_8), separador);
+    }
+
+    /**
+     * Lee de un Reader ya abierto (por ejemplo la entrada estándar); close() lo cierra.
+     */
+    public LectorCsv(Reader lector, char separador) throws IOException {
+        this.lector = lector;
+        this.separador = separador;
+
+        int primero = leer();
+        if (primero != '\uFEFF') { // BOM de UTF-8
+            pendiente = primero;
+        }
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return Campos del registro, o null al final del fichero
+     * @throws IOException Si el fichero no se puede leer o hay comillas sin cerrar
+     */
+    public String[] siguiente() throws IOException {
+        int c = leer();
+        if (c == -1) {
+            return null;
+        }
+
+        campos.clear();
+        campo.setLength(0);
+        boolean entreComillas = false;
+
+        while (true) {
+            if (c == -1) {
+                if (entreComillas) {
+                    throw new IOException("Comillas sin cerrar en el registro " + (registros + 1));
+                }
+                campos.add(campo.toString());
+                break;
+            }
+
+            char ch = (char) c;
+            if (entreComillas) {
+                if (ch == '"') {
+                    int siguiente = leer();
+                    if (siguiente == '"') {
+                        campo.append('"'); // Comilla escapada
+                    } else {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else {
+                    campo.append(ch);
+                }
+            } else if (ch == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (ch == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (ch == '\n') {
+                campos.add(campo.toString());
+                break;
+            } else if (ch == '\r') {
+                int siguiente = leer();
+                if (siguiente != '\n') {
+                    pendiente = siguiente;
+                }
+                campos.add(campo.toString());
+                break;
+            } else {
+                campo.append(ch);
+            }
+            c = leer();
+        }
+
+        registros++;
+        return campos.toArray(new String[0]);
+    }
+
+    /**
+     * Número de registros leídos hasta ahora (incluida la cabecera).
+     */
+    public long getRegistros() {
+        return registros;
+    }
+
+    private int leer() throws IOException {
+        if (pendiente != SIN_PENDIENTE) {
+            int c = pendiente;
+            pendiente = SIN_PENDIENTE;
+            return c;
+        }
+        if (posicion == limite) {
+            limite = lector.read(buffer, 0, buffer.length);
+            posicion = 0;
+            if (limite <= 0) {
+                limite = 0;
+                return -1;
+            }
+        }
+        return buffer[posicion++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+}
@@ -0,0 +1,113 @@
+package csv;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de una importación CSV: registros procesados, insertados y erróneos,
+ * velocidad (filas/s) y, si se interrumpió, el motivo.
+ */
+public class ResultadoImportacion {
+
+    // Como máximo se guardan los mensajes de los primeros errores
+    private static final int MAX_MENSAJES_ERROR = 1000;
+
+    private final String entidad;
+    private final long registrosReanudados;
+    private long registrosLeidos;
+    private long insertadas;
+    private long errores;
+    private final List<String> mensajesError = new ArrayList<>();
+    private long nanos;
+    private String motivoInterrupcion;
+
+    ResultadoImportacion(String entidad, long registrosReanudados) {
+        this.entidad = entidad;
+        this.registrosReanudados = registrosReanudados;
+    }
+
+    void sumarTrozo(long leidos, long insertadas) {
+        this.registrosLeidos += leidos;
+        this.insertadas += insertadas;
+    }
+
+    void registrarError(long registro, String mensaje) {
+        errores++;
+        if (mensajesError.size() < MAX_MENSAJES_ERROR) {
+            mensajesError.add("Registro " + registro + ": " + mensaje);
+        }
+    }
+
+    void interrumpir(String motivo) {
+        this.motivoInterrupcion = motivo;
+    }
+
+    void terminar(long nanos) {
+        this.nanos = nanos;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    /**
+     * Registros saltados al reanudar (ya confirmados en una ejecución anterior).
+     */
+    public long getRegistrosReanudados() {
+        return registrosReanudados;
+    }
+
+    /**
+     * Registros de datos procesados en esta ejecución.
+     */
+    public long getRegistrosLeidos() {
+        return registrosLeidos;
+    }
+
+    public long getInsertadas() {
+        return insertadas;
+    }
+
+    public long getErrores() {
+        return errores;
+    }
+
+    /**
+     * Mensajes de los primeros errores, con el número de registro del fichero.
+     */
+    public List<String> getMensajesError() {
+        return mensajesError;
+    }
+
+    public double getSegundos() {
+        return nanos / 1_000_000_000.0;
+    }
+
+    public double getFilasPorSegundo() {
+        return nanos == 0 ? 0 : insertadas / getSegundos();
+    }
+
+    /**
+     * true si la importación se detuvo antes del final; se puede reanudar.
+     */
+    public boolean isInterrumpida() {
+        return motivoInterrupcion != null;
+    }
+
+    public String getMotivoInterrupcion() {
+        return motivoInterrupcion;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoImportacion{" +
+                "entidad='" + entidad + '\'' +
+                ", reanudados=" + registrosReanudados +
+                ", leidos=" + registrosLeidos +
+                ", insertadas=" + insertadas +
+                ", errores=" + errores +
+                String.format(", segundos=%.2f, filasPorSegundo=%.0f", getSegundos(), getFilasPorSegundo()) +
+                (motivoInterrupcion != null ? ", interrumpida='" + motivoInterrupcion + '\'' : "") +
+                '}';
+    }
+}
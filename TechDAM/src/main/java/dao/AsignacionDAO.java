@@ -0,0 +1,173 @@
+package dao;
+
+import config.DatabaseConfigPool;
+import modelo.Asignacion;
+import modelo.Empleado;
+import modelo.Proyecto;
+import modelo.RosterProyecto;
+
+import java.sql.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * DAO de asignaciones (relación empleados - proyectos).
+ *
+ * Comentarios académicos:
+ * - Todas las consultas son de conjunto: un único JOIN devuelve el grafo completo
+ *   (proyecto, asignaciones y empleados) en lugar de una consulta por empleado o
+ *   por proyecto (problema N+1).
+ * - Las columnas se leen por índice con las proyecciones de los Mapeador*,
+ *   colocadas una detrás de otra en la misma fila.
+ * - Se usan PreparedStatement y try-with-resources como en el resto de DAO (CE2.2, CE2.5).
+ * - Son consultas de informe: usan getConexionLectura() (réplica si está configurada).
+ */
+public class AsignacionDAO {
+
+    // Máximo de parámetros en una cláusula IN (...) por consulta
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
+    /**
+     * Empleados asignados a un proyecto (un solo JOIN).
+     *
+     * @param proyectoId ID del proyecto
+     * @return Empleados del proyecto ordenados por ID, vacía si no hay
+     */
+    public List<Empleado> empleadosPorProyecto(int proyectoId) {
+        List<Empleado> lista = new ArrayList<>();
+        String sql = "SELECT DISTINCT " + MapeadorEmpleado.COMPLETO.columnas("e") +
+                " FROM asignaciones a JOIN empleados e ON e.id = a.empleado_id" +
+                " WHERE a.proyecto_id = ? ORDER BY e.id";
+
+        try (Connection con = DatabaseConfigPool.getConexionLectura();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, proyectoId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(MapeadorEmpleado.COMPLETO.mapear(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al obtener empleados del proyecto: " + e.getMessage());
+        }
+        return lista;
+    }
+
+    /**
+     * Proyectos a los que está asignado un empleado (un solo JOIN).
+     *
+     * @param empleadoId ID del empleado
+     * @return Proyectos del empleado ordenados por ID, vacía si no hay
+     */
+    public List<Proyecto> proyectosPorEmpleado(int empleadoId) {
+        List<Proyecto> lista = new ArrayList<>();
+        String sql = "SELECT DISTINCT " + MapeadorProyecto.COMPLETO.columnas("p") +
+                " FROM asignaciones a JOIN proyectos p ON p.id = a.proyecto_id" +
+                " WHERE a.empleado_id = ? ORDER BY p.id";
+
+        try (Connection con = DatabaseConfigPool.getConexionLectura();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, empleadoId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(MapeadorProyecto.COMPLETO.mapear(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al obtener proyectos del empleado: " + e.getMessage());
+        }
+        return lista;
+    }
+
+    /**
+     * Recorrer todas las asignaciones en streaming, con memoria constante.
+     * Debe cerrarse el Stream (try-with-resources) para devolver la conexión al pool.
+     *
+     * @return Stream de asignaciones leído fila a fila desde MySQL, en orden de ID
+     */
+    public Stream<Asignacion> streamTodos() {
+        String sql = "SELECT " + MapeadorAsignacion.COMPLETO.columnas() + " FROM asignaciones ORDER BY id";
+
+        return FlujoResultados.abrir(sql, MapeadorAsignacion.COMPLETO);
+    }
+
+    /**
+     * Plantilla completa de un proyecto: proyecto, asignaciones y empleados.
+     *
+     * @param proyectoId ID del proyecto
+     * @return Optional vacío si el proyecto no existe o no se pudo leer
+     */
+    public Optional<RosterProyecto> obtenerRoster(int proyectoId) {
+        return Optional.ofNullable(cargarRosters(List.of(proyectoId)).get(proyectoId));
+    }
+
+    /**
+     * Carga las plantillas de muchos proyectos en un solo viaje a la BD
+     * (un trozo de hasta 1000 IDs por consulta).
+     *
+     * @param proyectoIds IDs de los proyectos
+     * @return Plantillas por ID de proyecto, en orden de ID; los proyectos inexistentes no aparecen.
+     *         Si falla alguna consulta se devuelve un mapa vacío, nunca un resultado parcial
+     */
+    public Map<Integer, RosterProyecto> cargarRosters(Collection<Integer> proyectoIds) {
+        Map<Integer, RosterProyecto> rosters = new LinkedHashMap<>();
+        List<Integer> ids = new ArrayList<>(new TreeSet<>(proyectoIds));
+
+        Proyeccion<Proyecto> proyeccionProyecto = MapeadorProyecto.COMPLETO;
+        Proyeccion<Asignacion> proyeccionAsignacion = MapeadorAsignacion.COMPLETO;
+        Proyeccion<Empleado> proyeccionEmpleado = MapeadorEmpleado.COMPLETO;
+        int inicioAsignacion = 1 + proyeccionProyecto.getNumeroColumnas();
+        int inicioEmpleado = inicioAsignacion + proyeccionAsignacion.getNumeroColumnas();
+
+        for (int inicio = 0; inicio < ids.size(); inicio += MAX_IDS_POR_CONSULTA) {
+            List<Integer> trozo = ids.subList(inicio, Math.min(inicio + MAX_IDS_POR_CONSULTA, ids.size()));
+
+            // LEFT JOIN para devolver también los proyectos sin asignaciones
+            String sql = "SELECT " + proyeccionProyecto.columnas("p") + ", " +
+                    proyeccionAsignacion.columnas("a") + ", " + proyeccionEmpleado.columnas("e") +
+                    " FROM proyectos p" +
+                    " LEFT JOIN asignaciones a ON a.proyecto_id = p.id" +
+                    " LEFT JOIN empleados e ON e.id = a.empleado_id" +
+                    " WHERE p.id IN (" + String.join(",", Collections.nCopies(trozo.size(), "?")) + ")" +
+                    " ORDER BY p.id, a.id";
+
+            try (Connection con = DatabaseConfigPool.getConexionLectura();
+                 PreparedStatement ps = con.prepareStatement(sql)) {
+
+                for (int i = 0; i < trozo.size(); i++) {
+                    ps.setInt(i + 1, trozo.get(i));
+                }
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int proyectoId = rs.getInt(1);
+                        RosterProyecto roster = rosters.get(proyectoId);
+                        if (roster == null) {
+                            roster = new RosterProyecto(proyeccionProyecto.mapear(rs, 1));
+                            rosters.put(proyectoId, roster);
+                        }
+
+                        rs.getInt(inicioAsignacion);
+                        if (rs.wasNull()) {
+                            continue; // Proyecto sin asignaciones
+                        }
+                        Asignacion asignacion = proyeccionAsignacion.mapear(rs, inicioAsignacion);
+                        asignacion.setProyecto(roster.getProyecto());
+                        asignacion.setEmpleado(proyeccionEmpleado.mapear(rs, inicioEmpleado));
+                        roster.agregarAsignacion(asignacion);
+                    }
+                }
+
+            } catch (SQLException e) {
+                // Sin este trozo el resultado estaría incompleto sin que el llamador lo sepa
+                System.out.println("Error al cargar plantillas de proyectos: " + e.getMessage());
+                return new LinkedHashMap<>();
+            }
+        }
+        return rosters;
+    }
+}
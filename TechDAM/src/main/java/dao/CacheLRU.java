@@ -0,0 +1,190 @@
+package dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caché acotada de lectura (read-through) con expulsión LRU y caducidad (TTL).
+ *
+ * Comentarios académicos:
+ * - LinkedHashMap con accessOrder=true mantiene las entradas ordenadas de menos a más
+ *   recientemente usada; removeEldestEntry() expulsa la más antigua al superar el tamaño.
+ * - La carga desde la BD se hace fuera del bloqueo para no serializar las consultas.
+ *   Un contador de invalidaciones evita guardar un valor leído antes de una invalidación
+ *   concurrente (el valor podría estar ya obsoleto).
+ * - Los objetos del modelo son mutables, por eso se guardan y devuelven copias: un
+ *   llamador que modifica el objeto devuelto no altera la caché.
+ * - Los contadores de aciertos, fallos y expulsiones permiten dimensionar la caché.
+ *
+ * @param <K> Tipo de la clave (normalmente el ID)
+ * @param <V> Tipo del valor cacheado
+ */
+public class CacheLRU<K, V> {
+
+    private final String nombre;
+    private final int tamanoMaximo;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copiador;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private long invalidaciones;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+    private final LongAdder caducadas = new LongAdder();
+
+    /**
+     * @param nombre Nombre para las estadísticas
+     * @param tamanoMaximo Número máximo de entradas (0 desactiva la caché)
+     * @param ttlMillis Tiempo de vida de cada entrada en milisegundos
+     * @param copiador Función que devuelve una copia independiente del valor
+     */
+    public CacheLRU(String nombre, int tamanoMaximo, long ttlMillis, UnaryOperator<V> copiador) {
+        this.nombre = nombre;
+        this.tamanoMaximo = tamanoMaximo;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.copiador = copiador;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() > CacheLRU.this.tamanoMaximo) {
+                    expulsiones.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el valor cacheado o lo carga con 'cargador' si no está o ha caducado.
+     * Los resultados vacíos no se cachean.
+     */
+    public Optional<V> obtener(K clave, Function<K, Optional<V>> cargador) {
+        long generacion;
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null) {
+                if (System.nanoTime() - entrada.creada < ttlNanos) {
+                    aciertos.increment();
+                    return Optional.of(copiador.apply(entrada.valor));
+                }
+                entradas.remove(clave);
+                caducadas.increment();
+            }
+            generacion = invalidaciones;
+        }
+
+        fallos.increment();
+        Optional<V> cargado = cargador.apply(clave);
+
+        if (cargado.isPresent() && tamanoMaximo > 0) {
+            synchronized (this) {
+                // Si hubo una invalidación mientras se consultaba la BD, no se guarda
+                if (generacion == invalidaciones) {
+                    entradas.put(clave, new Entrada<>(copiador.apply(cargado.get()), System.nanoTime()));
+                }
+            }
+        }
+        return cargado;
+    }
+
+    /**
+     * Elimina la entrada de una clave (tras actualizar o eliminar la fila).
+     */
+    public synchronized void invalidar(K clave) {
+        invalidaciones++;
+        entradas.remove(clave);
+    }
+
+    /**
+     * Elimina las entradas cuyo valor cumpla la condición
+     * (por ejemplo, los empleados de un departamento tras una subida de salario).
+     */
+    public synchronized void invalidarSi(Predicate<V> condicion) {
+        invalidaciones++;
+        Iterator<Entrada<V>> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            if (condicion.test(it.next().valor)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Vacía la caché por completo.
+     */
+    public synchronized void limpiar() {
+        invalidaciones++;
+        entradas.clear();
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    /**
+     * Entradas expulsadas por superar el tamaño máximo (LRU).
+     */
+    public long getExpulsiones() {
+        return expulsiones.sum();
+    }
+
+    /**
+     * Entradas descartadas por superar el TTL.
+     */
+    public long getCaducadas() {
+        return caducadas.sum();
+    }
+
+    public double getTasaAciertos() {
+        long total = getAciertos() + getFallos();
+        return total == 0 ? 0.0 : (double) getAciertos() / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheLRU{" +
+                "nombre='" + nombre + '\'' +
+                ", tamano=" + getTamano() + "/" + tamanoMaximo +
+                ", aciertos=" + getAciertos() +
+                ", fallos=" + getFallos() +
+                ", expulsiones=" + getExpulsiones() +
+                ", caducadas=" + getCaducadas() +
+                String.format(", tasaAciertos=%.2f", getTasaAciertos()) +
+                '}';
+    }
+
+    private static class Entrada<V> {
+        private final V valor;
+        private final long creada;
+
+        Entrada(V valor, long creada) {
+            this.valor = valor;
+            this.creada = creada;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package dao;
+
+import config.DatabaseConfigPool;
+import config.UnidadDeTrabajo;
+
+import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario en memoria de la tabla 'departamentos' (código entero &lt;-&gt; nombre).
+ *
+ * Comentarios académicos:
+ * - 'empleados' guarda solo departamento_id (INT); el nombre se resuelve aquí, sin JOIN.
+ * - Cada nombre existe una única vez en memoria: todos los Empleado de un mismo
+ *   departamento comparten la misma instancia de String en lugar de crear una por fila.
+ * - Los códigos se buscan por el nombre en minúsculas: la columna 'nombre' tiene una
+ *   intercalación que no distingue mayúsculas, así que "ventas" y "Ventas" son el mismo
+ *   departamento, igual que en un WHERE nombre = ? de SQL.
+ * - La tabla se carga de forma perezosa la primera vez y se recarga cuando se pide un
+ *   código o un nombre desconocido (departamento creado por otro proceso).
+ * - Al mapear filas no se consulta la BD: el llamador tiene su conexión y su ResultSet
+ *   abiertos (pedir otra conexión puede agotar el pool y, en streaming, la misma está
+ *   ocupada). MapeadorEmpleado trae el nombre en la fila y nombre(rs, ...) solo lo lee si el
+ *   código es desconocido; las consultas agregadas resuelven los nombres tras cerrar la conexión.
+ * - Fuera de una unidad de trabajo usa una conexión independiente: los departamentos son
+ *   datos de referencia y el diccionario solo debe contener filas confirmadas. Por eso los
+ *   DAO resuelven los códigos antes de pedir su propia conexión (codigosOCrear() en los
+ *   lotes): pedir una segunda conexión mientras se tiene otra puede agotar el pool.
+ * - Dentro de una unidad de trabajo se usa la conexión de la unidad y lo leído o creado
+ *   solo se añade al diccionario después del commit.
+ */
+public final class DiccionarioDepartamentos {
+
+    private static final Map<Integer, String> NOMBRES = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> CODIGOS = new ConcurrentHashMap<>(); // Por clave()
+
+    private DiccionarioDepartamentos() {}
+
+    /**
+     * Nombre del departamento con ese código.
+     *
+     * @return Nombre compartido, o null si el código no existe
+     */
+    public static String nombre(int codigo) throws SQLException {
+        String nombre = NOMBRES.get(codigo);
+        if (nombre == null) {
+            nombre = leerTabla().get(codigo);
+        }
+        return nombre;
+    }
+
+    /**
+     * Nombre del departamento de una fila, sin consultar la BD.
+     *
+     * @param columnaCodigo Columna con departamento_id
+     * @param columnaNombre Columna con el nombre; solo se lee si el código no está en el diccionario
+     */
+    public static String nombre(ResultSet rs, int columnaCodigo, int columnaNombre) throws SQLException {
+        int codigo = rs.getInt(columnaCodigo);
+        String nombre = NOMBRES.get(codigo);
+        if (nombre != null) {
+            return nombre;
+        }
+        nombre = rs.getString(columnaNombre);
+        if (nombre != null && !UnidadDeTrabajo.activa()) {
+            // Dentro de una unidad el departamento podría no estar confirmado: no se registra
+            registrar(codigo, nombre);
+            nombre = NOMBRES.get(codigo);
+        }
+        return nombre;
+    }
+
+    /**
+     * Código del departamento con ese nombre, sin distinguir mayúsculas.
+     *
+     * @return Código, o -1 si el departamento no existe
+     */
+    public static int codigo(String nombre) throws SQLException {
+        Integer codigo = CODIGOS.get(clave(nombre));
+        if (codigo == null) {
+            for (Map.Entry<Integer, String> fila : leerTabla().entrySet()) {
+                if (clave(fila.getValue()).equals(clave(nombre))) {
+                    return fila.getKey();
+                }
+            }
+        }
+        return codigo != null ? codigo : -1;
+    }
+
+    /**
+     * Código del departamento con ese nombre, creándolo si no existe
+     * (al crear o actualizar un empleado con un departamento nuevo).
+     */
+    public static int codigoOCrear(String nombre) throws SQLException {
+        if (nombre == null) {
+            throw new SQLException("El departamento es obligatorio");
+        }
+        Integer codigo = CODIGOS.get(clave(nombre));
+        if (codigo != null) {
+            return codigo;
+        }
+
+        // LAST_INSERT_ID(id) devuelve el ID existente si otro hilo lo creó a la vez
+        // (o si ya existía con otras mayúsculas)
+        String sql = "INSERT INTO departamentos(nombre) VALUES (?) " +
+                "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)";
+
+        try (Connection con = conexion();
+             PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            ps.setString(1, nombre);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (!rs.next()) {
+                    throw new SQLException("No se obtuvo el código del departamento " + nombre);
+                }
+                int nuevo = rs.getInt(1);
+                publicar(Map.of(nuevo, nombre));
+                return nuevo;
+            }
+        }
+    }
+
+    /**
+     * Resuelve (creando los que falten) los códigos de varios departamentos de una vez. Las
+     * operaciones por lotes lo llaman antes de pedir su conexión, para no necesitar otra a mitad.
+     *
+     * @return Código por nombre; los nombres nulos o que no se pudieron crear no aparecen
+     */
+    public static Map<String, Integer> codigosOCrear(Collection<String> nombres) {
+        Map<String, Integer> codigos = new HashMap<>();
+        for (String nombre : nombres) {
+            if (nombre == null || codigos.containsKey(nombre)) {
+                continue;
+            }
+            try {
+                codigos.put(nombre, codigoOCrear(nombre));
+            } catch (SQLException e) {
+                System.out.println("Error al crear el departamento " + nombre + ": " + e.getMessage());
+            }
+        }
+        return codigos;
+    }
+
+    /**
+     * Vuelve a leer la tabla completa (pocas filas).
+     */
+    public static void recargar() throws SQLException {
+        leerTabla();
+    }
+
+    /**
+     * Número de departamentos cargados en memoria.
+     */
+    public static int getTamano() {
+        return NOMBRES.size();
+    }
+
+    /**
+     * Lee todas las filas y las añade al diccionario (tras el commit si hay unidad de trabajo).
+     *
+     * @return Filas leídas, para responder ya aunque el diccionario espere al commit
+     */
+    private static synchronized Map<Integer, String> leerTabla() throws SQLException {
+        String sql = "SELECT id, nombre FROM departamentos";
+        Map<Integer, String> filas = new HashMap<>();
+
+        try (Connection con = conexion();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                filas.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        publicar(filas);
+        return filas;
+    }
+
+    /**
+     * Dentro de una unidad de trabajo, su conexión (pedir otra al pool mientras la unidad
+     * tiene una puede agotarlo); fuera, una conexión independiente.
+     */
+    private static Connection conexion() throws SQLException {
+        return UnidadDeTrabajo.activa() ? DatabaseConfigPool.getConexion() : DatabaseConfigPool.getConexionIndependiente();
+    }
+
+    private static void publicar(Map<Integer, String> filas) {
+        if (UnidadDeTrabajo.activa()) {
+            // Si la unidad se deshace, un departamento creado en ella no existe
+            UnidadDeTrabajo.despuesDeConfirmar(() -> filas.forEach(DiccionarioDepartamentos::registrar));
+        } else {
+            filas.forEach(DiccionarioDepartamentos::registrar);
+        }
+    }
+
+    private static void registrar(int codigo, String nombre) {
+        // Se conserva la instancia ya registrada para que todas las filas la compartan
+        String compartido = NOMBRES.putIfAbsent(codigo, nombre);
+        CODIGOS.putIfAbsent(clave(compartido != null ? compartido : nombre), codigo);
+        CODIGOS.putIfAbsent(clave(nombre), codigo); // Grafía pedida, si la BD la trató como la misma
+    }
+
+    private static String clave(String nombre) {
+        return nombre.toLowerCase(Locale.ROOT);
+    }
+}
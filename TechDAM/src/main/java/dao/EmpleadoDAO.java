@@ -1,148 +1,529 @@
-package dao;
-
-import config.DatabaseConfigPool;
-import modelo.Empleado;
-
-import java.math.BigDecimal;
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-
-/**
- * DAO de empleados.
- * Justificación académica:
- * - Implemento CRUD completo usando únicamente PreparedStatement (CE2.5).
- * - Se aplican bloques try-with-resources para garantizar el cierre de recursos (CE2.2).
- * - Uso Optional para representar resultados que pueden no existir.
- */
-public class EmpleadoDAO {
-
-    /**
-     * Crear un empleado en la BD y devolver el ID generado.
-     */
-    public int crear(Empleado emp) {
-        String sql = "INSERT INTO empleados(nombre, departamento, salario, activo) VALUES (?, ?, ?, ?)";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setString(1, emp.getNombre());
-            ps.setString(2, emp.getDepartamento());
-            ps.setBigDecimal(3, emp.getSalario());
-            ps.setBoolean(4, emp.isActivo());
-
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
-            }
-
-        } catch (SQLException e) {
-            System.out.println("Error al crear empleado: " + e.getMessage());
-        }
-        return -1;
-    }
-
-    /**
-     * Obtener todos los empleados.
-     */
-    public List<Empleado> obtenerTodos() {
-        List<Empleado> lista = new ArrayList<>();
-
-        String sql = "SELECT * FROM empleados";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Empleado emp = new Empleado(
-                        rs.getInt("id"),
-                        rs.getString("nombre"),
-                        rs.getString("departamento"),
-                        rs.getBigDecimal("salario"),
-                        rs.getBoolean("activo")
-                );
-                lista.add(emp);
-            }
-
-        } catch (SQLException e) {
-            System.out.println("Error al obtener empleados: " + e.getMessage());
-        }
-
-        return lista;
-    }
-
-    /**
-     * Obtener un empleado por ID.
-     */
-    public Optional<Empleado> obtenerPorId(int id) {
-        String sql = "SELECT * FROM empleados WHERE id = ?";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setInt(1, id);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Empleado emp = new Empleado(
-                            rs.getInt("id"),
-                            rs.getString("nombre"),
-                            rs.getString("departamento"),
-                            rs.getBigDecimal("salario"),
-                            rs.getBoolean("activo")
-                    );
-                    return Optional.of(emp);
-                }
-            }
-
-        } catch (SQLException e) {
-            System.out.println("Error al obtener empleado por id: " + e.getMessage());
-        }
-        return Optional.empty();
-    }
-
-    /**
-     * Actualizar un empleado existente.
-     */
-    public boolean actualizar(Empleado emp) {
-        String sql = "UPDATE empleados SET nombre=?, departamento=?, salario=?, activo=? WHERE id=?";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setString(1, emp.getNombre());
-            ps.setString(2, emp.getDepartamento());
-            ps.setBigDecimal(3, emp.getSalario());
-            ps.setBoolean(4, emp.isActivo());
-            ps.setInt(5, emp.getId());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            System.out.println("Error al actualizar empleado: " + e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Eliminar un empleado por ID.
-     */
-    public boolean eliminar(int id) {
-        String sql = "DELETE FROM empleados WHERE id=?";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            System.out.println("Error al eliminar empleado: " + e.getMessage());
-            return false;
-        }
-    }
-}
+package dao;
+
+import config.DatabaseConfigPool;
+import config.UnidadDeTrabajo;
+import modelo.Empleado;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * DAO de empleados.
+ * Justificación académica:
+ * - Implemento CRUD completo usando únicamente PreparedStatement (CE2.5).
+ * - Se aplican bloques try-with-resources para garantizar el cierre de recursos (CE2.2).
+ * - Uso Optional para representar resultados que pueden no existir.
+ */
+public class EmpleadoDAO {
+
+    /** Filas por executeBatch() en crearLote si no se indica otro valor. */
+    public static final int TAMANO_LOTE_POR_DEFECTO = 500;
+
+    /**
+     * Caché compartida de obtenerPorId(). Es estática porque Menu y los servicios
+     * crean sus propias instancias del DAO y todas deben ver las mismas invalidaciones.
+     * Tamaño y TTL configurables con -Dtechdam.cache.empleados.tamano y -Dtechdam.cache.ttlMillis.
+     */
+    private static final CacheLRU<Integer, Empleado> CACHE = new CacheLRU<>("empleados",
+            Integer.getInteger("techdam.cache.empleados.tamano", 1000),
+            Long.getLong("techdam.cache.ttlMillis", 60_000L),
+            EmpleadoDAO::copiar);
+
+    /**
+     * Escritura diferida de actualizar(), o null si está desactivada (por defecto).
+     * Se activa con activarEscrituraDiferida() o con -Dtechdam.escrituraDiferida=true
+     * (tamaño y retraso con -Dtechdam.escrituraDiferida.tamanoLote y .maxRetrasoMillis).
+     */
+    private static volatile EscrituraDiferidaEmpleados escrituraDiferida;
+    private static boolean vaciadoAlCerrarRegistrado;
+
+    static {
+        if (Boolean.getBoolean("techdam.escrituraDiferida")) {
+            activarEscrituraDiferida(Integer.getInteger("techdam.escrituraDiferida.tamanoLote", 500),
+                    Long.getLong("techdam.escrituraDiferida.maxRetrasoMillis", 1_000L));
+        }
+    }
+
+    /**
+     * Crear un empleado en la BD y devolver el ID generado.
+     */
+    public int crear(Empleado emp) {
+        String sql = SentenciasFrecuentes.EMPLEADO_INSERTAR;
+
+        try {
+            // Antes de pedir la conexión: el diccionario puede necesitar otra
+            int departamento = DiccionarioDepartamentos.codigoOCrear(emp.getDepartamento());
+
+            try (Connection con = DatabaseConfigPool.getConexion();
+                 PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                ps.setString(1, emp.getNombre());
+                ps.setInt(2, departamento);
+                ps.setBigDecimal(3, emp.getSalario());
+                ps.setBoolean(4, emp.isActivo());
+
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al crear empleado: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Crear varios empleados en una sola transacción usando JDBC batching,
+     * con el tamaño de lote por defecto.
+     */
+    public ResultadoLote crearLote(List<Empleado> empleados) {
+        return crearLote(empleados, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Crear varios empleados en una sola conexión y transacción.
+     * Los INSERT se envían en trozos de 'tamanoLote' filas.
+     *
+     * @param empleados Empleados a insertar
+     * @param tamanoLote Número de filas por executeBatch()
+     * @return IDs generados en el orden de entrada y errores por fila
+     */
+    public ResultadoLote crearLote(List<Empleado> empleados, int tamanoLote) {
+        String sql = SentenciasFrecuentes.EMPLEADO_INSERTAR;
+        Map<String, Integer> codigos = codigosDepartamento(empleados);
+
+        return InsercionLotes.insertar(sql, empleados, tamanoLote, (ps, emp) -> {
+            ps.setString(1, emp.getNombre());
+            ps.setInt(2, codigoResuelto(codigos, emp));
+            ps.setBigDecimal(3, emp.getSalario());
+            ps.setBoolean(4, emp.isActivo());
+        }, "empleados");
+    }
+
+    /**
+     * Sincronizar empleados con ID conocido (por ejemplo, desde el sistema de RR. HH.):
+     * inserta los que no existen, actualiza los que han cambiado y omite los que no.
+     */
+    public ResultadoUpsert upsertLote(List<Empleado> empleados) {
+        return upsertLote(empleados, TAMANO_LOTE_POR_DEFECTO, true);
+    }
+
+    /**
+     * Sincronizar empleados con ID conocido en una sola conexión y transacción.
+     * Por cada trozo se hace una consulta de huellas y un INSERT ... ON DUPLICATE KEY UPDATE
+     * por lotes, en lugar de obtenerPorId() y crear()/actualizar() por empleado.
+     *
+     * @param empleados Empleados con su ID en origen; si un ID se repite, gana la última aparición
+     * @param tamanoLote Número de filas por executeBatch()
+     * @param omitirSinCambios Si true no se escriben los empleados cuya huella coincide con la de la BD
+     * @return Insertados, actualizados, sin cambios y errores por fila
+     */
+    public ResultadoUpsert upsertLote(List<Empleado> empleados, int tamanoLote, boolean omitirSinCambios) {
+        // VALUES(col) en lugar del alias de fila de MySQL 8.0.19+, que MariaDB no admite
+        String sql = "INSERT INTO empleados(id, nombre, departamento_id, salario, activo) VALUES (?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE nombre=VALUES(nombre), departamento_id=VALUES(departamento_id), " +
+                "salario=VALUES(salario), activo=VALUES(activo)";
+
+        // Los cambios diferidos pendientes se escriben antes: la huella debe compararse con la
+        // BD al día, y la sincronización no debe quedar pisada por una versión anterior
+        vaciarEscrituraDiferida();
+        Map<String, Integer> codigos = codigosDepartamento(empleados);
+
+        return SincronizacionLotes.sincronizar("empleados", "nombre, departamento_id, salario, activo", sql,
+                empleados, tamanoLote, omitirSinCambios, Empleado::getId,
+                emp -> SincronizacionLotes.unir(emp.getNombre(),
+                        codigoResuelto(codigos, emp),
+                        emp.getSalario().setScale(2, RoundingMode.HALF_UP).toPlainString(), // DECIMAL(10,2)
+                        emp.isActivo() ? 1 : 0),
+                (ps, emp) -> {
+                    ps.setInt(1, emp.getId());
+                    ps.setString(2, emp.getNombre());
+                    ps.setInt(3, codigoResuelto(codigos, emp));
+                    ps.setBigDecimal(4, emp.getSalario());
+                    ps.setBoolean(5, emp.isActivo());
+                },
+                EmpleadoDAO::invalidarCache, "empleados");
+    }
+
+    /**
+     * Obtener todos los empleados.
+     */
+    public List<Empleado> obtenerTodos() {
+        return obtenerTodos(MapeadorEmpleado.COMPLETO);
+    }
+
+    /**
+     * Obtener todos los empleados leyendo solo las columnas de la proyección
+     * (por ejemplo MapeadorEmpleado.ID_NOMBRE para una lista de selección).
+     */
+    public List<Empleado> obtenerTodos(Proyeccion<Empleado> proyeccion) {
+        List<Empleado> lista = new ArrayList<>();
+
+        String sql = "SELECT " + proyeccion.columnas() + " FROM empleados";
+
+        try (Connection con = DatabaseConfigPool.getConexionLectura();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                lista.add(proyeccion.mapear(rs));
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al obtener empleados: " + e.getMessage());
+        }
+
+        return lista;
+    }
+
+    /**
+     * Recorrer todos los empleados en streaming, con memoria constante.
+     * La conexión se libera al cerrar el Stream, por lo que debe usarse así:
+     * <pre>
+     * try (Stream&lt;Empleado&gt; empleados = dao.streamTodos()) { ... }
+     * </pre>
+     */
+    public Stream<Empleado> streamTodos() {
+        return streamTodos(MapeadorEmpleado.COMPLETO);
+    }
+
+    /**
+     * Recorrer todos los empleados en streaming leyendo solo las columnas de la proyección.
+     */
+    public Stream<Empleado> streamTodos(Proyeccion<Empleado> proyeccion) {
+        String sql = "SELECT " + proyeccion.columnas() + " FROM empleados";
+
+        return FlujoResultados.abrir(sql, proyeccion);
+    }
+
+    /**
+     * Aplicar una acción a cada empleado sin cargar la tabla en memoria.
+     * La conexión se cierra siempre al terminar, incluso si la acción lanza una excepción.
+     */
+    public void forEach(Consumer<Empleado> accion) {
+        try (Stream<Empleado> empleados = streamTodos()) {
+            empleados.forEach(accion);
+        }
+    }
+
+    /**
+     * Obtener una página de empleados por keyset (seek): WHERE id > ? ORDER BY id LIMIT ?.
+     * A diferencia de OFFSET, el coste no crece al avanzar de página porque
+     * MySQL salta directamente al ID indicado usando la clave primaria.
+     *
+     * @param despuesDeId Último ID de la página anterior (0 para la primera página)
+     * @param limite Número máximo de empleados a devolver
+     */
+    public List<Empleado> obtenerPagina(int despuesDeId, int limite) {
+        return obtenerPagina(despuesDeId, limite, null, null, MapeadorEmpleado.COMPLETO);
+    }
+
+    /**
+     * Obtener una página de empleados leyendo solo las columnas de la proyección.
+     */
+    public List<Empleado> obtenerPagina(int despuesDeId, int limite, Proyeccion<Empleado> proyeccion) {
+        return obtenerPagina(despuesDeId, limite, null, null, proyeccion);
+    }
+
+    /**
+     * Obtener una página de empleados filtrando por departamento y/o activo.
+     * Un filtro a null no se aplica. Los índices (departamento_id, id) y (activo, id)
+     * permiten resolver el filtro y el orden sin recorrer las páginas anteriores.
+     * El departamento se traduce a su código entero con DiccionarioDepartamentos.
+     *
+     * @param despuesDeId Último ID de la página anterior (0 para la primera página)
+     * @param limite Número máximo de empleados a devolver
+     * @param departamento Departamento a filtrar, o null para todos
+     * @param activo Estado a filtrar, o null para todos
+     */
+    public List<Empleado> obtenerPagina(int despuesDeId, int limite, String departamento, Boolean activo) {
+        return obtenerPagina(despuesDeId, limite, departamento, activo, MapeadorEmpleado.COMPLETO);
+    }
+
+    /**
+     * Obtener una página filtrada de empleados leyendo solo las columnas de la proyección.
+     */
+    public List<Empleado> obtenerPagina(int despuesDeId, int limite, String departamento, Boolean activo,
+                                        Proyeccion<Empleado> proyeccion) {
+        List<Empleado> lista = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(proyeccion.columnas())
+                .append(" FROM empleados WHERE id > ?");
+        if (departamento != null) sql.append(" AND departamento_id = ?");
+        if (activo != null) sql.append(" AND activo = ?");
+        sql.append(" ORDER BY id LIMIT ?");
+
+        try {
+            // Antes de pedir la conexión: el diccionario puede necesitar otra
+            int codigo = departamento != null ? DiccionarioDepartamentos.codigo(departamento) : 0;
+            if (codigo == -1) {
+                return lista; // Departamento inexistente: página vacía
+            }
+
+            try (Connection con = DatabaseConfigPool.getConexionLectura();
+                 PreparedStatement ps = con.prepareStatement(sql.toString())) {
+
+                int i = 1;
+                ps.setInt(i++, despuesDeId);
+                if (departamento != null) ps.setInt(i++, codigo);
+                if (activo != null) ps.setBoolean(i++, activo);
+                ps.setInt(i, limite);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        lista.add(proyeccion.mapear(rs));
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al obtener página de empleados: " + e.getMessage());
+        }
+
+        return lista;
+    }
+
+    /**
+     * Obtener un empleado por ID, pasando primero por la caché.
+     */
+    public Optional<Empleado> obtenerPorId(int id) {
+        EscrituraDiferidaEmpleados diferida = escrituraDiferida;
+        Empleado pendiente = diferida != null ? diferida.pendiente(id) : null;
+        if (pendiente != null) {
+            return Optional.of(copiar(pendiente)); // Cambio aún no escrito en la BD
+        }
+        if (UnidadDeTrabajo.activa()) {
+            // Dentro de una unidad de trabajo se leen los cambios aún no confirmados:
+            // no deben entrar en la caché compartida
+            return cargarPorId(id);
+        }
+        return CACHE.obtener(id, this::cargarPorId);
+    }
+
+    /**
+     * Carga desde el primario, nunca desde la réplica: lo que se lee aquí entra en la caché y,
+     * tras una invalidación, una réplica con retraso volvería a guardar la versión antigua
+     * durante todo el TTL.
+     */
+    private Optional<Empleado> cargarPorId(int id) {
+        String sql = SentenciasFrecuentes.EMPLEADO_POR_ID;
+
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(MapeadorEmpleado.COMPLETO.mapear(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al obtener empleado por id: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Actualizar un empleado existente.
+     *
+     * Con la escritura diferida activa (y fuera de una UnidadDeTrabajo) el cambio se guarda
+     * en memoria y se escribe más tarde junto con otros; entonces true significa "aceptado"
+     * y no se sabe todavía si el empleado existe.
+     */
+    public boolean actualizar(Empleado emp) {
+        String sql = SentenciasFrecuentes.EMPLEADO_ACTUALIZAR;
+
+        EscrituraDiferidaEmpleados diferida = escrituraDiferida;
+        if (diferida != null) {
+            if (!UnidadDeTrabajo.activa()) {
+                try {
+                    // Se valida el departamento ahora para que el error llegue a quien actualiza
+                    DiccionarioDepartamentos.codigoOCrear(emp.getDepartamento());
+                } catch (SQLException e) {
+                    System.out.println("Error al actualizar empleado: " + e.getMessage());
+                    return false;
+                }
+                diferida.encolar(copiar(emp));
+                return true;
+            }
+            // Dentro de una transacción se escribe ya; la versión pendiente queda obsoleta si se
+            // confirma. Se retira ahora (un vaciado posterior pisaría lo escrito) y vuelve al
+            // búfer si la transacción se deshace.
+            reponerSiSeDeshace(diferida, diferida.descartar(emp.getId()));
+        }
+
+        try {
+            // Antes de pedir la conexión: el diccionario puede necesitar otra
+            int departamento = DiccionarioDepartamentos.codigoOCrear(emp.getDepartamento());
+
+            try (Connection con = DatabaseConfigPool.getConexion();
+                 PreparedStatement ps = con.prepareStatement(sql)) {
+
+                ps.setString(1, emp.getNombre());
+                ps.setInt(2, departamento);
+                ps.setBigDecimal(3, emp.getSalario());
+                ps.setBoolean(4, emp.isActivo());
+                ps.setInt(5, emp.getId());
+
+                boolean actualizado = ps.executeUpdate() > 0;
+                invalidarCache(emp.getId());
+                return actualizado;
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al actualizar empleado: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Eliminar un empleado por ID.
+     */
+    public boolean eliminar(int id) {
+        String sql = SentenciasFrecuentes.EMPLEADO_ELIMINAR;
+
+        EscrituraDiferidaEmpleados diferida = escrituraDiferida;
+        if (diferida != null) {
+            reponerSiSeDeshace(diferida, diferida.descartar(id));
+        }
+
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, id);
+            boolean eliminado = ps.executeUpdate() > 0;
+            invalidarCache(id);
+            return eliminado;
+
+        } catch (SQLException e) {
+            System.out.println("Error al eliminar empleado: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Invalida la caché de un empleado modificado fuera de este DAO.
+     */
+    public static void invalidarCache(int id) {
+        CACHE.invalidar(id);
+        if (UnidadDeTrabajo.activa()) {
+            // Otro hilo puede volver a cargar el valor antiguo antes del commit
+            UnidadDeTrabajo.despuesDeConfirmar(() -> CACHE.invalidar(id));
+        }
+    }
+
+    /**
+     * Invalida los empleados activos de un departamento
+     * (procedimiento actualizar_salario_departamento). Sin distinguir mayúsculas,
+     * igual que el procedimiento compara el nombre.
+     */
+    public static void invalidarCacheDepartamento(String departamento) {
+        CACHE.invalidarSi(emp -> emp.isActivo() && departamento.equalsIgnoreCase(emp.getDepartamento()));
+        if (UnidadDeTrabajo.activa()) {
+            UnidadDeTrabajo.despuesDeConfirmar(() ->
+                    CACHE.invalidarSi(emp -> emp.isActivo() && departamento.equalsIgnoreCase(emp.getDepartamento())));
+        }
+    }
+
+    /**
+     * Activa la escritura diferida de actualizar(). Los cambios pendientes se escriben
+     * también al cerrar el pool (DatabaseConfigPool.cerrarPool()).
+     *
+     * @param tamanoLote Cambios pendientes que provocan una escritura, y filas por executeBatch
+     * @param maxRetrasoMillis Tiempo máximo que un cambio puede estar sin escribir en la BD
+     */
+    public static synchronized void activarEscrituraDiferida(int tamanoLote, long maxRetrasoMillis) {
+        EscrituraDiferidaEmpleados nueva = new EscrituraDiferidaEmpleados(tamanoLote, maxRetrasoMillis);
+        EscrituraDiferidaEmpleados anterior = escrituraDiferida;
+        escrituraDiferida = nueva;
+        if (anterior != null) {
+            anterior.cerrar();
+        }
+        if (!vaciadoAlCerrarRegistrado) {
+            DatabaseConfigPool.alCerrar(EmpleadoDAO::vaciarEscrituraDiferida);
+            vaciadoAlCerrarRegistrado = true;
+        }
+    }
+
+    /**
+     * Escribe los cambios pendientes y vuelve a la escritura inmediata.
+     */
+    public static synchronized void desactivarEscrituraDiferida() {
+        EscrituraDiferidaEmpleados anterior = escrituraDiferida;
+        escrituraDiferida = null;
+        if (anterior != null) {
+            anterior.cerrar();
+        }
+    }
+
+    /**
+     * Escribe ya los cambios diferidos pendientes (por ejemplo, antes de un informe o
+     * de un procedimiento que modifica empleados).
+     *
+     * @return Filas escritas (0 si la escritura diferida no está activa)
+     */
+    public static int vaciarEscrituraDiferida() {
+        EscrituraDiferidaEmpleados diferida = escrituraDiferida;
+        return diferida != null ? diferida.vaciar() : 0;
+    }
+
+    /**
+     * Búfer de escritura diferida, para consultar sus métricas, o null si no está activa.
+     */
+    public static EscrituraDiferidaEmpleados getEscrituraDiferida() {
+        return escrituraDiferida;
+    }
+
+    /**
+     * Caché de obtenerPorId(), para consultar aciertos, fallos y expulsiones.
+     */
+    public static CacheLRU<Integer, Empleado> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Si la unidad de trabajo actual se deshace, devuelve al búfer el cambio que se retiró.
+     */
+    private static void reponerSiSeDeshace(EscrituraDiferidaEmpleados diferida, Empleado retirado) {
+        if (retirado != null) {
+            UnidadDeTrabajo.despuesDeDeshacer(() -> diferida.reponer(retirado));
+        }
+    }
+
+    /**
+     * Códigos de los departamentos de una lista, resueltos antes de abrir la conexión del lote.
+     */
+    private static Map<String, Integer> codigosDepartamento(List<Empleado> empleados) {
+        List<String> nombres = new ArrayList<>(empleados.size());
+        for (Empleado emp : empleados) {
+            nombres.add(emp.getDepartamento());
+        }
+        return DiccionarioDepartamentos.codigosOCrear(nombres);
+    }
+
+    private static int codigoResuelto(Map<String, Integer> codigos, Empleado emp) throws SQLException {
+        Integer codigo = codigos.get(emp.getDepartamento());
+        if (codigo == null) {
+            throw new SQLException(emp.getDepartamento() == null ? "El departamento es obligatorio"
+                    : "No se pudo crear el departamento " + emp.getDepartamento());
+        }
+        return codigo;
+    }
+
+    private static Empleado copiar(Empleado emp) {
+        return new Empleado(emp.getId(), emp.getNombre(), emp.getDepartamento(), emp.getSalario(), emp.isActivo());
+    }
+}
@@ -0,0 +1,381 @@
+package dao;
+
+import config.DatabaseConfigPool;
+import modelo.Empleado;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Búfer de escritura diferida (write-behind) para EmpleadoDAO.actualizar().
+ *
+ * Comentarios académicos:
+ * - Cada actualización sustituye a la pendiente del mismo empleado: si un empleado cambia
+ *   diez veces antes de vaciar el búfer, solo se escribe la última versión (el UPDATE es de
+ *   la fila completa, así que la última contiene todos los cambios).
+ * - El búfer se vacía por tamaño (al llegar a tamanoLote pendientes, en segundo plano), por
+ *   tiempo (ningún cambio espera más de maxRetrasoMillis), bajo demanda (vaciar()) y al
+ *   cerrar el pool. Cada vaciado escribe trozos de tamanoLote filas con un executeBatch en
+ *   una transacción.
+ * - Los vaciados se ejecutan de uno en uno (ReentrantLock), por lo que dos versiones del mismo
+ *   empleado nunca se escriben en orden inverso.
+ * - Mientras un cambio está pendiente o escribiéndose, obtenerPorId() lo devuelve desde el
+ *   búfer: quien escribe lee su propio cambio aunque aún no esté en la BD.
+ * - Si el trozo falla se reintenta fila a fila: las filas con error de conexión (SQLState 08)
+ *   vuelven al búfer salvo que ya haya una versión más nueva; las demás se descartan y se
+ *   cuentan. Una actualización de un empleado que ya no existe (0 filas) no cuenta como
+ *   escrita sino como inexistente. Si el búfer crece hasta 4 × tamanoLote, quien actualiza vacía él mismo (contrapresión).
+ * - Solo se difieren los cambios de actualizar(); los procedimientos y transacciones escriben
+ *   directamente. Por eso los servicios que modifican empleados vacían antes el búfer.
+ * - Durabilidad: los cambios pendientes se pierden si el proceso termina sin cerrarPool().
+ */
+public final class EscrituraDiferidaEmpleados {
+
+    private final int tamanoLote;
+    private final long maxRetrasoNanos;
+
+    // Pendientes en orden de llegada (put de una clave existente conserva su posición)
+    private final LinkedHashMap<Integer, Empleado> pendientes = new LinkedHashMap<>();
+    private final Map<Integer, Empleado> enVuelo = new LinkedHashMap<>();
+    private long primeraPendienteNanos;
+
+    private final ReentrantLock bloqueoVaciado = new ReentrantLock();
+    private final AtomicBoolean vaciadoPedido = new AtomicBoolean();
+    private final ScheduledExecutorService temporizador;
+
+    private final LongAdder encoladas = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+    private final LongAdder escritas = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder inexistentes = new LongAdder();
+
+    /**
+     * @param tamanoLote Pendientes que provocan un vaciado y filas por executeBatch
+     * @param maxRetrasoMillis Tiempo máximo que un cambio puede estar sin escribir
+     */
+    EscrituraDiferidaEmpleados(int tamanoLote, long maxRetrasoMillis) {
+        if (tamanoLote <= 0 || maxRetrasoMillis <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote y el retraso máximo deben ser mayores que 0");
+        }
+        this.tamanoLote = tamanoLote;
+        this.maxRetrasoNanos = TimeUnit.MILLISECONDS.toNanos(maxRetrasoMillis);
+
+        temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "techdam-escritura-diferida");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = Math.max(1, maxRetrasoMillis / 4);
+        temporizador.scheduleWithFixedDelay(this::vaciarSiCaduca, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Guarda el cambio para escribirlo más tarde.
+     */
+    void encolar(Empleado emp) {
+        int pendientesAhora;
+        synchronized (this) {
+            if (pendientes.isEmpty()) {
+                primeraPendienteNanos = System.nanoTime();
+            }
+            if (pendientes.put(emp.getId(), emp) != null) {
+                coalescidas.increment();
+            }
+            pendientesAhora = pendientes.size();
+        }
+        encoladas.increment();
+
+        if (pendientesAhora >= 4 * tamanoLote) {
+            vaciar(); // El vaciado en segundo plano no da abasto
+        } else if (pendientesAhora >= tamanoLote && vaciadoPedido.compareAndSet(false, true)) {
+            temporizador.execute(() -> {
+                vaciadoPedido.set(false);
+                vaciar();
+            });
+        }
+    }
+
+    /**
+     * Versión pendiente o escribiéndose de un empleado, o null si no hay ninguna.
+     */
+    synchronized Empleado pendiente(int id) {
+        Empleado emp = pendientes.get(id);
+        return emp != null ? emp : enVuelo.get(id);
+    }
+
+    /**
+     * Descarta el cambio pendiente de un empleado (eliminado o escrito directamente después).
+     *
+     * @return Versión descartada, o null si no había ninguna pendiente
+     */
+    synchronized Empleado descartar(int id) {
+        return pendientes.remove(id);
+    }
+
+    /**
+     * Devuelve al búfer un cambio descartado (la transacción que lo sustituía se deshizo),
+     * salvo que entretanto haya llegado otro más nuevo.
+     */
+    void reponer(Empleado emp) {
+        reencolar(List.of(emp));
+    }
+
+    /**
+     * Escribe ahora todos los cambios pendientes y espera a que terminen.
+     *
+     * @return Filas escritas
+     */
+    public int vaciar() {
+        bloqueoVaciado.lock();
+        try {
+            int escritasAhora = 0;
+            int restantes;
+            synchronized (this) {
+                restantes = pendientes.size();
+            }
+            // Solo los pendientes al empezar: con carga continua el vaciado no sería infinito
+            while (restantes > 0) {
+                Map<Integer, Empleado> lote = tomarLote();
+                if (lote.isEmpty()) {
+                    break;
+                }
+                restantes -= lote.size();
+                try {
+                    escritasAhora += escribir(lote);
+                } finally {
+                    synchronized (this) {
+                        enVuelo.clear();
+                    }
+                    for (int id : lote.keySet()) {
+                        EmpleadoDAO.invalidarCache(id);
+                    }
+                }
+            }
+            return escritasAhora;
+        } finally {
+            bloqueoVaciado.unlock();
+        }
+    }
+
+    /**
+     * Vacía el búfer y detiene el temporizador.
+     */
+    void cerrar() {
+        temporizador.shutdown();
+        vaciar();
+    }
+
+    private void vaciarSiCaduca() {
+        boolean caducado;
+        synchronized (this) {
+            caducado = !pendientes.isEmpty() && System.nanoTime() - primeraPendienteNanos >= maxRetrasoNanos;
+        }
+        if (caducado) {
+            try {
+                vaciar();
+            } catch (RuntimeException e) {
+                System.err.println("Error en la escritura diferida de empleados: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Saca del búfer los tamanoLote cambios más antiguos y los marca como en vuelo.
+     */
+    private synchronized Map<Integer, Empleado> tomarLote() {
+        Map<Integer, Empleado> lote = new LinkedHashMap<>();
+        Iterator<Map.Entry<Integer, Empleado>> it = pendientes.entrySet().iterator();
+        while (it.hasNext() && lote.size() < tamanoLote) {
+            Map.Entry<Integer, Empleado> entrada = it.next();
+            lote.put(entrada.getKey(), entrada.getValue());
+            it.remove();
+        }
+        // primeraPendienteNanos no se cambia: los que quedan llegaron después, así que como
+        // mucho se vaciarán antes de tiempo, nunca más tarde
+        enVuelo.putAll(lote);
+        return lote;
+    }
+
+    /**
+     * Escribe un trozo en una transacción; si falla, lo reintenta fila a fila.
+     */
+    private int escribir(Map<Integer, Empleado> lote) {
+        // Los códigos se resuelven antes de pedir la conexión: codigoOCrear puede necesitar otra
+        int[] codigos = new int[lote.size()];
+        try {
+            int i = 0;
+            for (Empleado emp : lote.values()) {
+                codigos[i++] = DiccionarioDepartamentos.codigoOCrear(emp.getDepartamento());
+            }
+        } catch (SQLException e) {
+            System.err.println("Error en la escritura diferida de empleados, se reintentará: " + e.getMessage());
+            reencolar(lote.values());
+            return 0;
+        }
+
+        try (Connection con = DatabaseConfigPool.getConexion()) {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(SentenciasFrecuentes.EMPLEADO_ACTUALIZAR)) {
+                int i = 0;
+                for (Empleado emp : lote.values()) {
+                    asignarParametros(ps, emp, codigos[i++]);
+                    ps.addBatch();
+                }
+                int[] filas = ps.executeBatch();
+                con.commit();
+                lotes.increment();
+                int correctas = lote.size() - contarInexistentes(lote, filas);
+                escritas.add(correctas);
+                return correctas;
+
+            } catch (SQLException e) {
+                con.rollback();
+                con.setAutoCommit(true);
+                System.err.println("Error en el lote de escritura diferida, se reintenta fila a fila: " + e.getMessage());
+                return escribirUnaAUna(con, lote, codigos);
+
+            } finally {
+                con.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            // Sin conexión: todo vuelve al búfer para el siguiente vaciado
+            System.err.println("Error en la escritura diferida de empleados, se reintentará: " + e.getMessage());
+            reencolar(lote.values());
+            return 0;
+        }
+    }
+
+    private int escribirUnaAUna(Connection con, Map<Integer, Empleado> lote, int[] codigos) throws SQLException {
+        List<Empleado> filas = new ArrayList<>(lote.values());
+        int correctas = 0;
+        try (PreparedStatement ps = con.prepareStatement(SentenciasFrecuentes.EMPLEADO_ACTUALIZAR)) {
+            for (int i = 0; i < filas.size(); i++) {
+                Empleado emp = filas.get(i);
+                try {
+                    asignarParametros(ps, emp, codigos[i]);
+                    if (ps.executeUpdate() > 0) {
+                        correctas++;
+                    } else {
+                        registrarInexistente(emp.getId());
+                    }
+                } catch (SQLException e) {
+                    if (e.getSQLState() != null && e.getSQLState().startsWith("08")) {
+                        // Conexión perdida: esta fila y las siguientes vuelven al búfer
+                        System.err.println("Error en la escritura diferida de empleados, se reintentará: " + e.getMessage());
+                        reencolar(filas.subList(i, filas.size()));
+                        break;
+                    }
+                    descartadas.increment();
+                    System.err.println("Descartada la actualización del empleado " + emp.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+        escritas.add(correctas);
+        return correctas;
+    }
+
+    /**
+     * Actualizaciones del lote que no encontraron su fila (0 filas afectadas; con
+     * CLIENT_FOUND_ROWS una fila sin cambios cuenta como 1). SUCCESS_NO_INFO se da por escrita.
+     */
+    private int contarInexistentes(Map<Integer, Empleado> lote, int[] filas) {
+        int n = 0;
+        int i = 0;
+        for (int id : lote.keySet()) {
+            if (i < filas.length && filas[i++] == 0) {
+                registrarInexistente(id);
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private void registrarInexistente(int id) {
+        inexistentes.increment();
+        System.err.println("Descartada la actualización del empleado " + id + ": no existe");
+    }
+
+    private static void asignarParametros(PreparedStatement ps, Empleado emp, int codigoDepartamento) throws SQLException {
+        ps.setString(1, emp.getNombre());
+        ps.setInt(2, codigoDepartamento);
+        ps.setBigDecimal(3, emp.getSalario());
+        ps.setBoolean(4, emp.isActivo());
+        ps.setInt(5, emp.getId());
+    }
+
+    /**
+     * Devuelve al búfer los cambios no escritos, salvo los que ya tienen una versión más nueva.
+     */
+    private synchronized void reencolar(Collection<Empleado> filas) {
+        if (pendientes.isEmpty()) {
+            primeraPendienteNanos = System.nanoTime();
+        }
+        for (Empleado emp : filas) {
+            pendientes.putIfAbsent(emp.getId(), emp);
+        }
+    }
+
+    // ------------------- MÉTRICAS -------------------
+
+    public synchronized int getPendientes() {
+        return pendientes.size();
+    }
+
+    public long getEncoladas() {
+        return encoladas.sum();
+    }
+
+    /**
+     * Actualizaciones que sustituyeron a otra pendiente del mismo empleado (no llegaron a escribirse).
+     */
+    public long getCoalescidas() {
+        return coalescidas.sum();
+    }
+
+    public long getEscritas() {
+        return escritas.sum();
+    }
+
+    public long getLotes() {
+        return lotes.sum();
+    }
+
+    public long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    /**
+     * Actualizaciones aceptadas cuyo empleado no existía al escribirlas (0 filas afectadas).
+     */
+    public long getInexistentes() {
+        return inexistentes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EscrituraDiferidaEmpleados{" +
+                "pendientes=" + getPendientes() +
+                ", encoladas=" + getEncoladas() +
+                ", coalescidas=" + getCoalescidas() +
+                ", escritas=" + getEscritas() +
+                ", lotes=" + getLotes() +
+                ", descartadas=" + getDescartadas() +
+                ", inexistentes=" + getInexistentes() +
+                '}';
+    }
+}
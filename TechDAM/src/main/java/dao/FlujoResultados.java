@@ -0,0 +1,112 @@
+package dao;
+
+import config.DatabaseConfigPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utilidad interna para recorrer consultas grandes en streaming.
+ *
+ * Comentarios académicos:
+ * - Con setFetchSize(Integer.MIN_VALUE) sobre un ResultSet TYPE_FORWARD_ONLY y
+ *   CONCUR_READ_ONLY, el driver de MySQL lee las filas de una en una del socket
+ *   en lugar de cargar todo el resultado en memoria.
+ * - La conexión, el PreparedStatement y el ResultSet se cierran al cerrar el Stream
+ *   (onClose) o al llegar a la última fila, por lo que el Stream debe usarse
+ *   dentro de un try-with-resources.
+ * - Mientras el Stream está abierto la conexión queda ocupada: no se pueden lanzar
+ *   otras consultas sobre ella hasta terminar de leer o cerrar.
+ */
+class FlujoResultados {
+
+    private FlujoResultados() {}
+
+    static <T> Stream<T> abrir(String sql, MapeadorFila<T> mapeador) {
+        Connection con = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            con = DatabaseConfigPool.getConexionLectura();
+            ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            cerrar(rs, ps, con);
+            throw new RuntimeException("Error al abrir la consulta en streaming: " + e.getMessage(), e);
+        }
+
+        Recursos recursos = new Recursos(con, ps, rs);
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                if (recursos.cerrados) {
+                    return false;
+                }
+                try {
+                    if (!recursos.rs.next()) {
+                        recursos.cerrar();
+                        return false;
+                    }
+                    accion.accept(mapeador.mapear(recursos.rs));
+                    return true;
+                } catch (SQLException e) {
+                    recursos.cerrar();
+                    throw new RuntimeException("Error leyendo la consulta en streaming: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(recursos::cerrar);
+    }
+
+    private static void cerrar(ResultSet rs, PreparedStatement ps, Connection con) {
+        try {
+            if (rs != null) rs.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        try {
+            if (ps != null) ps.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        try {
+            if (con != null) con.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Recursos JDBC abiertos por un Stream; se cierran una sola vez.
+     */
+    private static class Recursos {
+        private final Connection con;
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private volatile boolean cerrados;
+
+        Recursos(Connection con, PreparedStatement ps, ResultSet rs) {
+            this.con = con;
+            this.ps = ps;
+            this.rs = rs;
+        }
+
+        synchronized void cerrar() {
+            if (!cerrados) {
+                cerrados = true;
+                FlujoResultados.cerrar(rs, ps, con);
+            }
+        }
+    }
+}
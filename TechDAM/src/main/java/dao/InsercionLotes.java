@@ -0,0 +1,144 @@
+package dao;
+
+import config.DatabaseConfigPool;
+import config.UnidadDeTrabajo;
+
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Utilidad interna para inserciones por lotes con JDBC batching.
+ *
+ * Comentarios académicos:
+ * - Se usa una única conexión y una única transacción para toda la lista.
+ * - Cada trozo (chunk) se envía con addBatch()/executeBatch(); con
+ *   rewriteBatchedStatements=true el driver de MySQL lo convierte en un
+ *   INSERT multi-fila (un solo viaje de red por trozo).
+ * - Si un trozo falla, se hace rollback a su savepoint y se reintenta fila a fila
+ *   para identificar exactamente qué filas fallan, sin perder las demás.
+ * - Si no se puede volver al savepoint (un interbloqueo deshace toda la transacción) se
+ *   propaga el error original, y el error crítico se anota en la UnidadDeTrabajo activa para
+ *   que su excepción conserve la causa y se pueda reintentar.
+ */
+class InsercionLotes {
+
+    /**
+     * Asigna los parámetros de un elemento al PreparedStatement.
+     */
+    @FunctionalInterface
+    interface AsignadorParametros<T> {
+        void asignar(PreparedStatement ps, T elemento) throws SQLException;
+    }
+
+    private InsercionLotes() {}
+
+    static <T> ResultadoLote insertar(String sql, List<T> elementos, int tamanoLote,
+                                      AsignadorParametros<T> asignador, String entidad) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0");
+        }
+
+        ResultadoLote resultado = new ResultadoLote(elementos.size());
+        if (elementos.isEmpty()) {
+            return resultado;
+        }
+
+        Connection con = null;
+        try {
+            con = DatabaseConfigPool.getConexion();
+            con.setAutoCommit(false);
+
+            try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int inicio = 0; inicio < elementos.size(); inicio += tamanoLote) {
+                    int fin = Math.min(inicio + tamanoLote, elementos.size());
+                    Savepoint sp = con.setSavepoint();
+
+                    try {
+                        for (int i = inicio; i < fin; i++) {
+                            asignador.asignar(ps, elementos.get(i));
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                        leerClavesGeneradas(ps, resultado, inicio, fin);
+                    } catch (SQLException e) {
+                        // El trozo completo falla en un INSERT multi-fila: volvemos al savepoint
+                        // y lo repetimos fila a fila para aislar las filas erróneas
+                        ps.clearBatch();
+                        volverAlSavepoint(con, sp, e);
+                        insertarFilaAFila(con, ps, elementos, inicio, fin, asignador, resultado);
+                    }
+                }
+            }
+
+            con.commit();
+
+        } catch (SQLException e) {
+            // Error crítico (conexión, commit...): no se ha confirmado ninguna fila
+            if (con != null) {
+                UnidadDeTrabajo.anotarCausaRollback(e);
+                try {
+                    con.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            System.out.println("Error al crear lote de " + entidad + ": " + e.getMessage());
+            resultado.registrarErrorGlobal(e.getMessage());
+
+        } finally {
+            if (con != null) {
+                try {
+                    con.setAutoCommit(true);
+                    con.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        return resultado;
+    }
+
+    private static void leerClavesGeneradas(PreparedStatement ps, ResultadoLote resultado,
+                                            int inicio, int fin) throws SQLException {
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            int posicion = inicio;
+            while (posicion < fin && rs.next()) {
+                resultado.registrarId(posicion++, rs.getInt(1));
+            }
+        }
+    }
+
+    private static <T> void insertarFilaAFila(Connection con, PreparedStatement ps, List<T> elementos,
+                                              int inicio, int fin, AsignadorParametros<T> asignador,
+                                              ResultadoLote resultado) throws SQLException {
+        for (int i = inicio; i < fin; i++) {
+            Savepoint sp = con.setSavepoint();
+            try {
+                asignador.asignar(ps, elementos.get(i));
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        resultado.registrarId(i, rs.getInt(1));
+                    }
+                }
+            } catch (SQLException e) {
+                volverAlSavepoint(con, sp, e);
+                resultado.registrarError(i, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Vuelve al savepoint tras un error; si el savepoint ya no existe (la BD deshizo toda la
+     * transacción, como en un interbloqueo) se relanza el error original.
+     */
+    static void volverAlSavepoint(Connection con, Savepoint sp, SQLException error) throws SQLException {
+        try {
+            con.rollback(sp);
+        } catch (SQLException e) {
+            error.addSuppressed(e);
+            throw error;
+        }
+    }
+}
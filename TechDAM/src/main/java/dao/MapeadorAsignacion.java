@@ -0,0 +1,26 @@
+package dao;
+
+import modelo.Asignacion;
+
+import java.time.LocalDate;
+
+/**
+ * Proyecciones de la tabla 'asignaciones'.
+ * Las columnas de cada proyección se leen por índice en el orden declarado.
+ */
+public final class MapeadorAsignacion {
+
+    /** Todas las columnas: id, empleado_id, proyecto_id, horas_asignadas, rol, fecha_asignacion. */
+    public static final Proyeccion<Asignacion> COMPLETO = new Proyeccion<>(
+            new String[]{"id", "empleado_id", "proyecto_id", "horas_asignadas", "rol", "fecha_asignacion"},
+            (rs, c) -> new Asignacion(
+                    rs.getInt(c),
+                    rs.getInt(c + 1),
+                    rs.getInt(c + 2),
+                    rs.getInt(c + 3),
+                    rs.getString(c + 4),
+                    rs.getObject(c + 5, LocalDate.class)
+            ));
+
+    private MapeadorAsignacion() {}
+}
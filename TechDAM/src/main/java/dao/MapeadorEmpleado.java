@@ -0,0 +1,40 @@
+package dao;
+
+import modelo.Empleado;
+
+/**
+ * Proyecciones de la tabla 'empleados'.
+ * Las columnas de cada proyección se leen por índice en el orden declarado.
+ */
+public final class MapeadorEmpleado {
+
+    /**
+     * Todas las columnas: id, nombre, departamento_id, salario, activo y el nombre del
+     * departamento (subconsulta por clave primaria).
+     * El nombre se toma del diccionario (instancia compartida); el de la fila solo se lee si
+     * el código aún no está en el diccionario, sin consultar la BD con el ResultSet abierto.
+     */
+    public static final Proyeccion<Empleado> COMPLETO = new Proyeccion<>(
+            new String[]{"id", "nombre", "departamento_id", "salario", "activo",
+                    // Sin alias: departamento_id es la columna de 'empleados' de la consulta exterior
+                    "(SELECT d.nombre FROM departamentos d WHERE d.id = departamento_id)"},
+            (rs, c) -> new Empleado(
+                    rs.getInt(c),
+                    rs.getString(c + 1),
+                    DiccionarioDepartamentos.nombre(rs, c + 2, c + 5),
+                    rs.getBigDecimal(c + 3),
+                    rs.getBoolean(c + 4)
+            ));
+
+    /** Solo id y nombre, para listas de selección. */
+    public static final Proyeccion<Empleado> ID_NOMBRE = new Proyeccion<>(
+            new String[]{"id", "nombre"},
+            (rs, c) -> {
+                Empleado emp = new Empleado();
+                emp.setId(rs.getInt(c));
+                emp.setNombre(rs.getString(c + 1));
+                return emp;
+            });
+
+    private MapeadorEmpleado() {}
+}
@@ -0,0 +1,15 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un ResultSet en un objeto del modelo.
+ *
+ * @param <T> Tipo de objeto resultante
+ */
+@FunctionalInterface
+public interface MapeadorFila<T> {
+
+    T mapear(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,31 @@
+package dao;
+
+import modelo.Proyecto;
+
+/**
+ * Proyecciones de la tabla 'proyectos'.
+ * Las columnas de cada proyección se leen por índice en el orden declarado.
+ */
+public final class MapeadorProyecto {
+
+    /** Todas las columnas: id, nombre, presupuesto. */
+    public static final Proyeccion<Proyecto> COMPLETO = new Proyeccion<>(
+            new String[]{"id", "nombre", "presupuesto"},
+            (rs, c) -> new Proyecto(
+                    rs.getInt(c),
+                    rs.getString(c + 1),
+                    rs.getBigDecimal(c + 2)
+            ));
+
+    /** Solo id y nombre, para listas de selección. */
+    public static final Proyeccion<Proyecto> ID_NOMBRE = new Proyeccion<>(
+            new String[]{"id", "nombre"},
+            (rs, c) -> {
+                Proyecto p = new Proyecto();
+                p.setId(rs.getInt(c));
+                p.setNombre(rs.getString(c + 1));
+                return p;
+            });
+
+    private MapeadorProyecto() {}
+}
@@ -0,0 +1,69 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Proyección de una entidad: lista explícita de columnas y su mapeo por índice.
+ *
+ * Comentarios académicos:
+ * - En lugar de SELECT * se piden solo las columnas necesarias, lo que reduce
+ *   los bytes transferidos por fila (por ejemplo, solo id y nombre para un listado).
+ * - Leer por índice (rs.getInt(1)) evita buscar la columna por nombre en cada fila.
+ * - El índice de la primera columna es configurable para poder combinar varias
+ *   proyecciones en la misma fila de una consulta con JOIN.
+ * - Una columna entre paréntesis es una expresión (subconsulta) y no se prefija con el alias.
+ *
+ * @param <T> Entidad del modelo que se construye
+ */
+public class Proyeccion<T> implements MapeadorFila<T> {
+
+    /**
+     * Construye la entidad leyendo las columnas a partir de 'primeraColumna'
+     * en el mismo orden en que se declararon.
+     */
+    @FunctionalInterface
+    public interface MapeadorColumnas<T> {
+        T mapear(ResultSet rs, int primeraColumna) throws SQLException;
+    }
+
+    private final String[] columnas;
+    private final String listaColumnas;
+    private final MapeadorColumnas<T> mapeador;
+
+    public Proyeccion(String[] columnas, MapeadorColumnas<T> mapeador) {
+        this.columnas = columnas.clone();
+        this.listaColumnas = String.join(", ", columnas);
+        this.mapeador = mapeador;
+    }
+
+    /**
+     * Columnas separadas por comas, para usar tras SELECT.
+     */
+    public String columnas() {
+        return listaColumnas;
+    }
+
+    /**
+     * Columnas prefijadas con el alias de la tabla (por ejemplo "e.id, e.nombre").
+     */
+    public String columnas(String alias) {
+        return Arrays.stream(columnas).map(c -> c.startsWith("(") ? c : alias + "." + c)
+                .collect(Collectors.joining(", "));
+    }
+
+    public int getNumeroColumnas() {
+        return columnas.length;
+    }
+
+    @Override
+    public T mapear(ResultSet rs) throws SQLException {
+        return mapeador.mapear(rs, 1);
+    }
+
+    public T mapear(ResultSet rs, int primeraColumna) throws SQLException {
+        return mapeador.mapear(rs, primeraColumna);
+    }
+}
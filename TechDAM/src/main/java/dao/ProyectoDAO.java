@@ -1,158 +1,358 @@
-package dao;
-
-import config.DatabaseConfigPool;
-import modelo.Proyecto;
-
-import java.math.BigDecimal;
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-
-/**
- * DAO de proyectos.
- *
- * Comentarios académicos:
- * - Implementa CRUD completo para la entidad Proyecto usando PreparedStatement (CE2.5).
- * - Todas las operaciones usan try-with-resources para asegurar cierre de conexiones y recursos (CE2.2).
- * - Optional se usa en obtenerPorId() para manejar la posible ausencia de datos.
- */
-public class ProyectoDAO {
-
-    /**
-     * Crear un proyecto en la BD y devolver el ID generado automáticamente.
-     *
-     * @param proyecto Objeto Proyecto con los datos a insertar
-     * @return ID generado o -1 si hubo error
-     */
-    public int crear(Proyecto proyecto) {
-        String sql = "INSERT INTO proyectos(nombre, presupuesto) VALUES (?, ?)";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            // Asignación segura de parámetros
-            ps.setString(1, proyecto.getNombre());
-            ps.setBigDecimal(2, proyecto.getPresupuesto());
-
-            // Ejecutar inserción
-            ps.executeUpdate();
-
-            // Obtener ID generado automáticamente
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) return rs.getInt(1);
-            }
-
-        } catch (SQLException e) {
-            System.out.println("Error al crear proyecto: " + e.getMessage());
-        }
-        return -1; // Indica error
-    }
-
-    /**
-     * Obtener todos los proyectos de la base de datos.
-     *
-     * @return Lista de proyectos, vacía si no hay resultados
-     */
-    public List<Proyecto> obtenerTodos() {
-        List<Proyecto> lista = new ArrayList<>();
-        String sql = "SELECT * FROM proyectos";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            // Mapear cada fila a un objeto Proyecto
-            while (rs.next()) {
-                Proyecto p = new Proyecto(
-                        rs.getInt("id"),
-                        rs.getString("nombre"),
-                        rs.getBigDecimal("presupuesto")
-                );
-                lista.add(p);
-            }
-
-        } catch (SQLException e) {
-            System.out.println("Error al listar proyectos: " + e.getMessage());
-        }
-
-        return lista;
-    }
-
-    /**
-     * Obtener un proyecto por su ID.
-     *
-     * @param id ID del proyecto
-     * @return Optional<Proyecto> vacío si no existe
-     */
-    public Optional<Proyecto> obtenerPorId(int id) {
-        String sql = "SELECT * FROM proyectos WHERE id=?";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setInt(1, id);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Proyecto p = new Proyecto(
-                            rs.getInt("id"),
-                            rs.getString("nombre"),
-                            rs.getBigDecimal("presupuesto")
-                    );
-                    return Optional.of(p);
-                }
-            }
-
-        } catch (SQLException e) {
-            System.out.println("Error buscando proyecto: " + e.getMessage());
-        }
-
-        return Optional.empty();
-    }
-
-    /**
-     * Actualizar un proyecto existente en la base de datos.
-     *
-     * @param p Objeto Proyecto con los datos actualizados
-     * @return true si la actualización fue exitosa
-     */
-    public boolean actualizar(Proyecto p) {
-        String sql = "UPDATE proyectos SET nombre=?, presupuesto=? WHERE id=?";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setString(1, p.getNombre());
-            ps.setBigDecimal(2, p.getPresupuesto());
-            ps.setInt(3, p.getId());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            System.out.println("Error al actualizar proyecto: " + e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Eliminar un proyecto por ID.
-     *
-     * @param id ID del proyecto a eliminar
-     * @return true si la eliminación fue exitosa
-     */
-    public boolean eliminar(int id) {
-        String sql = "DELETE FROM proyectos WHERE id=?";
-
-        try (Connection con = DatabaseConfigPool.getConexion();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            System.out.println("Error eliminando proyecto: " + e.getMessage());
-            return false;
-        }
-    }
-}
+package dao;
+
+import config.DatabaseConfigPool;
+import config.UnidadDeTrabajo;
+import modelo.Proyecto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * DAO de proyectos.
+ *
+ * Comentarios académicos:
+ * - Implementa CRUD completo para la entidad Proyecto usando PreparedStatement (CE2.5).
+ * - Todas las operaciones usan try-with-resources para asegurar cierre de conexiones y recursos (CE2.2).
+ * - Optional se usa en obtenerPorId() para manejar la posible ausencia de datos.
+ */
+public class ProyectoDAO {
+
+    /** Filas por executeBatch() en crearLote si no se indica otro valor. */
+    public static final int TAMANO_LOTE_POR_DEFECTO = 500;
+
+    /**
+     * Caché compartida de obtenerPorId() para todas las instancias del DAO.
+     * Tamaño y TTL configurables con -Dtechdam.cache.proyectos.tamano y -Dtechdam.cache.ttlMillis.
+     */
+    private static final CacheLRU<Integer, Proyecto> CACHE = new CacheLRU<>("proyectos",
+            Integer.getInteger("techdam.cache.proyectos.tamano", 500),
+            Long.getLong("techdam.cache.ttlMillis", 60_000L),
+            ProyectoDAO::copiar);
+
+    /**
+     * Crear un proyecto en la BD y devolver el ID generado automáticamente.
+     *
+     * @param proyecto Objeto Proyecto con los datos a insertar
+     * @return ID generado o -1 si hubo error
+     */
+    public int crear(Proyecto proyecto) {
+        String sql = SentenciasFrecuentes.PROYECTO_INSERTAR;
+
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            // Asignación segura de parámetros
+            ps.setString(1, proyecto.getNombre());
+            ps.setBigDecimal(2, proyecto.getPresupuesto());
+
+            // Ejecutar inserción
+            ps.executeUpdate();
+
+            // Obtener ID generado automáticamente
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al crear proyecto: " + e.getMessage());
+        }
+        return -1; // Indica error
+    }
+
+    /**
+     * Crear varios proyectos en una sola transacción usando JDBC batching,
+     * con el tamaño de lote por defecto.
+     *
+     * @param proyectos Proyectos a insertar
+     * @return IDs generados en el orden de entrada y errores por fila
+     */
+    public ResultadoLote crearLote(List<Proyecto> proyectos) {
+        return crearLote(proyectos, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Crear varios proyectos en una sola conexión y transacción.
+     *
+     * @param proyectos Proyectos a insertar
+     * @param tamanoLote Número de filas por executeBatch()
+     * @return IDs generados en el orden de entrada y errores por fila
+     */
+    public ResultadoLote crearLote(List<Proyecto> proyectos, int tamanoLote) {
+        String sql = SentenciasFrecuentes.PROYECTO_INSERTAR;
+
+        return InsercionLotes.insertar(sql, proyectos, tamanoLote, (ps, proyecto) -> {
+            ps.setString(1, proyecto.getNombre());
+            ps.setBigDecimal(2, proyecto.getPresupuesto());
+        }, "proyectos");
+    }
+
+    /**
+     * Sincronizar proyectos con ID conocido desde un sistema externo: inserta los que no
+     * existen, actualiza los que han cambiado y omite los que no.
+     *
+     * @param proyectos Proyectos con su ID en origen
+     * @return Insertados, actualizados, sin cambios y errores por fila
+     */
+    public ResultadoUpsert upsertLote(List<Proyecto> proyectos) {
+        return upsertLote(proyectos, TAMANO_LOTE_POR_DEFECTO, true);
+    }
+
+    /**
+     * Sincronizar proyectos con ID conocido en una sola conexión y transacción, con
+     * INSERT ... ON DUPLICATE KEY UPDATE por lotes.
+     *
+     * @param proyectos Proyectos con su ID en origen; si un ID se repite, gana la última aparición
+     * @param tamanoLote Número de filas por executeBatch()
+     * @param omitirSinCambios Si true no se escriben los proyectos cuya huella coincide con la de la BD
+     * @return Insertados, actualizados, sin cambios y errores por fila
+     */
+    public ResultadoUpsert upsertLote(List<Proyecto> proyectos, int tamanoLote, boolean omitirSinCambios) {
+        // VALUES(col) en lugar del alias de fila de MySQL 8.0.19+, que MariaDB no admite
+        String sql = "INSERT INTO proyectos(id, nombre, presupuesto) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE nombre=VALUES(nombre), presupuesto=VALUES(presupuesto)";
+
+        return SincronizacionLotes.sincronizar("proyectos", "nombre, presupuesto", sql,
+                proyectos, tamanoLote, omitirSinCambios, Proyecto::getId,
+                p -> SincronizacionLotes.unir(p.getNombre(),
+                        p.getPresupuesto().setScale(2, RoundingMode.HALF_UP).toPlainString()), // DECIMAL(10,2)
+                (ps, p) -> {
+                    ps.setInt(1, p.getId());
+                    ps.setString(2, p.getNombre());
+                    ps.setBigDecimal(3, p.getPresupuesto());
+                },
+                ProyectoDAO::invalidarCache, "proyectos");
+    }
+
+    /**
+     * Obtener todos los proyectos de la base de datos.
+     *
+     * @return Lista de proyectos, vacía si no hay resultados
+     */
+    public List<Proyecto> obtenerTodos() {
+        return obtenerTodos(MapeadorProyecto.COMPLETO);
+    }
+
+    /**
+     * Obtener todos los proyectos leyendo solo las columnas de la proyección.
+     *
+     * @param proyeccion Columnas a leer (por ejemplo MapeadorProyecto.ID_NOMBRE)
+     * @return Lista de proyectos, vacía si no hay resultados
+     */
+    public List<Proyecto> obtenerTodos(Proyeccion<Proyecto> proyeccion) {
+        List<Proyecto> lista = new ArrayList<>();
+        String sql = "SELECT " + proyeccion.columnas() + " FROM proyectos";
+
+        try (Connection con = DatabaseConfigPool.getConexionLectura();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            // Mapear cada fila a un objeto Proyecto
+            while (rs.next()) {
+                lista.add(proyeccion.mapear(rs));
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al listar proyectos: " + e.getMessage());
+        }
+
+        return lista;
+    }
+
+    /**
+     * Recorrer todos los proyectos en streaming, con memoria constante.
+     * Debe cerrarse el Stream (try-with-resources) para devolver la conexión al pool.
+     *
+     * @return Stream de proyectos leído fila a fila desde MySQL
+     */
+    public Stream<Proyecto> streamTodos() {
+        return streamTodos(MapeadorProyecto.COMPLETO);
+    }
+
+    /**
+     * Recorrer todos los proyectos en streaming leyendo solo las columnas de la proyección.
+     *
+     * @param proyeccion Columnas a leer
+     * @return Stream de proyectos leído fila a fila desde MySQL
+     */
+    public Stream<Proyecto> streamTodos(Proyeccion<Proyecto> proyeccion) {
+        String sql = "SELECT " + proyeccion.columnas() + " FROM proyectos";
+
+        return FlujoResultados.abrir(sql, proyeccion);
+    }
+
+    /**
+     * Aplicar una acción a cada proyecto sin cargar la tabla en memoria.
+     *
+     * @param accion Acción a ejecutar por cada proyecto
+     */
+    public void forEach(Consumer<Proyecto> accion) {
+        try (Stream<Proyecto> proyectos = streamTodos()) {
+            proyectos.forEach(accion);
+        }
+    }
+
+    /**
+     * Obtener una página de proyectos por keyset (seek) en lugar de OFFSET.
+     *
+     * @param despuesDeId Último ID de la página anterior (0 para la primera página)
+     * @param limite Número máximo de proyectos a devolver
+     * @return Lista de proyectos ordenada por ID, vacía si no hay más
+     */
+    public List<Proyecto> obtenerPagina(int despuesDeId, int limite) {
+        return obtenerPagina(despuesDeId, limite, MapeadorProyecto.COMPLETO);
+    }
+
+    /**
+     * Obtener una página de proyectos leyendo solo las columnas de la proyección.
+     *
+     * @param despuesDeId Último ID de la página anterior (0 para la primera página)
+     * @param limite Número máximo de proyectos a devolver
+     * @param proyeccion Columnas a leer
+     * @return Lista de proyectos ordenada por ID, vacía si no hay más
+     */
+    public List<Proyecto> obtenerPagina(int despuesDeId, int limite, Proyeccion<Proyecto> proyeccion) {
+        List<Proyecto> lista = new ArrayList<>();
+        String sql = "SELECT " + proyeccion.columnas() + " FROM proyectos WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection con = DatabaseConfigPool.getConexionLectura();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, despuesDeId);
+            ps.setInt(2, limite);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(proyeccion.mapear(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error al obtener página de proyectos: " + e.getMessage());
+        }
+
+        return lista;
+    }
+
+    /**
+     * Obtener un proyecto por su ID, pasando primero por la caché.
+     *
+     * @param id ID del proyecto
+     * @return Optional<Proyecto> vacío si no existe
+     */
+    public Optional<Proyecto> obtenerPorId(int id) {
+        if (UnidadDeTrabajo.activa()) {
+            // Dentro de una unidad de trabajo se leen los cambios aún no confirmados:
+            // no deben entrar en la caché compartida
+            return cargarPorId(id);
+        }
+        return CACHE.obtener(id, this::cargarPorId);
+    }
+
+    /**
+     * Carga desde el primario, nunca desde la réplica: lo que se lee aquí entra en la caché y,
+     * tras una invalidación, una réplica con retraso volvería a guardar la versión antigua
+     * durante todo el TTL.
+     */
+    private Optional<Proyecto> cargarPorId(int id) {
+        String sql = SentenciasFrecuentes.PROYECTO_POR_ID;
+
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(MapeadorProyecto.COMPLETO.mapear(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Error buscando proyecto: " + e.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Actualizar un proyecto existente en la base de datos.
+     *
+     * @param p Objeto Proyecto con los datos actualizados
+     * @return true si la actualización fue exitosa
+     */
+    public boolean actualizar(Proyecto p) {
+        String sql = SentenciasFrecuentes.PROYECTO_ACTUALIZAR;
+
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setString(1, p.getNombre());
+            ps.setBigDecimal(2, p.getPresupuesto());
+            ps.setInt(3, p.getId());
+
+            boolean actualizado = ps.executeUpdate() > 0;
+            invalidarCache(p.getId());
+            return actualizado;
+
+        } catch (SQLException e) {
+            System.out.println("Error al actualizar proyecto: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Eliminar un proyecto por ID.
+     *
+     * @param id ID del proyecto a eliminar
+     * @return true si la eliminación fue exitosa
+     */
+    public boolean eliminar(int id) {
+        String sql = SentenciasFrecuentes.PROYECTO_ELIMINAR;
+
+        try (Connection con = DatabaseConfigPool.getConexion();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, id);
+            boolean eliminado = ps.executeUpdate() > 0;
+            invalidarCache(id);
+            return eliminado;
+
+        } catch (SQLException e) {
+            System.out.println("Error eliminando proyecto: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Invalida la caché de un proyecto modificado fuera de este DAO
+     * (por ejemplo, en TransaccionesService.transferirPresupuesto).
+     *
+     * @param id ID del proyecto modificado
+     */
+    public static void invalidarCache(int id) {
+        CACHE.invalidar(id);
+        if (UnidadDeTrabajo.activa()) {
+            // Otro hilo puede volver a cargar el valor antiguo antes del commit
+            UnidadDeTrabajo.despuesDeConfirmar(() -> CACHE.invalidar(id));
+        }
+    }
+
+    /**
+     * Caché de obtenerPorId(), para consultar aciertos, fallos y expulsiones.
+     *
+     * @return Caché de proyectos
+     */
+    public static CacheLRU<Integer, Proyecto> getCache() {
+        return CACHE;
+    }
+
+    private static Proyecto copiar(Proyecto p) {
+        return new Proyecto(p.getId(), p.getNombre(), p.getPresupuesto());
+    }
+}
@@ -0,0 +1,85 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de una inserción por lotes (crearLote).
+ *
+ * Comentarios académicos:
+ * - Los IDs generados se guardan en el mismo orden que la lista de entrada;
+ *   una posición con -1 indica que esa fila no se pudo insertar.
+ * - Los errores se indexan por posición en la lista de entrada para poder
+ *   informar exactamente qué filas fallaron y por qué.
+ */
+public class ResultadoLote {
+
+    private final int[] ids;
+    private final Map<Integer, String> errores = new TreeMap<>();
+
+    public ResultadoLote(int tamano) {
+        this.ids = new int[tamano];
+        Arrays.fill(ids, -1);
+    }
+
+    void registrarId(int posicion, int id) {
+        ids[posicion] = id;
+    }
+
+    void registrarError(int posicion, String mensaje) {
+        ids[posicion] = -1;
+        errores.put(posicion, mensaje);
+    }
+
+    /**
+     * Marca como fallidas todas las filas (por ejemplo, si falla el commit final).
+     */
+    void registrarErrorGlobal(String mensaje) {
+        for (int i = 0; i < ids.length; i++) {
+            registrarError(i, mensaje);
+        }
+    }
+
+    /**
+     * IDs generados en el orden de la lista de entrada (-1 si la fila falló).
+     */
+    public List<Integer> getIds() {
+        List<Integer> lista = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            lista.add(id);
+        }
+        return lista;
+    }
+
+    /**
+     * Errores por posición de la lista de entrada.
+     */
+    public Map<Integer, String> getErrores() {
+        return Collections.unmodifiableMap(errores);
+    }
+
+    public int getInsertados() {
+        return ids.length - errores.size();
+    }
+
+    public int getFallidos() {
+        return errores.size();
+    }
+
+    public boolean isCompleto() {
+        return errores.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoLote{" +
+                "insertados=" + getInsertados() +
+                ", fallidos=" + getFallidos() +
+                ", errores=" + errores +
+                '}';
+    }
+}
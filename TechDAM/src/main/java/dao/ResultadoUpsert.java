@@ -0,0 +1,92 @@
+package dao;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de una sincronización por lotes (upsertLote).
+ *
+ * Comentarios académicos:
+ * - Cada fila de la entrada acaba en uno de cuatro grupos: insertada (el ID no existía),
+ *   actualizada, sin cambios (su huella coincide con la de la BD y no se ha enviado) o fallida.
+ * - Los errores se indexan por posición en la lista de entrada, igual que en ResultadoLote.
+ */
+public class ResultadoUpsert {
+
+    private final int total;
+    private int insertadas;
+    private int actualizadas;
+    private int sinCambios;
+    private final Map<Integer, String> errores = new TreeMap<>();
+
+    public ResultadoUpsert(int total) {
+        this.total = total;
+    }
+
+    void registrarInsertadas(int n) {
+        insertadas += n;
+    }
+
+    void registrarActualizadas(int n) {
+        actualizadas += n;
+    }
+
+    void registrarSinCambios(int n) {
+        sinCambios += n;
+    }
+
+    void registrarError(int posicion, String mensaje) {
+        errores.put(posicion, mensaje);
+    }
+
+    /**
+     * Marca como fallidas todas las filas (por ejemplo, si falla el commit final).
+     */
+    void registrarErrorGlobal(String mensaje) {
+        insertadas = 0;
+        actualizadas = 0;
+        sinCambios = 0;
+        for (int i = 0; i < total; i++) {
+            registrarError(i, mensaje);
+        }
+    }
+
+    public int getInsertadas() {
+        return insertadas;
+    }
+
+    public int getActualizadas() {
+        return actualizadas;
+    }
+
+    public int getSinCambios() {
+        return sinCambios;
+    }
+
+    public int getFallidas() {
+        return errores.size();
+    }
+
+    /**
+     * Errores por posición de la lista de entrada.
+     */
+    public Map<Integer, String> getErrores() {
+        return Collections.unmodifiableMap(errores);
+    }
+
+    public boolean isCompleto() {
+        return errores.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoUpsert{" +
+                "insertadas=" + insertadas +
+                ", actualizadas=" + actualizadas +
+                ", sinCambios=" + sinCambios +
+                ", fallidas=" + getFallidas() +
+                ", errores=" + errores +
+                '}';
+    }
+}
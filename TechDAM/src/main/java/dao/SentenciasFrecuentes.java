@@ -0,0 +1,44 @@
+package dao;
+
+import java.util.List;
+
+/**
+ * SQL de las operaciones más frecuentes de los DAO, en un único sitio.
+ *
+ * Comentarios académicos:
+ * - Los DAO usan estas constantes y DatabaseConfigPool.iniciarEnSegundoPlano() las prepara
+ *   al arrancar. La caché de sentencias preparadas del driver (cachePrepStmts) se indexa por
+ *   el texto SQL exacto, así que compartir la constante garantiza que el calentamiento
+ *   prepara la misma sentencia que después se ejecuta.
+ */
+public final class SentenciasFrecuentes {
+
+    static final String EMPLEADO_INSERTAR =
+            "INSERT INTO empleados(nombre, departamento_id, salario, activo) VALUES (?, ?, ?, ?)";
+    static final String EMPLEADO_POR_ID =
+            "SELECT " + MapeadorEmpleado.COMPLETO.columnas() + " FROM empleados WHERE id = ?";
+    static final String EMPLEADO_ACTUALIZAR =
+            "UPDATE empleados SET nombre=?, departamento_id=?, salario=?, activo=? WHERE id=?";
+    static final String EMPLEADO_ELIMINAR = "DELETE FROM empleados WHERE id=?";
+    // Misma cadena que genera EmpleadoDAO.obtenerPagina() sin filtros
+    static final String EMPLEADO_PAGINA =
+            "SELECT " + MapeadorEmpleado.COMPLETO.columnas() + " FROM empleados WHERE id > ? ORDER BY id LIMIT ?";
+
+    static final String PROYECTO_INSERTAR = "INSERT INTO proyectos(nombre, presupuesto) VALUES (?, ?)";
+    static final String PROYECTO_POR_ID =
+            "SELECT " + MapeadorProyecto.COMPLETO.columnas() + " FROM proyectos WHERE id=?";
+    static final String PROYECTO_ACTUALIZAR = "UPDATE proyectos SET nombre=?, presupuesto=? WHERE id=?";
+    static final String PROYECTO_ELIMINAR = "DELETE FROM proyectos WHERE id=?";
+    static final String PROYECTO_PAGINA =
+            "SELECT " + MapeadorProyecto.COMPLETO.columnas() + " FROM proyectos WHERE id > ? ORDER BY id LIMIT ?";
+
+    private SentenciasFrecuentes() {}
+
+    /**
+     * Todas las sentencias, para prepararlas por adelantado al arrancar.
+     */
+    public static List<String> todas() {
+        return List.of(EMPLEADO_INSERTAR, EMPLEADO_POR_ID, EMPLEADO_ACTUALIZAR, EMPLEADO_ELIMINAR, EMPLEADO_PAGINA,
+                PROYECTO_INSERTAR, PROYECTO_POR_ID, PROYECTO_ACTUALIZAR, PROYECTO_ELIMINAR, PROYECTO_PAGINA);
+    }
+}
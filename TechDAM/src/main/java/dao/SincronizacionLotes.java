@@ -0,0 +1,278 @@
+package dao;
+
+import config.DatabaseConfigPool;
+import config.UnidadDeTrabajo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Utilidad interna para sincronizar filas con ID conocido (upsert) por lotes.
+ *
+ * Comentarios académicos:
+ * - Sustituye el obtenerPorId() + crear()/actualizar() fila a fila por, en cada trozo, una
+ *   consulta "WHERE id IN (...)" y un INSERT ... ON DUPLICATE KEY UPDATE enviado con
+ *   executeBatch() (con rewriteBatchedStatements=true, un solo INSERT multi-fila).
+ * - La consulta devuelve la huella MD5 de cada fila existente calculada en la BD
+ *   (MD5 de CONCAT_WS('|', columnas) en utf8mb4, como el UTF-8 de Java sea cual sea el juego
+ *   de caracteres de la tabla), así que por la red viajan 32 caracteres por fila y no la
+ *   fila completa. Si coincide con la huella de la fila recibida, la fila no se envía.
+ * - Insertadas y actualizadas se cuentan con esa consulta y no con los recuentos de
+ *   executeBatch(): con el INSERT reescrito el driver no informa por fila, y con
+ *   CLIENT_FOUND_ROWS (el valor por defecto de Connector/J) una fila sin cambios cuenta
+ *   igual que una insertada.
+ * - El texto libre va el primero en la huella y las demás columnas son numéricas (sin '|'),
+ *   por lo que dos filas distintas nunca dan la misma cadena. Si la BD formatea algún valor
+ *   de otra forma la huella no coincide y la fila simplemente se vuelve a escribir.
+ * - Todo va en una transacción; si un trozo falla se vuelve a su savepoint y se repite fila a
+ *   fila, como en InsercionLotes.
+ */
+class SincronizacionLotes {
+
+    /**
+     * Campos de un elemento en el mismo orden y formato que las columnas de la huella en la BD.
+     */
+    @FunctionalInterface
+    interface ContenidoHuella<T> {
+        String contenido(T elemento) throws SQLException;
+    }
+
+    private SincronizacionLotes() {}
+
+    /**
+     * @param tabla Tabla con clave primaria 'id'
+     * @param columnasHuella Columnas que se comparan, en el orden de ContenidoHuella
+     * @param sqlUpsert INSERT ... ON DUPLICATE KEY UPDATE con el ID entre sus parámetros
+     * @param omitirSinCambios Si false no se calculan huellas y se escriben todas las filas
+     * @param alEscribir Se llama tras el commit con el ID de cada fila insertada o actualizada
+     */
+    static <T> ResultadoUpsert sincronizar(String tabla, String columnasHuella, String sqlUpsert,
+                                           List<T> elementos, int tamanoLote, boolean omitirSinCambios,
+                                           ToIntFunction<T> id, ContenidoHuella<T> huella,
+                                           InsercionLotes.AsignadorParametros<T> asignador,
+                                           IntConsumer alEscribir, String entidad) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0");
+        }
+
+        ResultadoUpsert resultado = new ResultadoUpsert(elementos.size());
+        List<Integer> posiciones = posicionesValidas(elementos, id, resultado);
+        if (posiciones.isEmpty()) {
+            return resultado;
+        }
+
+        List<Integer> escritas = new ArrayList<>();
+        Connection con = null;
+        try {
+            con = DatabaseConfigPool.getConexion();
+            con.setAutoCommit(false);
+
+            try (PreparedStatement ps = con.prepareStatement(sqlUpsert)) {
+                for (int inicio = 0; inicio < posiciones.size(); inicio += tamanoLote) {
+                    List<Integer> trozo = posiciones.subList(inicio, Math.min(inicio + tamanoLote, posiciones.size()));
+                    sincronizarTrozo(con, ps, tabla, columnasHuella, elementos, trozo, omitirSinCambios,
+                            id, huella, asignador, resultado, escritas);
+                }
+            }
+
+            con.commit();
+
+        } catch (SQLException e) {
+            // Error crítico (conexión, commit...): no se ha confirmado ninguna fila
+            if (con != null) {
+                UnidadDeTrabajo.anotarCausaRollback(e);
+                try {
+                    con.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            System.out.println("Error al sincronizar " + entidad + ": " + e.getMessage());
+            resultado.registrarErrorGlobal(e.getMessage());
+            escritas.clear();
+
+        } finally {
+            if (con != null) {
+                try {
+                    con.setAutoCommit(true);
+                    con.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        for (int posicion : escritas) {
+            alEscribir.accept(id.applyAsInt(elementos.get(posicion)));
+        }
+        return resultado;
+    }
+
+    /**
+     * Une los campos con '|', igual que CONCAT_WS('|', ...) en la BD.
+     */
+    static String unir(Object... campos) {
+        StringBuilder sb = new StringBuilder();
+        for (Object campo : campos) {
+            if (campo != null) { // CONCAT_WS se salta los NULL
+                sb.append(sb.isEmpty() ? "" : "|").append(campo);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Posiciones a sincronizar: descarta IDs no válidos y, si un ID se repite, se queda con su
+     * última aparición (la más reciente en el sistema de origen).
+     */
+    static <T> List<Integer> posicionesValidas(List<T> elementos, ToIntFunction<T> id,
+                                               ResultadoUpsert resultado) {
+        Map<Integer, Integer> ultima = new HashMap<>();
+        for (int i = 0; i < elementos.size(); i++) {
+            int clave = id.applyAsInt(elementos.get(i));
+            if (clave <= 0) {
+                resultado.registrarError(i, "Se necesita un ID mayor que 0");
+            } else {
+                ultima.put(clave, i);
+            }
+        }
+
+        List<Integer> posiciones = new ArrayList<>(ultima.size());
+        for (int i = 0; i < elementos.size(); i++) {
+            Integer posicionFinal = ultima.get(id.applyAsInt(elementos.get(i)));
+            if (posicionFinal == null) {
+                continue;
+            }
+            if (posicionFinal == i) {
+                posiciones.add(i);
+            } else {
+                resultado.registrarError(i, "ID repetido; se aplica su aparición en la posición " + posicionFinal);
+            }
+        }
+        return posiciones;
+    }
+
+    private static <T> void sincronizarTrozo(Connection con, PreparedStatement ps, String tabla, String columnasHuella,
+                                             List<T> elementos, List<Integer> trozo, boolean omitirSinCambios,
+                                             ToIntFunction<T> id, ContenidoHuella<T> huella,
+                                             InsercionLotes.AsignadorParametros<T> asignador,
+                                             ResultadoUpsert resultado, List<Integer> escritas) throws SQLException {
+        Map<Integer, String> existentes = leerExistentes(con, tabla, omitirSinCambios ? columnasHuella : null,
+                elementos, trozo, id);
+
+        List<Integer> enviar = new ArrayList<>(trozo.size());
+        Set<Integer> nuevas = new HashSet<>();
+        int sinCambios = 0;
+        for (int posicion : trozo) {
+            T elemento = elementos.get(posicion);
+            String huellaBD = existentes.get(id.applyAsInt(elemento));
+            if (huellaBD == null) {
+                nuevas.add(posicion);
+            } else if (omitirSinCambios) {
+                try {
+                    if (huellaBD.equals(md5(huella.contenido(elemento)))) {
+                        sinCambios++;
+                        continue;
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    // Departamento no válido, campos nulos...: la fila falla sin afectar al trozo
+                    resultado.registrarError(posicion, String.valueOf(e.getMessage()));
+                    continue;
+                }
+            }
+            enviar.add(posicion);
+        }
+        resultado.registrarSinCambios(sinCambios);
+        if (enviar.isEmpty()) {
+            return;
+        }
+
+        Savepoint sp = con.setSavepoint();
+        try {
+            for (int posicion : enviar) {
+                asignador.asignar(ps, elementos.get(posicion));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            resultado.registrarInsertadas(contar(enviar, nuevas, true));
+            resultado.registrarActualizadas(contar(enviar, nuevas, false));
+            escritas.addAll(enviar);
+
+        } catch (SQLException e) {
+            // Volvemos al savepoint y repetimos fila a fila para aislar las filas erróneas
+            ps.clearBatch();
+            InsercionLotes.volverAlSavepoint(con, sp, e);
+            for (int posicion : enviar) {
+                Savepoint spFila = con.setSavepoint();
+                try {
+                    asignador.asignar(ps, elementos.get(posicion));
+                    ps.executeUpdate();
+                    if (nuevas.contains(posicion)) {
+                        resultado.registrarInsertadas(1);
+                    } else {
+                        resultado.registrarActualizadas(1);
+                    }
+                    escritas.add(posicion);
+                } catch (SQLException ex) {
+                    InsercionLotes.volverAlSavepoint(con, spFila, ex);
+                    resultado.registrarError(posicion, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * IDs del trozo que ya existen, con su huella en la BD (o "" si no se piden huellas).
+     */
+    private static <T> Map<Integer, String> leerExistentes(Connection con, String tabla, String columnasHuella,
+                                                           List<T> elementos, List<Integer> trozo,
+                                                           ToIntFunction<T> id) throws SQLException {
+        String sql = "SELECT id" + (columnasHuella != null ? ", MD5(CONVERT(CONCAT_WS('|', " + columnasHuella + ") USING utf8mb4))" : "")
+                + " FROM " + tabla + " WHERE id IN (" + String.join(", ", Collections.nCopies(trozo.size(), "?")) + ")";
+
+        Map<Integer, String> existentes = new HashMap<>();
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            int i = 1;
+            for (int posicion : trozo) {
+                ps.setInt(i++, id.applyAsInt(elementos.get(posicion)));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existentes.put(rs.getInt(1), columnasHuella != null ? rs.getString(2) : "");
+                }
+            }
+        }
+        return existentes;
+    }
+
+    private static int contar(List<Integer> posiciones, Set<Integer> nuevas, boolean insertadas) {
+        int n = 0;
+        for (int posicion : posiciones) {
+            if (nuevas.contains(posicion) == insertadas) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static String md5(String texto) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            return HexFormat.of().formatHex(md.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 no disponible", e); // Obligatorio en toda JVM
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package lote;
+
+import config.DatabaseConfigPool;
+import csv.LectorCsv;
+import dao.EmpleadoDAO;
+import dao.ProyectoDAO;
+import dao.ResultadoLote;
+import modelo.Empleado;
+import modelo.Proyecto;
+import service.ProcedimientosService;
+import service.ResultadoAsignacion;
+import service.TransaccionesService;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ejecuta un fichero de órdenes (una por línea, en formato CSV) contra los DAO y servicios.
+ *
+ * Formato: el primer campo es la operación (ver TipoOrden) y el resto sus campos, por ejemplo
+ * "crear_empleado,Ana,Ventas,2100.00,true" o "transferir,1,2,500". Las líneas vacías y las
+ * que empiezan por # se ignoran.
+ *
+ * Comentarios académicos:
+ * - Las órdenes se leen en streaming y se agrupan en trozos de tamanoLote. Mientras unos
+ *   trozos se ejecutan en hilos virtuales se sigue leyendo el siguiente (pipeline); un
+ *   Semaphore con 'paralelismo' permisos limita los trozos en ejecución, de modo que la
+ *   lectura se frena si la base de datos no da abasto y la memoria no crece.
+ * - Dentro de un trozo, las órdenes consecutivas del mismo tipo se ejecutan juntas:
+ *   crear_empleado y crear_proyecto con crearLote() (executeBatch), asignar al mismo proyecto
+ *   con asignarEmpleadosEnBloque() y subir_salario con una sola transacción de
+ *   actualizarSalariosDepartamentos() en modo parcial. El resto, una a una.
+ * - Las órdenes de un trozo se ejecutan en el orden del fichero, pero trozos distintos
+ *   pueden ejecutarse a la vez. Si unas órdenes dependen de otras lejanas (crear y después
+ *   transferir al mismo proyecto), hay que usar paralelismo = 1.
+ * - Una orden no válida o que falla se cuenta en el ResumenLote y no detiene la ejecución.
+ */
+public class EjecutorLote {
+
+    /** Órdenes por trozo si no se indica otro valor. */
+    public static final int TAMANO_LOTE_POR_DEFECTO = 500;
+
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final ProyectoDAO proyectoDAO = new ProyectoDAO();
+    private final TransaccionesService transaccionesService = new TransaccionesService();
+    private final ProcedimientosService procedimientosService = new ProcedimientosService();
+
+    private final int paralelismo;
+    private final int tamanoLote;
+
+    /**
+     * Tantos trozos en paralelo como conexiones tiene el pool, de 500 órdenes cada uno.
+     */
+    public EjecutorLote() {
+        this(DatabaseConfigPool.getTamanoMaximoPool(), TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * @param paralelismo Máximo de trozos ejecutándose a la vez (1 = orden estricto del fichero)
+     * @param tamanoLote Órdenes por trozo
+     */
+    public EjecutorLote(int paralelismo, int tamanoLote) {
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor que 0");
+        }
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0");
+        }
+        this.paralelismo = paralelismo;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Lee y ejecuta todas las órdenes. Vuelve cuando han terminado todos los trozos.
+     *
+     * @param entrada Órdenes en CSV; se cierra al terminar
+     * @return Órdenes correctas y fallidas por tipo, con los primeros errores
+     * @throws IOException Si la entrada no se puede leer (las órdenes ya enviadas se completan)
+     */
+    public ResumenLote ejecutar(Reader entrada) throws IOException {
+        long inicio = System.nanoTime();
+        ResumenLote resumen = new ResumenLote();
+        Semaphore permisos = new Semaphore(paralelismo);
+
+        // close() del ExecutorService espera a que terminen los trozos enviados
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+             LectorCsv lector = new LectorCsv(entrada, ',')) {
+
+            List<Orden> trozo = new ArrayList<>(tamanoLote);
+            String[] registro;
+            while ((registro = lector.siguiente()) != null) {
+                Orden orden = interpretar(lector.getRegistros(), registro, resumen);
+                if (orden == null) {
+                    continue;
+                }
+                trozo.add(orden);
+                if (trozo.size() == tamanoLote) {
+                    enviar(trozo, hilos, permisos, resumen);
+                    trozo = new ArrayList<>(tamanoLote);
+                }
+            }
+            if (!trozo.isEmpty()) {
+                enviar(trozo, hilos, permisos, resumen);
+            }
+        }
+
+        resumen.terminar(System.nanoTime() - inicio);
+        return resumen;
+    }
+
+    /**
+     * Convierte un registro en una orden, o devuelve null si es un comentario, una línea
+     * vacía o no es válida (en ese caso se registra el fallo).
+     */
+    private static Orden interpretar(long linea, String[] registro, ResumenLote resumen) {
+        if (registro.length == 1 && registro[0].isBlank() || registro[0].trim().startsWith("#")) {
+            return null;
+        }
+
+        TipoOrden tipo = TipoOrden.deNombre(registro[0]);
+        if (tipo == null) {
+            resumen.registrarFallo(linea, null, "Operación desconocida: " + registro[0].trim());
+            return null;
+        }
+        if (registro.length - 1 != tipo.getNumeroCampos()) {
+            resumen.registrarFallo(linea, tipo, tipo.getNombre() + " espera " + tipo.getNumeroCampos()
+                    + " campos (" + tipo.getCampos() + ") y tiene " + (registro.length - 1));
+            return null;
+        }
+        return new Orden(linea, tipo, Arrays.copyOfRange(registro, 1, registro.length));
+    }
+
+    /**
+     * Espera un permiso (contrapresión) y lanza el trozo en un hilo virtual.
+     */
+    private void enviar(List<Orden> trozo, ExecutorService hilos, Semaphore permisos, ResumenLote resumen)
+            throws InterruptedIOException {
+        try {
+            permisos.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Ejecución por lotes interrumpida");
+        }
+        resumen.sumarTrozo();
+        hilos.submit(() -> {
+            try {
+                ejecutarTrozo(trozo, resumen);
+            } finally {
+                permisos.release();
+            }
+        });
+    }
+
+    private void ejecutarTrozo(List<Orden> trozo, ResumenLote resumen) {
+        int i = 0;
+        while (i < trozo.size()) {
+            int fin = finDelGrupo(trozo, i);
+            List<Orden> grupo = trozo.subList(i, fin);
+            try {
+                ejecutarGrupo(grupo, resumen);
+            } catch (RuntimeException e) {
+                // Error inesperado: se cuenta el grupo entero y se sigue con el resto del trozo
+                for (Orden orden : grupo) {
+                    resumen.registrarFallo(orden.getLinea(), orden.getTipo(), "Error inesperado: " + e);
+                }
+            }
+            i = fin;
+        }
+    }
+
+    /**
+     * Posición siguiente a la última orden que se puede ejecutar junto con la de 'inicio'.
+     */
+    private static int finDelGrupo(List<Orden> trozo, int inicio) {
+        Orden primera = trozo.get(inicio);
+        TipoOrden tipo = primera.getTipo();
+        if (tipo != TipoOrden.CREAR_EMPLEADO && tipo != TipoOrden.CREAR_PROYECTO
+                && tipo != TipoOrden.ASIGNAR && tipo != TipoOrden.SUBIR_SALARIO) {
+            return inicio + 1;
+        }
+
+        List<String> departamentos = new ArrayList<>();
+        int fin = inicio;
+        while (fin < trozo.size() && trozo.get(fin).getTipo() == tipo) {
+            Orden orden = trozo.get(fin);
+            if (tipo == TipoOrden.ASIGNAR && !orden.campo(0).equals(primera.campo(0))) {
+                break; // Otro proyecto
+            }
+            if (tipo == TipoOrden.SUBIR_SALARIO) {
+                // Un departamento repetido se aplica en la siguiente transacción, después de la primera
+                // subida. Sin distinguir mayúsculas, como el procedimiento
+                String departamento = orden.campo(0).toLowerCase(Locale.ROOT);
+                if (departamentos.contains(departamento)) {
+                    break;
+                }
+                departamentos.add(departamento);
+            }
+            fin++;
+        }
+        return fin;
+    }
+
+    private void ejecutarGrupo(List<Orden> grupo, ResumenLote resumen) {
+        switch (grupo.get(0).getTipo()) {
+            case CREAR_EMPLEADO -> crearEmpleados(grupo, resumen);
+            case CREAR_PROYECTO -> crearProyectos(grupo, resumen);
+            case ASIGNAR -> asignar(grupo, resumen);
+            case SUBIR_SALARIO -> subirSalarios(grupo, resumen);
+            default -> ejecutarUna(grupo.get(0), resumen);
+        }
+    }
+
+    // ------------------- OPERACIONES AGRUPADAS -------------------
+
+    private void crearEmpleados(List<Orden> grupo, ResumenLote resumen) {
+        List<Empleado> empleados = new ArrayList<>(grupo.size());
+        List<Orden> validas = new ArrayList<>(grupo.size());
+        for (Orden orden : grupo) {
+            try {
+                empleados.add(new Empleado(0, orden.texto(0), orden.texto(1), orden.decimal(2), orden.booleano(3)));
+                validas.add(orden);
+            } catch (RuntimeException e) {
+                resumen.registrarFallo(orden.getLinea(), orden.getTipo(), "Datos no válidos (" + e.getMessage() + ")");
+            }
+        }
+        if (!empleados.isEmpty()) {
+            registrarLote(empleadoDAO.crearLote(empleados, empleados.size()), validas, resumen);
+        }
+    }
+
+    private void crearProyectos(List<Orden> grupo, ResumenLote resumen) {
+        List<Proyecto> proyectos = new ArrayList<>(grupo.size());
+        List<Orden> validas = new ArrayList<>(grupo.size());
+        for (Orden orden : grupo) {
+            try {
+                proyectos.add(new Proyecto(0, orden.texto(0), orden.decimal(1)));
+                validas.add(orden);
+            } catch (RuntimeException e) {
+                resumen.registrarFallo(orden.getLinea(), orden.getTipo(), "Datos no válidos (" + e.getMessage() + ")");
+            }
+        }
+        if (!proyectos.isEmpty()) {
+            registrarLote(proyectoDAO.crearLote(proyectos, proyectos.size()), validas, resumen);
+        }
+    }
+
+    private static void registrarLote(ResultadoLote lote, List<Orden> ordenes, ResumenLote resumen) {
+        for (Map.Entry<Integer, String> error : lote.getErrores().entrySet()) {
+            Orden orden = ordenes.get(error.getKey());
+            resumen.registrarFallo(orden.getLinea(), orden.getTipo(), error.getValue());
+        }
+        resumen.registrarCorrectas(ordenes.get(0).getTipo(), lote.getInsertados());
+    }
+
+    /**
+     * Todas las órdenes del grupo son del mismo proyecto.
+     */
+    private void asignar(List<Orden> grupo, ResumenLote resumen) {
+        int proyectoId;
+        try {
+            proyectoId = grupo.get(0).entero(0);
+        } catch (RuntimeException e) {
+            for (Orden orden : grupo) {
+                resumen.registrarFallo(orden.getLinea(), orden.getTipo(), "Proyecto no válido (" + e.getMessage() + ")");
+            }
+            return;
+        }
+
+        List<Integer> empleadoIds = new ArrayList<>(grupo.size());
+        List<Orden> validas = new ArrayList<>(grupo.size());
+        for (Orden orden : grupo) {
+            try {
+                empleadoIds.add(orden.entero(1));
+                validas.add(orden);
+            } catch (RuntimeException e) {
+                resumen.registrarFallo(orden.getLinea(), orden.getTipo(), "Empleado no válido (" + e.getMessage() + ")");
+            }
+        }
+        if (empleadoIds.isEmpty()) {
+            return;
+        }
+
+        List<ResultadoAsignacion> resultados = transaccionesService.asignarEmpleadosEnBloque(proyectoId, empleadoIds);
+        int asignados = 0;
+        for (int i = 0; i < resultados.size(); i++) {
+            if (resultados.get(i).isAsignado()) {
+                asignados++;
+            } else {
+                resumen.registrarFallo(validas.get(i).getLinea(), TipoOrden.ASIGNAR, resultados.get(i).getMotivo());
+            }
+        }
+        resumen.registrarCorrectas(TipoOrden.ASIGNAR, asignados);
+    }
+
+    /**
+     * Todas las órdenes del grupo son de departamentos distintos.
+     */
+    private void subirSalarios(List<Orden> grupo, ResumenLote resumen) {
+        Map<String, BigDecimal> porcentajes = new LinkedHashMap<>();
+        Map<String, Orden> ordenes = new LinkedHashMap<>();
+        for (Orden orden : grupo) {
+            try {
+                porcentajes.put(orden.texto(0), orden.decimal(1));
+                ordenes.put(orden.texto(0), orden);
+            } catch (RuntimeException e) {
+                resumen.registrarFallo(orden.getLinea(), orden.getTipo(), "Datos no válidos (" + e.getMessage() + ")");
+            }
+        }
+        if (porcentajes.isEmpty()) {
+            return;
+        }
+
+        // Modo parcial: un departamento que falla no deshace los demás
+        Map<String, Integer> afectados = procedimientosService.actualizarSalariosDepartamentos(porcentajes, false);
+        int correctas = 0;
+        for (Map.Entry<String, Orden> entrada : ordenes.entrySet()) {
+            Integer empleados = afectados.get(entrada.getKey());
+            if (empleados == null) {
+                resumen.registrarFallo(entrada.getValue().getLinea(), TipoOrden.SUBIR_SALARIO,
+                        "Transacción deshecha, no se aplicó ninguna subida del grupo");
+            } else if (empleados < 0) {
+                resumen.registrarFallo(entrada.getValue().getLinea(), TipoOrden.SUBIR_SALARIO,
+                        "No se pudo actualizar el departamento " + entrada.getKey());
+            } else {
+                correctas++;
+            }
+        }
+        resumen.registrarCorrectas(TipoOrden.SUBIR_SALARIO, correctas);
+    }
+
+    // ------------------- OPERACIONES INDIVIDUALES -------------------
+
+    private void ejecutarUna(Orden orden, ResumenLote resumen) {
+        boolean aplicada;
+        try {
+            aplicada = switch (orden.getTipo()) {
+                case ACTUALIZAR_EMPLEADO -> empleadoDAO.actualizar(new Empleado(orden.entero(0), orden.texto(1),
+                        orden.texto(2), orden.decimal(3), orden.booleano(4)));
+                case ELIMINAR_EMPLEADO -> empleadoDAO.eliminar(orden.entero(0));
+                case ACTUALIZAR_PROYECTO -> proyectoDAO.actualizar(new Proyecto(orden.entero(0), orden.texto(1),
+                        orden.decimal(2)));
+                case ELIMINAR_PROYECTO -> proyectoDAO.eliminar(orden.entero(0));
+                case TRANSFERIR -> transaccionesService.transferirPresupuesto(orden.entero(0), orden.entero(1),
+                        orden.decimal(2));
+                default -> throw new IllegalStateException("Operación agrupada: " + orden.getTipo());
+            };
+        } catch (IllegalArgumentException e) { // Incluye NumberFormatException
+            resumen.registrarFallo(orden.getLinea(), orden.getTipo(), "Datos no válidos (" + e.getMessage() + ")");
+            return;
+        }
+
+        if (aplicada) {
+            resumen.registrarCorrectas(orden.getTipo(), 1);
+        } else {
+            resumen.registrarFallo(orden.getLinea(), orden.getTipo(),
+                    "No se aplicó (no existe, no cumple las reglas o error de base de datos; ver --verbose)");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package lote;
+
+import config.DatabaseConfigPool;
+import dao.EmpleadoDAO;
+import dao.EscrituraDiferidaEmpleados;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Modo no interactivo: ejecuta un fichero de órdenes (o la entrada estándar) sin menú.
+ *
+ * Uso: --lote [fichero|-] [--paralelismo N] [--tamano-lote N] [--verbose]
+ *
+ * Por defecto se silencian los mensajes por fila de los DAO y servicios y solo se
+ * imprime el resumen final (órdenes/s, correctas y fallidas por tipo y los primeros
+ * errores). Con --verbose se muestran también los mensajes por fila.
+ *
+ * Código de salida: 0 si todas las órdenes se aplicaron, 1 si alguna falló o la entrada
+ * no se pudo leer y 2 si los argumentos no son válidos.
+ *
+ * Con la escritura diferida de EmpleadoDAO activa, actualizar_empleado cuenta como correcta
+ * al aceptarse; las que al escribirse no encontraron el empleado o no se pudieron escribir
+ * se informan después del resumen y también dan código de salida 1.
+ */
+public final class ModoLote {
+
+    /** Argumento que activa este modo. */
+    public static final String ARGUMENTO = "--lote";
+
+    // Errores que se muestran en el resumen sin --verbose
+    private static final int ERRORES_EN_RESUMEN = 20;
+
+    private static final String USO = "Uso: --lote [fichero|-] [--paralelismo N] [--tamano-lote N] [--verbose]";
+
+    private ModoLote() {
+    }
+
+    /**
+     * @param args Argumentos de Main, empezando por --lote
+     * @return Código de salida del proceso
+     */
+    public static int ejecutar(String[] args) {
+        String fichero = "-";
+        int paralelismo = 0;
+        int tamanoLote = EjecutorLote.TAMANO_LOTE_POR_DEFECTO;
+        boolean verbose = false;
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--paralelismo" -> paralelismo = Integer.parseInt(args[++i]);
+                    case "--tamano-lote" -> tamanoLote = Integer.parseInt(args[++i]);
+                    case "--verbose" -> verbose = true;
+                    default -> {
+                        if (args[i].startsWith("--") || i != 1) {
+                            throw new IllegalArgumentException("Argumento no reconocido: " + args[i]);
+                        }
+                        fichero = args[i];
+                    }
+                }
+            }
+            if (paralelismo == 0) {
+                paralelismo = DatabaseConfigPool.getTamanoMaximoPool();
+            }
+            EjecutorLote ejecutor = new EjecutorLote(paralelismo, tamanoLote);
+            return ejecutar(ejecutor, fichero, verbose);
+
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Falta el valor del último argumento" : e.getMessage());
+            System.err.println(USO);
+            return 2;
+
+        } catch (IllegalStateException e) { // Configuración de la base de datos no válida
+            System.err.println(e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int ejecutar(EjecutorLote ejecutor, String fichero, boolean verbose) {
+        PrintStream salida = System.out;
+        PrintStream errores = System.err;
+        EscrituraDiferidaEmpleados diferida = EmpleadoDAO.getEscrituraDiferida();
+        ResumenLote resumen;
+
+        try (Reader entrada = fichero.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(fichero), StandardCharsets.UTF_8)) {
+
+            if (!verbose) {
+                PrintStream nulo = new PrintStream(OutputStream.nullOutputStream());
+                System.setOut(nulo);
+                System.setErr(nulo);
+            }
+            resumen = ejecutor.ejecutar(entrada);
+
+        } catch (IOException e) {
+            errores.println("Error leyendo las órdenes de " + (fichero.equals("-") ? "la entrada estándar" : fichero)
+                    + ": " + (e instanceof NoSuchFileException ? "no existe" : e.getMessage()));
+            return 1;
+
+        } finally {
+            DatabaseConfigPool.cerrarPool(); // También vacía la escritura diferida
+            System.setOut(salida);
+            System.setErr(errores);
+        }
+
+        salida.print(resumen);
+        List<String> mensajes = resumen.getMensajesError();
+        int mostrados = verbose ? mensajes.size() : Math.min(mensajes.size(), ERRORES_EN_RESUMEN);
+        for (int i = 0; i < mostrados; i++) {
+            errores.println("  " + mensajes.get(i));
+        }
+        if (resumen.getFallidas() > mostrados) {
+            errores.println("  ... y " + (resumen.getFallidas() - mostrados) + " errores más");
+        }
+        long noEscritas = diferida != null ? diferida.getInexistentes() + diferida.getDescartadas() : 0;
+        if (noEscritas > 0) {
+            errores.println("  Escritura diferida: " + diferida.getInexistentes() + " actualizaciones de empleados "
+                    + "inexistentes y " + diferida.getDescartadas() + " descartadas por error");
+        }
+        return resumen.getFallidas() == 0 && noEscritas == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,61 @@
+package lote;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Una línea del fichero de órdenes: la operación y sus campos, sin convertir.
+ * Los campos se convierten al ejecutar, de modo que un dato no válido solo hace
+ * fallar su propia orden.
+ */
+final class Orden {
+
+    private final long linea;
+    private final TipoOrden tipo;
+    private final String[] campos;
+
+    Orden(long linea, TipoOrden tipo, String[] campos) {
+        this.linea = linea;
+        this.tipo = tipo;
+        this.campos = campos;
+    }
+
+    long getLinea() {
+        return linea;
+    }
+
+    TipoOrden getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Campo sin espacios alrededor, tal cual (puede estar vacío).
+     */
+    String campo(int i) {
+        return campos[i].trim();
+    }
+
+    String texto(int i) {
+        String valor = campo(i);
+        if (valor.isEmpty()) {
+            throw new IllegalArgumentException("campo " + (i + 1) + " vacío");
+        }
+        return valor;
+    }
+
+    int entero(int i) {
+        return Integer.parseInt(texto(i));
+    }
+
+    BigDecimal decimal(int i) {
+        return new BigDecimal(texto(i));
+    }
+
+    boolean booleano(int i) {
+        return switch (texto(i).toLowerCase(Locale.ROOT)) {
+            case "true", "1", "si", "sí" -> true;
+            case "false", "0", "no" -> false;
+            default -> throw new IllegalArgumentException("valor booleano no válido: " + campos[i]);
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package lote;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumen de una ejecución por lotes: órdenes correctas y fallidas por tipo,
+ * velocidad (órdenes/s) y los mensajes de los primeros errores.
+ * Lo actualizan a la vez los hilos que ejecutan los trozos, por eso los métodos
+ * de registro son synchronized y los errores se guardan ordenados por línea.
+ */
+public class ResumenLote {
+
+    // Como máximo se guardan los mensajes de los primeros errores
+    private static final int MAX_MENSAJES_ERROR = 1000;
+
+    private final Map<TipoOrden, long[]> porTipo = new EnumMap<>(TipoOrden.class);
+    private final TreeMap<Long, String> mensajesError = new TreeMap<>();
+    private long correctas;
+    private long fallidas;
+    private long trozos;
+    private long nanos;
+
+    synchronized void registrarCorrectas(TipoOrden tipo, long n) {
+        porTipo.computeIfAbsent(tipo, t -> new long[2])[0] += n;
+        correctas += n;
+    }
+
+    synchronized void registrarFallo(long linea, TipoOrden tipo, String mensaje) {
+        if (tipo != null) {
+            porTipo.computeIfAbsent(tipo, t -> new long[2])[1]++;
+        }
+        fallidas++;
+        mensajesError.put(linea, mensaje);
+        if (mensajesError.size() > MAX_MENSAJES_ERROR) {
+            mensajesError.pollLastEntry(); // Se conservan las primeras líneas del fichero
+        }
+    }
+
+    synchronized void sumarTrozo() {
+        trozos++;
+    }
+
+    synchronized void terminar(long nanos) {
+        this.nanos = nanos;
+    }
+
+    public synchronized long getCorrectas() {
+        return correctas;
+    }
+
+    public synchronized long getFallidas() {
+        return fallidas;
+    }
+
+    public synchronized long getTrozos() {
+        return trozos;
+    }
+
+    /**
+     * Mensajes de los primeros errores, ordenados por línea del fichero.
+     */
+    public synchronized List<String> getMensajesError() {
+        List<String> mensajes = new ArrayList<>(mensajesError.size());
+        mensajesError.forEach((linea, mensaje) -> mensajes.add("Línea " + linea + ": " + mensaje));
+        return mensajes;
+    }
+
+    public synchronized double getSegundos() {
+        return nanos / 1_000_000_000.0;
+    }
+
+    public synchronized double getOrdenesPorSegundo() {
+        return nanos == 0 ? 0 : (correctas + fallidas) / getSegundos();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Órdenes: %d correctas, %d fallidas, %d trozos en %.2f s (%.0f órdenes/s)%n",
+                correctas, fallidas, trozos, getSegundos(), getOrdenesPorSegundo()));
+        for (Map.Entry<TipoOrden, long[]> entrada : porTipo.entrySet()) {
+            sb.append(String.format(Locale.ROOT, "  %-20s %10d correctas %8d fallidas%n",
+                    entrada.getKey().getNombre(), entrada.getValue()[0], entrada.getValue()[1]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package lote;
+
+import java.util.Locale;
+
+/**
+ * Operaciones que admite el modo por lotes, con el nombre que se usa en el fichero
+ * y los campos que esperan (sin contar el nombre de la operación).
+ */
+public enum TipoOrden {
+
+    CREAR_EMPLEADO("crear_empleado", "nombre,departamento,salario,activo"),
+    ACTUALIZAR_EMPLEADO("actualizar_empleado", "id,nombre,departamento,salario,activo"),
+    ELIMINAR_EMPLEADO("eliminar_empleado", "id"),
+    CREAR_PROYECTO("crear_proyecto", "nombre,presupuesto"),
+    ACTUALIZAR_PROYECTO("actualizar_proyecto", "id,nombre,presupuesto"),
+    ELIMINAR_PROYECTO("eliminar_proyecto", "id"),
+    TRANSFERIR("transferir", "origen,destino,monto"),
+    ASIGNAR("asignar", "proyecto,empleado"),
+    SUBIR_SALARIO("subir_salario", "departamento,porcentaje");
+
+    private final String nombre;
+    private final String campos;
+
+    TipoOrden(String nombre, String campos) {
+        this.nombre = nombre;
+        this.campos = campos;
+    }
+
+    /**
+     * Tipo con ese nombre (sin distinguir mayúsculas), o null si no existe.
+     */
+    public static TipoOrden deNombre(String nombre) {
+        String buscado = nombre.trim().toLowerCase(Locale.ROOT);
+        for (TipoOrden tipo : values()) {
+            if (tipo.nombre.equals(buscado)) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Campos esperados, separados por comas (para los mensajes de uso y de error).
+     */
+    public String getCampos() {
+        return campos;
+    }
+
+    public int getNumeroCampos() {
+        return campos.split(",").length;
+    }
+}
@@ -1,71 +1,119 @@
-package modelo;
-
-import java.time.LocalDate;
-
-/**
- * Clase de dominio que corresponde a la tabla 'asignaciones'.
- * Explicación del tipo LocalDate:
- * - Es el tipo moderno recomendado para fechas en Java (no usa java.sql.Date).
- * - Evita problemas de zona horaria y formato.
- */
-public class Asignacion {
-
-    private int id;
-    private int idEmpleado;
-    private int idProyecto;
-    private LocalDate fechaAsignacion;
-
-    // Constructor vacío
-    public Asignacion() {}
-
-    // Constructor completo
-    public Asignacion(int id, int idEmpleado, int idProyecto, LocalDate fechaAsignacion) {
-        this.id = id;
-        this.idEmpleado = idEmpleado;
-        this.idProyecto = idProyecto;
-        this.fechaAsignacion = fechaAsignacion;
-    }
-
-    // Getters y setters
-    public int getId() {
-        return id;
-    }
-
-    public void setId(int id) {
-        this.id = id;
-    }
-
-    public int getIdEmpleado() {
-        return idEmpleado;
-    }
-
-    public void setIdEmpleado(int idEmpleado) {
-        this.idEmpleado = idEmpleado;
-    }
-
-    public int getIdProyecto() {
-        return idProyecto;
-    }
-
-    public void setIdProyecto(int idProyecto) {
-        this.idProyecto = idProyecto;
-    }
-
-    public LocalDate getFechaAsignacion() {
-        return fechaAsignacion;
-    }
-
-    public void setFechaAsignacion(LocalDate fechaAsignacion) {
-        this.fechaAsignacion = fechaAsignacion;
-    }
-
-    @Override
-    public String toString() {
-        return "Asignacion{" +
-                "id=" + id +
-                ", idEmpleado=" + idEmpleado +
-                ", idProyecto=" + idProyecto +
-                ", fechaAsignacion=" + fechaAsignacion +
-                '}';
-    }
-}
+package modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Clase de dominio que corresponde a la tabla 'asignaciones'.
+ * Explicación del tipo LocalDate:
+ * - Es el tipo moderno recomendado para fechas en Java (no usa java.sql.Date).
+ * - Evita problemas de zona horaria y formato.
+ */
+public class Asignacion {
+
+    private int id;
+    private int idEmpleado;
+    private int idProyecto;
+    private LocalDate fechaAsignacion;
+    private int horasAsignadas;
+    private String rol;
+
+    // Entidades relacionadas (solo se rellenan en las consultas con JOIN de AsignacionDAO)
+    private Empleado empleado;
+    private Proyecto proyecto;
+
+    // Constructor vacío
+    public Asignacion() {}
+
+    // Constructor completo
+    public Asignacion(int id, int idEmpleado, int idProyecto, LocalDate fechaAsignacion) {
+        this.id = id;
+        this.idEmpleado = idEmpleado;
+        this.idProyecto = idProyecto;
+        this.fechaAsignacion = fechaAsignacion;
+    }
+
+    // Constructor con todas las columnas de la tabla
+    public Asignacion(int id, int idEmpleado, int idProyecto, int horasAsignadas, String rol, LocalDate fechaAsignacion) {
+        this(id, idEmpleado, idProyecto, fechaAsignacion);
+        this.horasAsignadas = horasAsignadas;
+        this.rol = rol;
+    }
+
+    // Getters y setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getIdEmpleado() {
+        return idEmpleado;
+    }
+
+    public void setIdEmpleado(int idEmpleado) {
+        this.idEmpleado = idEmpleado;
+    }
+
+    public int getIdProyecto() {
+        return idProyecto;
+    }
+
+    public void setIdProyecto(int idProyecto) {
+        this.idProyecto = idProyecto;
+    }
+
+    public LocalDate getFechaAsignacion() {
+        return fechaAsignacion;
+    }
+
+    public void setFechaAsignacion(LocalDate fechaAsignacion) {
+        this.fechaAsignacion = fechaAsignacion;
+    }
+
+    public int getHorasAsignadas() {
+        return horasAsignadas;
+    }
+
+    public void setHorasAsignadas(int horasAsignadas) {
+        this.horasAsignadas = horasAsignadas;
+    }
+
+    public String getRol() {
+        return rol;
+    }
+
+    public void setRol(String rol) {
+        this.rol = rol;
+    }
+
+    public Empleado getEmpleado() {
+        return empleado;
+    }
+
+    public void setEmpleado(Empleado empleado) {
+        this.empleado = empleado;
+    }
+
+    public Proyecto getProyecto() {
+        return proyecto;
+    }
+
+    public void setProyecto(Proyecto proyecto) {
+        this.proyecto = proyecto;
+    }
+
+    @Override
+    public String toString() {
+        return "Asignacion{" +
+                "id=" + id +
+                ", idEmpleado=" + idEmpleado +
+                ", idProyecto=" + idProyecto +
+                ", horasAsignadas=" + horasAsignadas +
+                ", rol='" + rol + '\'' +
+                ", fechaAsignacion=" + fechaAsignacion +
+                (empleado != null ? ", empleado=" + empleado : "") +
+                '}';
+    }
+}
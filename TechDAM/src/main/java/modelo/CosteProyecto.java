@@ -0,0 +1,24 @@
+package modelo;
+
+import java.math.BigDecimal;
+
+/**
+ * Presupuesto de un proyecto frente al coste de sus asignaciones.
+ *
+ * @param proyectoId ID del proyecto
+ * @param nombre Nombre del proyecto
+ * @param presupuesto Presupuesto del proyecto
+ * @param asignaciones Número de asignaciones
+ * @param horasAsignadas Suma de horas asignadas
+ * @param costeAsignado Suma de horas_asignadas × salario de cada asignación
+ */
+public record CosteProyecto(int proyectoId, String nombre, BigDecimal presupuesto, int asignaciones,
+                            long horasAsignadas, BigDecimal costeAsignado) {
+
+    /**
+     * Presupuesto que queda tras descontar el coste asignado (negativo si se supera).
+     */
+    public BigDecimal disponible() {
+        return presupuesto.subtract(costeAsignado);
+    }
+}
@@ -0,0 +1,19 @@
+package modelo;
+
+import java.math.BigDecimal;
+
+/**
+ * Estadísticas de salario de un departamento, calculadas en SQL con GROUP BY.
+ *
+ * @param departamento Nombre del departamento
+ * @param empleados Número total de empleados
+ * @param activos Empleados activos
+ * @param salarioTotal Suma de salarios
+ * @param salarioMedio Salario medio (2 decimales)
+ * @param salarioMinimo Salario mínimo
+ * @param salarioMaximo Salario máximo
+ */
+public record EstadisticaDepartamento(String departamento, int empleados, int activos,
+                                      BigDecimal salarioTotal, BigDecimal salarioMedio,
+                                      BigDecimal salarioMinimo, BigDecimal salarioMaximo) {
+}
@@ -0,0 +1,18 @@
+package modelo;
+
+import java.math.BigDecimal;
+
+/**
+ * Reparto de empleados activos e inactivos y de su masa salarial.
+ *
+ * @param activos Número de empleados activos
+ * @param inactivos Número de empleados inactivos
+ * @param salarioActivos Suma de salarios de los activos
+ * @param salarioInactivos Suma de salarios de los inactivos
+ */
+public record ResumenActividad(int activos, int inactivos, BigDecimal salarioActivos, BigDecimal salarioInactivos) {
+
+    public int total() {
+        return activos + inactivos;
+    }
+}
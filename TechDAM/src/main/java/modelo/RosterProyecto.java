@@ -0,0 +1,49 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plantilla completa de un proyecto: el proyecto y sus asignaciones,
+ * cada una con su Empleado ya cargado (se obtiene con un único JOIN).
+ */
+public class RosterProyecto {
+
+    private final Proyecto proyecto;
+    private final List<Asignacion> asignaciones = new ArrayList<>();
+
+    public RosterProyecto(Proyecto proyecto) {
+        this.proyecto = proyecto;
+    }
+
+    public Proyecto getProyecto() {
+        return proyecto;
+    }
+
+    public List<Asignacion> getAsignaciones() {
+        return asignaciones;
+    }
+
+    /**
+     * Empleados asignados al proyecto, en el orden de las asignaciones.
+     */
+    public List<Empleado> getEmpleados() {
+        List<Empleado> empleados = new ArrayList<>(asignaciones.size());
+        for (Asignacion a : asignaciones) {
+            empleados.add(a.getEmpleado());
+        }
+        return empleados;
+    }
+
+    public void agregarAsignacion(Asignacion asignacion) {
+        asignaciones.add(asignacion);
+    }
+
+    @Override
+    public String toString() {
+        return "RosterProyecto{" +
+                "proyecto=" + proyecto +
+                ", asignaciones=" + asignaciones +
+                '}';
+    }
+}
@@ -0,0 +1,205 @@
+package service;
+
+import config.DatabaseConfigPool;
+import dao.CacheLRU;
+import dao.DiccionarioDepartamentos;
+import modelo.CosteProyecto;
+import modelo.EstadisticaDepartamento;
+import modelo.ResumenActividad;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Servicio de estadísticas agregadas de empleados y proyectos.
+ *
+ * Comentarios académicos:
+ * - Los totales se calculan en la base de datos con GROUP BY (COUNT, SUM, AVG, MIN, MAX):
+ *   solo viaja una fila por grupo en lugar de cargar todos los empleados y sumar
+ *   BigDecimal en Java.
+ * - El coste de cada proyecto (horas_asignadas × salario) se agrega primero por proyecto
+ *   en una subconsulta y después se une con LEFT JOIN, para incluir los proyectos sin
+ *   asignaciones sin multiplicar filas.
+ * - Las consultas van a la réplica de lectura si está configurada (getConexionLectura).
+ * - Los resultados se pueden cachear con un TTL corto (-Dtechdam.estadisticas.ttlMillis,
+ *   5 s por defecto): un panel que consulta cada pocos segundos no repite el recorrido
+ *   completo de las tablas. Los registros son inmutables, por lo que no hace falta copiarlos.
+ */
+public class EstadisticasService {
+
+    private static final String CLAVE = "todo";
+
+    private static final long TTL_MILLIS = Long.getLong("techdam.estadisticas.ttlMillis", 5_000L);
+
+    private static final CacheLRU<String, List<EstadisticaDepartamento>> CACHE_DEPARTAMENTOS =
+            new CacheLRU<>("estadisticas.departamentos", 1, TTL_MILLIS, UnaryOperator.identity());
+    private static final CacheLRU<String, List<CosteProyecto>> CACHE_PROYECTOS =
+            new CacheLRU<>("estadisticas.proyectos", 1, TTL_MILLIS, UnaryOperator.identity());
+    private static final CacheLRU<String, ResumenActividad> CACHE_ACTIVIDAD =
+            new CacheLRU<>("estadisticas.actividad", 1, TTL_MILLIS, UnaryOperator.identity());
+
+    private final boolean usarCache;
+
+    /**
+     * Servicio con caché de resultados.
+     */
+    public EstadisticasService() {
+        this(true);
+    }
+
+    /**
+     * @param usarCache false para consultar siempre la base de datos
+     */
+    public EstadisticasService(boolean usarCache) {
+        this.usarCache = usarCache;
+    }
+
+    /**
+     * Número de empleados y salario total, medio, mínimo y máximo por departamento.
+     *
+     * @return Lista ordenada por nombre de departamento, vacía si hubo error
+     */
+    public List<EstadisticaDepartamento> estadisticasPorDepartamento() {
+        return usarCache
+                ? CACHE_DEPARTAMENTOS.obtener(CLAVE, c -> consultarDepartamentos()).orElse(List.of())
+                : consultarDepartamentos().orElse(List.of());
+    }
+
+    /**
+     * Presupuesto de cada proyecto frente al coste de sus asignaciones.
+     *
+     * @return Lista ordenada por ID de proyecto, vacía si hubo error
+     */
+    public List<CosteProyecto> costesPorProyecto() {
+        return usarCache
+                ? CACHE_PROYECTOS.obtener(CLAVE, c -> consultarProyectos()).orElse(List.of())
+                : consultarProyectos().orElse(List.of());
+    }
+
+    /**
+     * Empleados activos e inactivos y la suma de sus salarios.
+     *
+     * @return Resumen, u Optional.empty() si hubo error
+     */
+    public Optional<ResumenActividad> resumenActividad() {
+        return usarCache
+                ? CACHE_ACTIVIDAD.obtener(CLAVE, c -> consultarActividad())
+                : consultarActividad();
+    }
+
+    /**
+     * Descarta los resultados cacheados (por ejemplo, tras una importación masiva).
+     */
+    public static void limpiarCache() {
+        CACHE_DEPARTAMENTOS.limpiar();
+        CACHE_PROYECTOS.limpiar();
+        CACHE_ACTIVIDAD.limpiar();
+    }
+
+    // ------------------- CONSULTAS -------------------
+
+    private Optional<List<EstadisticaDepartamento>> consultarDepartamentos() {
+        String sql = "SELECT departamento_id, COUNT(*), SUM(activo), SUM(salario), " +
+                "ROUND(AVG(salario), 2), MIN(salario), MAX(salario) " +
+                "FROM empleados GROUP BY departamento_id";
+
+        // Por código de departamento; el nombre se pone con la conexión ya devuelta, porque el
+        // diccionario puede necesitar otra
+        Map<Integer, EstadisticaDepartamento> filas = new LinkedHashMap<>();
+        try (Connection con = DatabaseConfigPool.getConexionLectura();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                filas.put(rs.getInt(1), new EstadisticaDepartamento(null,
+                        rs.getInt(2), rs.getInt(3),
+                        rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getBigDecimal(7)));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error calculando estadísticas por departamento: " + e.getMessage());
+            return Optional.empty();
+        }
+
+        try {
+            List<EstadisticaDepartamento> lista = new ArrayList<>(filas.size());
+            for (Map.Entry<Integer, EstadisticaDepartamento> fila : filas.entrySet()) {
+                String departamento = DiccionarioDepartamentos.nombre(fila.getKey());
+                EstadisticaDepartamento e = fila.getValue();
+                lista.add(new EstadisticaDepartamento(departamento != null ? departamento : "#" + fila.getKey(),
+                        e.empleados(), e.activos(), e.salarioTotal(), e.salarioMedio(), e.salarioMinimo(), e.salarioMaximo()));
+            }
+            // Se ordena en Java: el GROUP BY usa el índice por departamento_id, no por nombre
+            lista.sort((a, b) -> a.departamento().compareTo(b.departamento()));
+            return Optional.of(List.copyOf(lista));
+
+        } catch (SQLException e) {
+            System.err.println("Error calculando estadísticas por departamento: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<List<CosteProyecto>> consultarProyectos() {
+        String sql = "SELECT p.id, p.nombre, p.presupuesto, " +
+                "COALESCE(c.asignaciones, 0), COALESCE(c.horas, 0), COALESCE(c.coste, 0) " +
+                "FROM proyectos p LEFT JOIN (" +
+                "SELECT a.proyecto_id, COUNT(*) AS asignaciones, SUM(a.horas_asignadas) AS horas, " +
+                "SUM(a.horas_asignadas * e.salario) AS coste " +
+                "FROM asignaciones a JOIN empleados e ON e.id = a.empleado_id " +
+                "GROUP BY a.proyecto_id) c ON c.proyecto_id = p.id " +
+                "ORDER BY p.id";
+
+        try (Connection con = DatabaseConfigPool.getConexionLectura();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            List<CosteProyecto> lista = new ArrayList<>();
+            while (rs.next()) {
+                lista.add(new CosteProyecto(rs.getInt(1), rs.getString(2), rs.getBigDecimal(3),
+                        rs.getInt(4), rs.getLong(5), rs.getBigDecimal(6)));
+            }
+            return Optional.of(List.copyOf(lista));
+
+        } catch (SQLException e) {
+            System.err.println("Error calculando costes por proyecto: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<ResumenActividad> consultarActividad() {
+        String sql = "SELECT activo, COUNT(*), SUM(salario) FROM empleados GROUP BY activo";
+
+        try (Connection con = DatabaseConfigPool.getConexionLectura();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            int activos = 0;
+            int inactivos = 0;
+            BigDecimal salarioActivos = BigDecimal.ZERO;
+            BigDecimal salarioInactivos = BigDecimal.ZERO;
+            while (rs.next()) {
+                if (rs.getBoolean(1)) {
+                    activos = rs.getInt(2);
+                    salarioActivos = rs.getBigDecimal(3);
+                } else {
+                    inactivos += rs.getInt(2); // activo NULL cuenta como inactivo
+                    salarioInactivos = salarioInactivos.add(rs.getBigDecimal(3));
+                }
+            }
+            return Optional.of(new ResumenActividad(activos, inactivos, salarioActivos, salarioInactivos));
+
+        } catch (SQLException e) {
+            System.err.println("Error calculando resumen de actividad: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package service;
+
+import config.UnidadDeTrabajo;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Política de reintentos para operaciones transaccionales.
+ *
+ * Comentarios académicos:
+ * - Los interbloqueos (1213), los timeouts de espera de bloqueo (1205) y la pérdida de
+ *   conexión (SQLState 08xxx) son situaciones normales con concurrencia: InnoDB deshace
+ *   la transacción y basta con repetirla entera.
+ * - Entre intentos se espera un tiempo exponencial (base, 2·base, 4·base... hasta un máximo)
+ *   con jitter completo (aleatorio entre 0 y ese valor), para que los hilos que chocaron
+ *   no vuelvan a chocar a la vez.
+ * - Hay un presupuesto de tiempo total: si la siguiente espera lo supera, se devuelve el error.
+ * - La pérdida de conexión solo se reintenta antes del commit. Si se pierde con el commit ya
+ *   enviado (UnidadDeTrabajo.confirmar() lo señala con SQLState 08007) el resultado es
+ *   desconocido y repetir la operación podría aplicarla dos veces: se devuelve el error.
+ * - Dentro de una UnidadDeTrabajo no se reintenta: la transacción es de la unidad y
+ *   el reintento debe envolver la unidad completa.
+ * - Los contadores (LongAdder) permiten consultar cuántos reintentos se hacen.
+ */
+public class PoliticaReintentos {
+
+    /**
+     * Intento de una operación; debe poder repetirse desde el principio.
+     */
+    @FunctionalInterface
+    public interface Intento<T> {
+        T ejecutar() throws SQLException;
+    }
+
+    /** Código MySQL de interbloqueo (Deadlock found when trying to get lock). */
+    public static final int ERROR_INTERBLOQUEO = 1213;
+    /** Código MySQL de timeout esperando un bloqueo (Lock wait timeout exceeded). */
+    public static final int ERROR_TIMEOUT_BLOQUEO = 1205;
+
+    /**
+     * Política compartida por los servicios. Configurable con -Dtechdam.reintentos.max,
+     * -Dtechdam.reintentos.baseMillis, -Dtechdam.reintentos.maxMillis y
+     * -Dtechdam.reintentos.presupuestoMillis.
+     */
+    public static final PoliticaReintentos POR_DEFECTO = new PoliticaReintentos(
+            Integer.getInteger("techdam.reintentos.max", 5),
+            Duration.ofMillis(Long.getLong("techdam.reintentos.baseMillis", 20L)),
+            Duration.ofMillis(Long.getLong("techdam.reintentos.maxMillis", 1000L)),
+            Duration.ofMillis(Long.getLong("techdam.reintentos.presupuestoMillis", 5000L)));
+
+    private final int maxReintentos;
+    private final long esperaBaseNanos;
+    private final long esperaMaximaNanos;
+    private final long presupuestoNanos;
+
+    private final LongAdder operaciones = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder interbloqueos = new LongAdder();
+    private final LongAdder timeoutsBloqueo = new LongAdder();
+    private final LongAdder conexionesPerdidas = new LongAdder();
+    private final LongAdder exitosTrasReintento = new LongAdder();
+    private final LongAdder agotadas = new LongAdder();
+    private final LongAdder commitsInciertos = new LongAdder();
+
+    /**
+     * @param maxReintentos Reintentos como máximo (0 = sin reintentos)
+     * @param esperaBase Espera antes del primer reintento
+     * @param esperaMaxima Límite de la espera exponencial
+     * @param presupuesto Tiempo total máximo de la operación, incluidos los intentos
+     */
+    public PoliticaReintentos(int maxReintentos, Duration esperaBase, Duration esperaMaxima, Duration presupuesto) {
+        if (maxReintentos < 0) {
+            throw new IllegalArgumentException("El número de reintentos no puede ser negativo");
+        }
+        this.maxReintentos = maxReintentos;
+        this.esperaBaseNanos = esperaBase.toNanos();
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.presupuestoNanos = presupuesto.toNanos();
+    }
+
+    /**
+     * Ejecuta la operación y la repite mientras falle con un error reintentable.
+     *
+     * @param intento Operación completa (abre, confirma o deshace su propia transacción)
+     * @return Resultado del primer intento que termina bien
+     * @throws SQLException El error no reintentable, o el último si se agotan los reintentos
+     */
+    public <T> T ejecutar(Intento<T> intento) throws SQLException {
+        operaciones.increment();
+        if (UnidadDeTrabajo.activa()) {
+            return intento.ejecutar();
+        }
+
+        long inicio = System.nanoTime();
+        for (int numero = 0; ; numero++) {
+            try {
+                T resultado = intento.ejecutar();
+                if (numero > 0) {
+                    exitosTrasReintento.increment();
+                }
+                return resultado;
+
+            } catch (SQLException e) {
+                SQLException causa = causaReintentable(e);
+                if (causa == null) {
+                    if (UnidadDeTrabajo.esCommitIncierto(e)) {
+                        commitsInciertos.increment();
+                    }
+                    throw e;
+                }
+                contarError(causa);
+
+                long espera = calcularEspera(numero);
+                if (numero >= maxReintentos || System.nanoTime() - inicio + espera > presupuestoNanos) {
+                    agotadas.increment();
+                    throw e;
+                }
+
+                reintentos.increment();
+                try {
+                    Thread.sleep(Duration.ofNanos(espera));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    e.addSuppressed(ie);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si el error (o alguno de su cadena) es un interbloqueo, un timeout de
+     * bloqueo o una pérdida de conexión antes del commit.
+     */
+    public static boolean esReintentable(SQLException e) {
+        return causaReintentable(e) != null;
+    }
+
+    private static SQLException causaReintentable(SQLException e) {
+        if (UnidadDeTrabajo.esCommitIncierto(e)) {
+            return null; // Su causa es 08xxx, pero el commit ya se había enviado
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql) {
+                int codigo = sql.getErrorCode();
+                String estado = sql.getSQLState();
+                if (codigo == ERROR_INTERBLOQUEO || codigo == ERROR_TIMEOUT_BLOQUEO
+                        || (estado != null && estado.startsWith("08"))) {
+                    return sql;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Espera exponencial con jitter completo: aleatoria entre 0 y base·2^numero (con límite).
+     */
+    private long calcularEspera(int numero) {
+        long techo = esperaBaseNanos << Math.min(numero, 30);
+        if (techo <= 0 || techo > esperaMaximaNanos) {
+            techo = esperaMaximaNanos;
+        }
+        return ThreadLocalRandom.current().nextLong(techo + 1);
+    }
+
+    private void contarError(SQLException e) {
+        if (e.getErrorCode() == ERROR_INTERBLOQUEO) {
+            interbloqueos.increment();
+        } else if (e.getErrorCode() == ERROR_TIMEOUT_BLOQUEO) {
+            timeoutsBloqueo.increment();
+        } else {
+            conexionesPerdidas.increment();
+        }
+    }
+
+    // ------------------- MÉTRICAS -------------------
+
+    public long getOperaciones() {
+        return operaciones.sum();
+    }
+
+    public long getReintentos() {
+        return reintentos.sum();
+    }
+
+    public long getInterbloqueos() {
+        return interbloqueos.sum();
+    }
+
+    public long getTimeoutsBloqueo() {
+        return timeoutsBloqueo.sum();
+    }
+
+    public long getConexionesPerdidas() {
+        return conexionesPerdidas.sum();
+    }
+
+    /**
+     * Operaciones que terminaron bien después de al menos un reintento.
+     */
+    public long getExitosTrasReintento() {
+        return exitosTrasReintento.sum();
+    }
+
+    /**
+     * Operaciones que fallaron por agotar los reintentos o el presupuesto de tiempo.
+     */
+    public long getAgotadas() {
+        return agotadas.sum();
+    }
+
+    /**
+     * Operaciones que perdieron la conexión con el commit ya enviado (resultado desconocido).
+     */
+    public long getCommitsInciertos() {
+        return commitsInciertos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "PoliticaReintentos{" +
+                "operaciones=" + getOperaciones() +
+                ", reintentos=" + getReintentos() +
+                ", interbloqueos=" + getInterbloqueos() +
+                ", timeoutsBloqueo=" + getTimeoutsBloqueo() +
+                ", conexionesPerdidas=" + getConexionesPerdidas() +
+                ", exitosTrasReintento=" + getExitosTrasReintento() +
+                ", agotadas=" + getAgotadas() +
+                ", commitsInciertos=" + getCommitsInciertos() +
+                '}';
+    }
+}
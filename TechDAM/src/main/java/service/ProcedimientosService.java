@@ -1,97 +1,234 @@
-package service;
-
-import config.DatabaseConfigPool;
-
-import java.math.BigDecimal;
-import java.sql.CallableStatement;
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.sql.Types;
-
-/**
- * Servicio para invocar procedimientos almacenados en la base de datos TechDAM.
- *
- * Comentarios académicos:
- * - Uso de CallableStatement para invocar procedimientos (CE2.3).
- * - Manejo correcto de parámetros IN y OUT.
- * - Captura y muestra de resultados de parámetros OUT.
- * - Uso de try-with-resources para garantizar cierre de recursos y evitar fugas.
- */
-public class ProcedimientosService {
-
-    /**
-     * Invoca el procedimiento actualizar_salario_departamento
-     * para incrementar salarios de un departamento específico.
-     *
-     * @param departamento Nombre del departamento
-     * @param porcentaje Porcentaje de incremento
-     * @return Número de empleados afectados, -1 si hubo error
-     */
-    public int actualizarSalariosDepartamento(String departamento, double porcentaje) {
-        String sql = "{call actualizar_salario_departamento(?, ?, ?)}";
-
-        try (Connection conn = DatabaseConfigPool.getConexion();
-             CallableStatement cstmt = conn.prepareCall(sql)) {
-
-            // Parámetros IN
-            cstmt.setString(1, departamento);
-            cstmt.setBigDecimal(2, BigDecimal.valueOf(porcentaje));
-
-            // Parámetro OUT
-            cstmt.registerOutParameter(3, Types.INTEGER);
-
-            // Ejecutar procedimiento
-            cstmt.execute();
-
-            // Obtener valor OUT
-            int empleadosActualizados = cstmt.getInt(3);
-            System.out.println("Empleados actualizados: " + empleadosActualizados);
-
-            return empleadosActualizados;
-
-        } catch (SQLException e) {
-            System.err.println("Error ejecutando procedimiento actualizar_salario_departamento: " + e.getMessage());
-            return -1;
-        }
-    }
-
-    /**
-     * Segundo procedimiento de ejemplo: asignar empleado a proyecto.
-     * Parámetros IN: idEmpleado, idProyecto
-     * Parámetros OUT: resultado (0 = fallo, 1 = éxito)
-     *
-     * @param idEmpleado ID del empleado
-     * @param idProyecto ID del proyecto
-     * @return 1 si asignación exitosa, 0 si falla
-     */
-    public int asignarEmpleadoAProyecto(int idEmpleado, int idProyecto) {
-        String sql = "{call asignar_empleado_proyecto(?, ?, ?)}";
-
-        try (Connection conn = DatabaseConfigPool.getConexion();
-             CallableStatement cstmt = conn.prepareCall(sql)) {
-
-            // Parámetros IN
-            cstmt.setInt(1, idEmpleado);
-            cstmt.setInt(2, idProyecto);
-
-            // Parámetro OUT
-            cstmt.registerOutParameter(3, Types.INTEGER);
-
-            // Ejecutar procedimiento
-            cstmt.execute();
-
-            int resultado = cstmt.getInt(3);
-            if (resultado == 1) {
-                System.out.println("Empleado " + idEmpleado + " asignado correctamente al proyecto " + idProyecto);
-            } else {
-                System.out.println("No se pudo asignar el empleado " + idEmpleado + " al proyecto " + idProyecto);
-            }
-
-            return resultado;
-
-        } catch (SQLException e) {
-            System.err.println("Error ejecutando procedimiento asignar_empleado_proyecto: " + e.getMessage());
-            return 0;
-        }
-    }
-}
+package service;
+
+import config.DatabaseConfigPool;
+import config.UnidadDeTrabajo;
+import dao.EmpleadoDAO;
+
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Servicio para invocar procedimientos almacenados en la base de datos TechDAM.
+ *
+ * Comentarios académicos:
+ * - Uso de CallableStatement para invocar procedimientos (CE2.3).
+ * - Manejo correcto de parámetros IN y OUT.
+ * - Captura y muestra de resultados de parámetros OUT.
+ * - Uso de try-with-resources para garantizar cierre de recursos y evitar fugas.
+ * - La subida de varios departamentos reutiliza un único CallableStatement sobre una
+ *   única conexión y transacción, con savepoints si se admite el éxito parcial.
+ */
+public class ProcedimientosService {
+
+    private final PoliticaReintentos reintentos = PoliticaReintentos.POR_DEFECTO;
+
+    /**
+     * Invoca el procedimiento actualizar_salario_departamento
+     * para incrementar salarios de un departamento específico.
+     *
+     * @param departamento Nombre del departamento
+     * @param porcentaje Porcentaje de incremento
+     * @return Número de empleados afectados, -1 si hubo error
+     */
+    public int actualizarSalariosDepartamento(String departamento, double porcentaje) {
+        String sql = "{call actualizar_salario_departamento(?, ?, ?)}";
+
+        // Un cambio diferido escrito después del procedimiento desharía la subida
+        EmpleadoDAO.vaciarEscrituraDiferida();
+
+        try (Connection conn = DatabaseConfigPool.getConexion();
+             CallableStatement cstmt = conn.prepareCall(sql)) {
+
+            // Parámetros IN
+            cstmt.setString(1, departamento);
+            cstmt.setBigDecimal(2, BigDecimal.valueOf(porcentaje));
+
+            // Parámetro OUT
+            cstmt.registerOutParameter(3, Types.INTEGER);
+
+            // Ejecutar procedimiento
+            cstmt.execute();
+
+            // Obtener valor OUT
+            int empleadosActualizados = cstmt.getInt(3);
+            EmpleadoDAO.invalidarCacheDepartamento(departamento);
+            EstadisticasService.limpiarCache();
+            System.out.println("Empleados actualizados: " + empleadosActualizados);
+
+            return empleadosActualizados;
+
+        } catch (SQLException e) {
+            System.err.println("Error ejecutando procedimiento actualizar_salario_departamento: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Aplica actualizar_salario_departamento a varios departamentos en una sola transacción.
+     *
+     * Los departamentos se procesan en orden alfabético, de modo que dos revisiones
+     * concurrentes bloquean las filas en el mismo orden. Con atomico = true un error en
+     * cualquier departamento deshace todos los cambios; con atomico = false cada departamento
+     * se protege con un savepoint y solo se deshace el que falla. Los interbloqueos y
+     * timeouts de bloqueo deshacen la transacción completa y se reintenta según la política.
+     * Si la conexión se pierde durante el commit no se reintenta: la subida no es idempotente
+     * y repetirla podría aplicar cada porcentaje dos veces.
+     *
+     * @param porcentajes Porcentaje de incremento por nombre de departamento
+     * @param atomico true para todo o nada, false para éxito parcial
+     * @return Empleados actualizados por departamento (-1 en los que fallaron en modo parcial);
+     *         vacío si la transacción se deshizo o no se sabe si se confirmó
+     * @throws IllegalArgumentException Si dos departamentos solo se diferencian en mayúsculas
+     *         (el procedimiento los compara sin distinguirlas y subiría el mismo dos veces)
+     */
+    public Map<String, Integer> actualizarSalariosDepartamentos(Map<String, BigDecimal> porcentajes, boolean atomico) {
+        Map<String, BigDecimal> ordenados = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, BigDecimal> entrada : porcentajes.entrySet()) {
+            if (ordenados.putIfAbsent(entrada.getKey(), entrada.getValue()) != null) {
+                throw new IllegalArgumentException("Departamento repetido: " + entrada.getKey());
+            }
+        }
+        EmpleadoDAO.vaciarEscrituraDiferida(); // Ver actualizarSalariosDepartamento()
+
+        try {
+            Map<String, Integer> afectados = reintentos.ejecutar(() -> intentarActualizacionSalarios(ordenados, atomico));
+            for (String departamento : afectados.keySet()) {
+                EmpleadoDAO.invalidarCacheDepartamento(departamento);
+            }
+            EstadisticasService.limpiarCache();
+            System.out.println("Salarios actualizados por departamento: " + afectados);
+            return afectados;
+
+        } catch (SQLException e) {
+            System.err.println("Error en la actualización de salarios: " + e.getMessage());
+            if (UnidadDeTrabajo.esCommitIncierto(e)) {
+                // Puede haberse confirmado: las cachés no deben conservar los salarios anteriores
+                for (String departamento : ordenados.keySet()) {
+                    EmpleadoDAO.invalidarCacheDepartamento(departamento);
+                }
+                EstadisticasService.limpiarCache();
+                System.err.println("Resultado desconocido: compruebe los salarios antes de repetir la subida.");
+            } else {
+                System.err.println("Rollback ejecutado, no se aplicaron cambios.");
+            }
+            return Map.of();
+        }
+    }
+
+    /**
+     * Un intento de actualización de todos los departamentos en una transacción.
+     */
+    private Map<String, Integer> intentarActualizacionSalarios(Map<String, BigDecimal> porcentajes, boolean atomico)
+            throws SQLException {
+        Map<String, Integer> afectados = new LinkedHashMap<>();
+        Connection conn = null;
+
+        try {
+            conn = DatabaseConfigPool.getConexion();
+
+            // Se prepara antes de abrir la transacción: Connector/J lee los metadatos del
+            // procedimiento y en MariaDB esa lectura no transaccional impide crear savepoints
+            try (CallableStatement cstmt = conn.prepareCall("{call actualizar_salario_departamento(?, ?, ?)}")) {
+                cstmt.registerOutParameter(3, Types.INTEGER);
+                conn.setAutoCommit(false);
+
+                for (Map.Entry<String, BigDecimal> entrada : porcentajes.entrySet()) {
+                    String departamento = entrada.getKey();
+                    cstmt.setString(1, departamento);
+                    cstmt.setBigDecimal(2, entrada.getValue());
+
+                    if (atomico) {
+                        cstmt.execute();
+                        afectados.put(departamento, cstmt.getInt(3));
+                        continue;
+                    }
+
+                    Savepoint sp = conn.setSavepoint();
+                    try {
+                        cstmt.execute();
+                        afectados.put(departamento, cstmt.getInt(3));
+                        conn.releaseSavepoint(sp);
+                    } catch (SQLException e) {
+                        if (PoliticaReintentos.esReintentable(e)) {
+                            throw e; // La transacción ya no es válida: se reintenta completa
+                        }
+                        // Rollback parcial al savepoint: los demás departamentos se mantienen
+                        conn.rollback(sp);
+                        afectados.put(departamento, -1);
+                        System.err.println("No se pudo actualizar el departamento " + departamento + ": " + e.getMessage());
+                    }
+                }
+            }
+
+            UnidadDeTrabajo.confirmar(conn); // Si se pierde la conexión aquí ya no se reintenta
+            return afectados;
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    e.addSuppressed(ex);
+                }
+            }
+            throw e;
+
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Segundo procedimiento de ejemplo: asignar empleado a proyecto.
+     * Parámetros IN: idEmpleado, idProyecto
+     * Parámetros OUT: resultado (0 = fallo, 1 = éxito)
+     *
+     * @param idEmpleado ID del empleado
+     * @param idProyecto ID del proyecto
+     * @return 1 si asignación exitosa, 0 si falla
+     */
+    public int asignarEmpleadoAProyecto(int idEmpleado, int idProyecto) {
+        String sql = "{call asignar_empleado_proyecto(?, ?, ?)}";
+
+        try (Connection conn = DatabaseConfigPool.getConexion();
+             CallableStatement cstmt = conn.prepareCall(sql)) {
+
+            // Parámetros IN
+            cstmt.setInt(1, idEmpleado);
+            cstmt.setInt(2, idProyecto);
+
+            // Parámetro OUT
+            cstmt.registerOutParameter(3, Types.INTEGER);
+
+            // Ejecutar procedimiento
+            cstmt.execute();
+
+            int resultado = cstmt.getInt(3);
+            if (resultado == 1) {
+                System.out.println("Empleado " + idEmpleado + " asignado correctamente al proyecto " + idProyecto);
+            } else {
+                System.out.println("No se pudo asignar el empleado " + idEmpleado + " al proyecto " + idProyecto);
+            }
+
+            return resultado;
+
+        } catch (SQLException e) {
+            System.err.println("Error ejecutando procedimiento asignar_empleado_proyecto: " + e.getMessage());
+            return 0;
+        }
+    }
+}
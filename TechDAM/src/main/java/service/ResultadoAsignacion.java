@@ -0,0 +1,62 @@
+package service;
+
+/**
+ * Resultado de asignar un empleado a un proyecto en una asignación en bloque.
+ *
+ * Comentarios académicos:
+ * - Permite informar por empleado si se asignó o se omitió y por qué,
+ *   manteniendo el "éxito parcial" sin necesidad de un savepoint por fila.
+ */
+public class ResultadoAsignacion {
+
+    public enum Estado {
+        ASIGNADO,
+        OMITIDO
+    }
+
+    private final int empleadoId;
+    private final Estado estado;
+    private final String motivo;
+
+    public ResultadoAsignacion(int empleadoId, Estado estado, String motivo) {
+        this.empleadoId = empleadoId;
+        this.estado = estado;
+        this.motivo = motivo;
+    }
+
+    public static ResultadoAsignacion asignado(int empleadoId) {
+        return new ResultadoAsignacion(empleadoId, Estado.ASIGNADO, null);
+    }
+
+    public static ResultadoAsignacion omitido(int empleadoId, String motivo) {
+        return new ResultadoAsignacion(empleadoId, Estado.OMITIDO, motivo);
+    }
+
+    public int getEmpleadoId() {
+        return empleadoId;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Motivo por el que se omitió la asignación (null si se asignó).
+     */
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public boolean isAsignado() {
+        return estado == Estado.ASIGNADO;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoAsignacion{" +
+                "empleadoId=" + empleadoId +
+                ", estado=" + estado +
+                (motivo != null ? ", motivo='" + motivo + '\'' : "") +
+                '}';
+    }
+}
@@ -0,0 +1,261 @@
+package service;
+
+import config.DatabaseConfigPool;
+import dao.AsignacionDAO;
+import dao.EmpleadoDAO;
+import dao.ProyectoDAO;
+import modelo.Empleado;
+import modelo.Proyecto;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fachada asíncrona sobre los DAO y servicios, ejecutada en hilos virtuales.
+ *
+ * Comentarios académicos:
+ * - Cada llamada se ejecuta en un hilo virtual y devuelve un CompletableFuture, de modo
+ *   que se pueden lanzar muchas consultas independientes en paralelo.
+ * - Un Semaphore con tantos permisos como conexiones tiene el pool limita las consultas
+ *   simultáneas: el resto espera en el semáforo (barato en un hilo virtual) en lugar
+ *   de acumularse esperando conexión dentro de HikariCP hasta su connectionTimeout.
+ * - Cada llamada tiene un timeout (por defecto o indicado). Al cancelar el future o al
+ *   vencer el timeout se interrumpe el hilo: si aún esperaba permiso no llega a ejecutar
+ *   la consulta; si ya la estaba ejecutando, el driver cierra el socket y HikariCP
+ *   descarta esa conexión.
+ * - Las escrituras (ejecutarEscritura) solo se interrumpen mientras esperan permiso: cortar
+ *   el socket a mitad de un UPDATE o de un commit no deshace nada de forma fiable. Si vencen
+ *   ya empezadas, el future falla con TimeoutException pero la operación sigue hasta el final:
+ *   el timeout significa "resultado desconocido", no "no aplicado".
+ */
+public class ServicioAsincrono implements AutoCloseable {
+
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final ProyectoDAO proyectoDAO = new ProyectoDAO();
+    private final AsignacionDAO asignacionDAO = new AsignacionDAO();
+    private final TransaccionesService transaccionesService = new TransaccionesService();
+    private final ProcedimientosService procedimientosService = new ProcedimientosService();
+
+    // Estados de una llamada
+    private static final int ESPERANDO = 0;
+    private static final int EJECUTANDO = 1;
+    private static final int ABANDONADA = 2;
+
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permisos;
+    private final Duration timeoutPorDefecto;
+
+    /**
+     * Concurrencia igual al tamaño del pool y timeout de 30 segundos por llamada.
+     */
+    public ServicioAsincrono() {
+        this(DatabaseConfigPool.getTamanoMaximoPool(), Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param maxConcurrencia Máximo de llamadas ejecutándose a la vez
+     * @param timeoutPorDefecto Tiempo máximo por llamada, incluida la espera de permiso
+     */
+    public ServicioAsincrono(int maxConcurrencia, Duration timeoutPorDefecto) {
+        if (maxConcurrencia <= 0) {
+            throw new IllegalArgumentException("La concurrencia máxima debe ser mayor que 0");
+        }
+        this.permisos = new Semaphore(maxConcurrencia, true);
+        this.timeoutPorDefecto = timeoutPorDefecto;
+    }
+
+    /**
+     * Ejecuta una tarea cualquiera con el timeout por defecto.
+     */
+    public <T> CompletableFuture<T> ejecutar(Callable<T> tarea) {
+        return ejecutar(tarea, timeoutPorDefecto);
+    }
+
+    /**
+     * Ejecuta una tarea en un hilo virtual respetando el límite de concurrencia.
+     *
+     * @param tarea Operación bloqueante (consulta JDBC, llamada a un servicio...)
+     * @param timeout Tiempo máximo; al vencer, el future falla con TimeoutException
+     * @return Future con el resultado de la tarea
+     */
+    public <T> CompletableFuture<T> ejecutar(Callable<T> tarea, Duration timeout) {
+        return ejecutar(tarea, timeout, false);
+    }
+
+    /**
+     * Ejecuta una escritura con el timeout por defecto.
+     */
+    public <T> CompletableFuture<T> ejecutarEscritura(Callable<T> tarea) {
+        return ejecutarEscritura(tarea, timeoutPorDefecto);
+    }
+
+    /**
+     * Como ejecutar(), pero una vez empezada la tarea no se interrumpe.
+     *
+     * @param timeout Tiempo máximo; si vence con la tarea empezada, el future falla con
+     *                TimeoutException y no se sabe si la escritura se aplicó
+     */
+    public <T> CompletableFuture<T> ejecutarEscritura(Callable<T> tarea, Duration timeout) {
+        return ejecutar(tarea, timeout, true);
+    }
+
+    private <T> CompletableFuture<T> ejecutar(Callable<T> tarea, Duration timeout, boolean escritura) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        AtomicInteger estado = new AtomicInteger(ESPERANDO);
+
+        Future<?> hilo = ejecutor.submit(() -> {
+            try {
+                permisos.acquire();
+            } catch (InterruptedException e) {
+                resultado.cancel(false);
+                return;
+            }
+            try {
+                // Cancelado o caducado mientras esperaba permiso: no se lanza la consulta
+                if (estado.compareAndSet(ESPERANDO, EJECUTANDO) && !resultado.isDone()) {
+                    resultado.complete(tarea.call());
+                }
+            } catch (Throwable t) {
+                resultado.completeExceptionally(t);
+            } finally {
+                permisos.release();
+            }
+        });
+
+        resultado.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        resultado.whenComplete((valor, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                // Una escritura ya empezada no se interrumpe (ver comentarios de la clase)
+                if (!escritura || estado.compareAndSet(ESPERANDO, ABANDONADA)) {
+                    hilo.cancel(true);
+                }
+            }
+        });
+        return resultado;
+    }
+
+    // ------------------- EMPLEADOS -------------------
+
+    public CompletableFuture<Optional<Empleado>> obtenerEmpleado(int id) {
+        return ejecutar(() -> empleadoDAO.obtenerPorId(id));
+    }
+
+    /**
+     * Obtiene muchos empleados en paralelo (una consulta por ID, limitadas por el pool).
+     * Los IDs que no existen no aparecen en la lista.
+     */
+    public CompletableFuture<List<Empleado>> obtenerEmpleados(Collection<Integer> ids) {
+        List<CompletableFuture<Optional<Empleado>>> futuros = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            futuros.add(obtenerEmpleado(id));
+        }
+        return CompletableFuture.allOf(futuros.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> futuros.stream()
+                        .map(CompletableFuture::join)
+                        .flatMap(Optional::stream)
+                        .toList());
+    }
+
+    public CompletableFuture<List<Empleado>> obtenerPaginaEmpleados(int despuesDeId, int limite) {
+        return ejecutar(() -> empleadoDAO.obtenerPagina(despuesDeId, limite));
+    }
+
+    public CompletableFuture<Integer> crearEmpleado(Empleado emp) {
+        return ejecutarEscritura(() -> empleadoDAO.crear(emp));
+    }
+
+    public CompletableFuture<Boolean> actualizarEmpleado(Empleado emp) {
+        return ejecutarEscritura(() -> empleadoDAO.actualizar(emp));
+    }
+
+    public CompletableFuture<Boolean> eliminarEmpleado(int id) {
+        return ejecutarEscritura(() -> empleadoDAO.eliminar(id));
+    }
+
+    /**
+     * Proyectos de un empleado (un JOIN por empleado).
+     */
+    public CompletableFuture<List<Proyecto>> proyectosPorEmpleado(int empleadoId) {
+        return ejecutar(() -> asignacionDAO.proyectosPorEmpleado(empleadoId));
+    }
+
+    /**
+     * Proyectos de muchos empleados en paralelo, por ID de empleado.
+     */
+    public CompletableFuture<Map<Integer, List<Proyecto>>> proyectosPorEmpleados(Collection<Integer> empleadoIds) {
+        Map<Integer, CompletableFuture<List<Proyecto>>> futuros = new LinkedHashMap<>();
+        for (int id : empleadoIds) {
+            futuros.put(id, proyectosPorEmpleado(id));
+        }
+        return CompletableFuture.allOf(futuros.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> {
+                    Map<Integer, List<Proyecto>> resultado = new LinkedHashMap<>();
+                    futuros.forEach((id, futuro) -> resultado.put(id, futuro.join()));
+                    return resultado;
+                });
+    }
+
+    // ------------------- PROYECTOS -------------------
+
+    public CompletableFuture<Optional<Proyecto>> obtenerProyecto(int id) {
+        return ejecutar(() -> proyectoDAO.obtenerPorId(id));
+    }
+
+    public CompletableFuture<List<Proyecto>> obtenerPaginaProyectos(int despuesDeId, int limite) {
+        return ejecutar(() -> proyectoDAO.obtenerPagina(despuesDeId, limite));
+    }
+
+    public CompletableFuture<Integer> crearProyecto(Proyecto proyecto) {
+        return ejecutarEscritura(() -> proyectoDAO.crear(proyecto));
+    }
+
+    public CompletableFuture<Boolean> actualizarProyecto(Proyecto proyecto) {
+        return ejecutarEscritura(() -> proyectoDAO.actualizar(proyecto));
+    }
+
+    public CompletableFuture<Boolean> eliminarProyecto(int id) {
+        return ejecutarEscritura(() -> proyectoDAO.eliminar(id));
+    }
+
+    // ------------------- SERVICIOS -------------------
+
+    public CompletableFuture<Boolean> transferirPresupuesto(int origenId, int destinoId, BigDecimal monto) {
+        return ejecutarEscritura(() -> transaccionesService.transferirPresupuesto(origenId, destinoId, monto));
+    }
+
+    public CompletableFuture<List<ResultadoAsignacion>> asignarEmpleadosEnBloque(int proyectoId, List<Integer> empleadoIds) {
+        return ejecutarEscritura(() -> transaccionesService.asignarEmpleadosEnBloque(proyectoId, empleadoIds));
+    }
+
+    public CompletableFuture<Integer> actualizarSalariosDepartamento(String departamento, double porcentaje) {
+        return ejecutarEscritura(() -> procedimientosService.actualizarSalariosDepartamento(departamento, porcentaje));
+    }
+
+    public CompletableFuture<Integer> asignarEmpleadoAProyecto(int idEmpleado, int idProyecto) {
+        return ejecutarEscritura(() -> procedimientosService.asignarEmpleadoAProyecto(idEmpleado, idProyecto));
+    }
+
+    /**
+     * Deja de aceptar tareas y espera a que terminen las que están en curso.
+     */
+    @Override
+    public void close() {
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(timeoutPorDefecto.toMillis(), TimeUnit.MILLISECONDS)) {
+                ejecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
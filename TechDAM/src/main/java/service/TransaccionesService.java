@@ -1,136 +1,363 @@
-package service;
-
-import config.DatabaseConfigPool;
-
-import java.math.BigDecimal;
-import java.sql.*;
-import java.util.List;
-
-/**
- * Servicio encargado de manejar operaciones transaccionales sobre proyectos y asignaciones.
- * Justificación académica:
- * - Se aplican transacciones manuales con commit y rollback (CE2.4)
- * - Uso de savepoints para rollback parcial
- * - Todas las operaciones se ejecutan mediante PreparedStatement (CE2.5)
- */
-public class TransaccionesService {
-
-    /**
-     * Transfiere presupuesto de un proyecto a otro en una transacción.
-     * @param proyectoOrigenId ID del proyecto origen
-     * @param proyectoDestinoId ID del proyecto destino
-     * @param monto Monto a transferir
-     * @return true si la transacción se completa correctamente, false si ocurre algún error
-     */
-    public boolean transferirPresupuesto(int proyectoOrigenId, int proyectoDestinoId, BigDecimal monto) {
-        Connection conn = null;
-
-        try {
-            conn = DatabaseConfigPool.getConexion();
-            conn.setAutoCommit(false); // Iniciar transacción manual
-
-            // 1. Restar del proyecto origen
-            String sqlRestar = "UPDATE proyectos SET presupuesto = presupuesto - ? WHERE id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(sqlRestar)) {
-                ps.setBigDecimal(1, monto);
-                ps.setInt(2, proyectoOrigenId);
-                ps.executeUpdate();
-            }
-
-            // 2. Sumar al proyecto destino
-            String sqlSumar = "UPDATE proyectos SET presupuesto = presupuesto + ? WHERE id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(sqlSumar)) {
-                ps.setBigDecimal(1, monto);
-                ps.setInt(2, proyectoDestinoId);
-                ps.executeUpdate();
-            }
-
-            // 3. Confirmar transacción
-            conn.commit();
-            System.out.println("Transacción completada: $" + monto + " transferidos correctamente.");
-            return true;
-
-        } catch (SQLException e) {
-            // Si ocurre un error, revertimos toda la transacción
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                    System.err.println("Error en la transacción: " + e.getMessage());
-                    System.err.println("Rollback ejecutado, no se aplicaron cambios.");
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
-            return false;
-
-        } finally {
-            // Restaurar autoCommit y cerrar conexión
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-    }
-
-    /**
-     * Asigna múltiples empleados a un proyecto usando savepoints.
-     * Si una asignación falla, solo se revierte esa operación y las anteriores permanecen.
-     * @param proyectoId ID del proyecto
-     * @param empleadoIds Lista de IDs de empleados a asignar
-     */
-    public void asignarEmpleadosConSavepoint(int proyectoId, List<Integer> empleadoIds) {
-        Connection conn = null;
-        String sqlInsert = "INSERT INTO asignaciones(empleado_id, proyecto_id, fecha_asignacion, horas_asignadas) " +
-                "VALUES (?, ?, CURRENT_DATE, 40)"; // Se puede ajustar horas
-
-        try {
-            conn = DatabaseConfigPool.getConexion();
-            conn.setAutoCommit(false);
-
-            for (int empId : empleadoIds) {
-                Savepoint sp = conn.setSavepoint("SP_EMP_" + empId);
-                try (PreparedStatement ps = conn.prepareStatement(sqlInsert)) {
-                    ps.setInt(1, empId);
-                    ps.setInt(2, proyectoId);
-                    ps.executeUpdate();
-                    System.out.println("Empleado " + empId + " asignado correctamente.");
-                } catch (SQLException e) {
-                    // Rollback parcial al savepoint de este empleado
-                    conn.rollback(sp);
-                    System.err.println("No se pudo asignar al empleado " + empId + ": " + e.getMessage());
-                    System.err.println("Rollback parcial al savepoint de este empleado, las demás asignaciones permanecen.");
-                }
-            }
-
-            // Confirmar todas las asignaciones exitosas
-            conn.commit();
-            System.out.println("Asignaciones completadas con éxito.");
-
-        } catch (SQLException e) {
-            // Rollback completo si falla algo crítico
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                    System.err.println("Error crítico en asignaciones: " + e.getMessage());
-                    System.err.println("Rollback completo ejecutado.");
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
-        } finally {
-            // Restaurar autoCommit y cerrar conexión
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-    }
-}
+package service;
+
+import config.DatabaseConfigPool;
+import config.UnidadDeTrabajo;
+import dao.ProyectoDAO;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Servicio encargado de manejar operaciones transaccionales sobre proyectos y asignaciones.
+ * Justificación académica:
+ * - Se aplican transacciones manuales con commit y rollback (CE2.4)
+ * - Uso de savepoints para rollback parcial
+ * - Los interbloqueos y timeouts de bloqueo se reintentan con PoliticaReintentos
+ * - Todas las operaciones se ejecutan mediante PreparedStatement (CE2.5)
+ */
+public class TransaccionesService {
+
+    // Máximo de parámetros en una cláusula IN (...) por consulta
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
+    private final PoliticaReintentos reintentos;
+
+    /**
+     * Servicio con la política de reintentos compartida (PoliticaReintentos.POR_DEFECTO).
+     */
+    public TransaccionesService() {
+        this(PoliticaReintentos.POR_DEFECTO);
+    }
+
+    public TransaccionesService(PoliticaReintentos reintentos) {
+        this.reintentos = reintentos;
+    }
+
+    /**
+     * Política de reintentos del servicio, para consultar sus métricas.
+     */
+    public PoliticaReintentos getPoliticaReintentos() {
+        return reintentos;
+    }
+
+    /**
+     * Transfiere presupuesto de un proyecto a otro en una transacción.
+     * Los interbloqueos y timeouts de bloqueo se reintentan según la política de reintentos.
+     * @param proyectoOrigenId ID del proyecto origen
+     * @param proyectoDestinoId ID del proyecto destino
+     * @param monto Monto a transferir
+     * @return true si la transacción se completa correctamente, false si ocurre algún error
+     *         (también si la conexión se pierde durante el commit y no se sabe si se aplicó)
+     */
+    public boolean transferirPresupuesto(int proyectoOrigenId, int proyectoDestinoId, BigDecimal monto) {
+        try {
+            reintentos.ejecutar(() -> intentarTransferencia(proyectoOrigenId, proyectoDestinoId, monto));
+            ProyectoDAO.invalidarCache(proyectoOrigenId);
+            ProyectoDAO.invalidarCache(proyectoDestinoId);
+            System.out.println("Transacción completada: $" + monto + " transferidos correctamente.");
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error en la transacción: " + e.getMessage());
+            if (UnidadDeTrabajo.esCommitIncierto(e)) {
+                // Puede haberse confirmado: no se repite y la caché no debe conservar el valor anterior
+                ProyectoDAO.invalidarCache(proyectoOrigenId);
+                ProyectoDAO.invalidarCache(proyectoDestinoId);
+                System.err.println("Resultado desconocido: compruebe los presupuestos antes de repetir la transferencia.");
+            } else {
+                System.err.println("Rollback ejecutado, no se aplicaron cambios.");
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Un intento de transferencia: abre, confirma o deshace su propia transacción.
+     */
+    private Void intentarTransferencia(int proyectoOrigenId, int proyectoDestinoId, BigDecimal monto) throws SQLException {
+        Connection conn = null;
+
+        try {
+            conn = DatabaseConfigPool.getConexion();
+            conn.setAutoCommit(false); // Iniciar transacción manual
+
+            // 0. Bloquear ambas filas en orden de ID: dos transferencias en sentidos
+            // opuestos (A->B y B->A) piden los bloqueos en el mismo orden y no se interbloquean
+            String sqlBloquear = "SELECT id FROM proyectos WHERE id IN (?, ?) ORDER BY id FOR UPDATE";
+            try (PreparedStatement ps = conn.prepareStatement(sqlBloquear)) {
+                ps.setInt(1, proyectoOrigenId);
+                ps.setInt(2, proyectoDestinoId);
+                ps.executeQuery().close();
+            }
+
+            // 1. Restar del proyecto origen
+            String sqlRestar = "UPDATE proyectos SET presupuesto = presupuesto - ? WHERE id = ?";
+            try (PreparedStatement ps = conn.prepareStatement(sqlRestar)) {
+                ps.setBigDecimal(1, monto);
+                ps.setInt(2, proyectoOrigenId);
+                ps.executeUpdate();
+            }
+
+            // 2. Sumar al proyecto destino
+            String sqlSumar = "UPDATE proyectos SET presupuesto = presupuesto + ? WHERE id = ?";
+            try (PreparedStatement ps = conn.prepareStatement(sqlSumar)) {
+                ps.setBigDecimal(1, monto);
+                ps.setInt(2, proyectoDestinoId);
+                ps.executeUpdate();
+            }
+
+            // 3. Confirmar transacción (si se pierde la conexión aquí ya no se reintenta)
+            UnidadDeTrabajo.confirmar(conn);
+            return null;
+
+        } catch (SQLException e) {
+            // Si ocurre un error, revertimos toda la transacción antes de reintentar o fallar
+            if (conn != null) {
+                UnidadDeTrabajo.anotarCausaRollback(e);
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    e.addSuppressed(ex);
+                }
+            }
+            throw e;
+
+        } finally {
+            // Restaurar autoCommit y cerrar conexión
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Asigna múltiples empleados a un proyecto usando savepoints.
+     * Si una asignación falla, solo se revierte esa operación y las anteriores permanecen.
+     * @param proyectoId ID del proyecto
+     * @param empleadoIds Lista de IDs de empleados a asignar
+     */
+    public void asignarEmpleadosConSavepoint(int proyectoId, List<Integer> empleadoIds) {
+        Connection conn = null;
+        String sqlInsert = "INSERT INTO asignaciones(empleado_id, proyecto_id, fecha_asignacion, horas_asignadas) " +
+                "VALUES (?, ?, CURRENT_DATE, 40)"; // Se puede ajustar horas
+
+        try {
+            conn = DatabaseConfigPool.getConexion();
+            conn.setAutoCommit(false);
+
+            for (int empId : empleadoIds) {
+                Savepoint sp = conn.setSavepoint("SP_EMP_" + empId);
+                try (PreparedStatement ps = conn.prepareStatement(sqlInsert)) {
+                    ps.setInt(1, empId);
+                    ps.setInt(2, proyectoId);
+                    ps.executeUpdate();
+                    System.out.println("Empleado " + empId + " asignado correctamente.");
+                } catch (SQLException e) {
+                    // Rollback parcial al savepoint de este empleado
+                    conn.rollback(sp);
+                    System.err.println("No se pudo asignar al empleado " + empId + ": " + e.getMessage());
+                    System.err.println("Rollback parcial al savepoint de este empleado, las demás asignaciones permanecen.");
+                }
+            }
+
+            // Confirmar todas las asignaciones exitosas
+            conn.commit();
+            System.out.println("Asignaciones completadas con éxito.");
+
+        } catch (SQLException e) {
+            // Rollback completo si falla algo crítico
+            if (conn != null) {
+                UnidadDeTrabajo.anotarCausaRollback(e);
+                try {
+                    conn.rollback();
+                    System.err.println("Error crítico en asignaciones: " + e.getMessage());
+                    System.err.println("Rollback completo ejecutado.");
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        } finally {
+            // Restaurar autoCommit y cerrar conexión
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Asigna múltiples empleados a un proyecto en bloque, sin un savepoint por empleado.
+     *
+     * 0. Se bloquea la fila del proyecto (FOR UPDATE): dos asignaciones en bloque al mismo
+     *    proyecto se ejecutan una detrás de otra, así que ninguna inserta un empleado que la
+     *    otra acaba de asignar entre su comprobación y su INSERT (la tabla no tiene UNIQUE).
+     * 1. Una sola consulta comprueba qué empleados existen y cuáles ya están asignados.
+     * 2. Los IDs inválidos, repetidos o ya asignados se filtran en Java.
+     * 3. El resto se inserta con un único executeBatch() (INSERT multi-fila con
+     *    rewriteBatchedStatements=true).
+     * Se mantiene el éxito parcial: los empleados omitidos no impiden asignar a los demás.
+     *
+     * @param proyectoId ID del proyecto
+     * @param empleadoIds Lista de IDs de empleados a asignar
+     * @return Resultado por empleado, en el mismo orden que la lista de entrada
+     */
+    public List<ResultadoAsignacion> asignarEmpleadosEnBloque(int proyectoId, List<Integer> empleadoIds) {
+        if (empleadoIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return reintentos.ejecutar(() -> intentarAsignacionEnBloque(proyectoId, empleadoIds));
+
+        } catch (SQLException e) {
+            // Fallo del batch o de la conexión: no se confirma ninguna asignación,
+            // salvo si se perdió la conexión con el commit ya enviado (resultado desconocido)
+            boolean incierto = UnidadDeTrabajo.esCommitIncierto(e);
+            System.err.println("Error en la asignación en bloque: " + e.getMessage());
+            System.err.println(incierto ? "Resultado desconocido: compruebe las asignaciones del proyecto."
+                    : "Rollback completo ejecutado.");
+            String motivo = (incierto ? "Resultado desconocido: " : "Error en la transacción: ") + e.getMessage();
+            List<ResultadoAsignacion> resultados = new ArrayList<>(empleadoIds.size());
+            for (int empId : empleadoIds) {
+                resultados.add(ResultadoAsignacion.omitido(empId, motivo));
+            }
+            return resultados;
+        }
+    }
+
+    /**
+     * Un intento de asignación en bloque: abre, confirma o deshace su propia transacción.
+     */
+    private List<ResultadoAsignacion> intentarAsignacionEnBloque(int proyectoId, List<Integer> empleadoIds) throws SQLException {
+        List<ResultadoAsignacion> resultados = new ArrayList<>(empleadoIds.size());
+
+        Connection conn = null;
+        try {
+            conn = DatabaseConfigPool.getConexion();
+            conn.setAutoCommit(false);
+
+            if (!bloquearProyecto(conn, proyectoId)) {
+                for (int empId : empleadoIds) {
+                    resultados.add(ResultadoAsignacion.omitido(empId, "El proyecto " + proyectoId + " no existe"));
+                }
+                conn.rollback();
+                return resultados;
+            }
+
+            // 1. Estado de todos los empleados en una consulta (por trozos si la lista es muy larga)
+            Map<Integer, Boolean> yaAsignado = consultarEmpleados(conn, proyectoId, new LinkedHashSet<>(empleadoIds));
+
+            // 2. Filtrado en el cliente, conservando el orden de entrada
+            Set<Integer> vistos = new HashSet<>();
+            List<Integer> aInsertar = new ArrayList<>();
+            for (int empId : empleadoIds) {
+                if (!vistos.add(empId)) {
+                    resultados.add(ResultadoAsignacion.omitido(empId, "ID repetido en la lista"));
+                } else if (!yaAsignado.containsKey(empId)) {
+                    resultados.add(ResultadoAsignacion.omitido(empId, "El empleado no existe"));
+                } else if (yaAsignado.get(empId)) {
+                    resultados.add(ResultadoAsignacion.omitido(empId, "Ya asignado al proyecto"));
+                } else {
+                    resultados.add(ResultadoAsignacion.asignado(empId));
+                    aInsertar.add(empId);
+                }
+            }
+
+            // 3. Un único batch para todas las asignaciones válidas
+            if (!aInsertar.isEmpty()) {
+                String sqlInsert = "INSERT INTO asignaciones(empleado_id, proyecto_id, fecha_asignacion, horas_asignadas) " +
+                        "VALUES (?, ?, CURRENT_DATE, 40)";
+                try (PreparedStatement ps = conn.prepareStatement(sqlInsert)) {
+                    for (int empId : aInsertar) {
+                        ps.setInt(1, empId);
+                        ps.setInt(2, proyectoId);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+
+            UnidadDeTrabajo.confirmar(conn);
+            System.out.println("Asignación en bloque completada: " + aInsertar.size() + " asignados, "
+                    + (empleadoIds.size() - aInsertar.size()) + " omitidos.");
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                UnidadDeTrabajo.anotarCausaRollback(e);
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    e.addSuppressed(ex);
+                }
+            }
+            throw e;
+
+        } finally {
+            // Restaurar autoCommit y cerrar conexión
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        return resultados;
+    }
+
+    /**
+     * Bloquea la fila del proyecto hasta el final de la transacción.
+     *
+     * @return false si el proyecto no existe
+     */
+    private boolean bloquearProyecto(Connection conn, int proyectoId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM proyectos WHERE id = ? FOR UPDATE")) {
+            ps.setInt(1, proyectoId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Devuelve, para cada empleado existente, si ya está asignado al proyecto.
+     * Los empleados que no aparecen en el mapa no existen.
+     */
+    private Map<Integer, Boolean> consultarEmpleados(Connection conn, int proyectoId, Set<Integer> ids) throws SQLException {
+        Map<Integer, Boolean> estado = new HashMap<>();
+        List<Integer> lista = new ArrayList<>(ids);
+
+        for (int inicio = 0; inicio < lista.size(); inicio += MAX_IDS_POR_CONSULTA) {
+            List<Integer> trozo = lista.subList(inicio, Math.min(inicio + MAX_IDS_POR_CONSULTA, lista.size()));
+            String sql = "SELECT e.id, EXISTS(SELECT 1 FROM asignaciones a " +
+                    "WHERE a.empleado_id = e.id AND a.proyecto_id = ?) " +
+                    "FROM empleados e WHERE e.id IN (" + String.join(",", Collections.nCopies(trozo.size(), "?")) + ")";
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int i = 1;
+                ps.setInt(i++, proyectoId);
+                for (int id : trozo) {
+                    ps.setInt(i++, id);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        estado.put(rs.getInt(1), rs.getBoolean(2));
+                    }
+                }
+            }
+        }
+        return estado;
+    }
+}
@@ -0,0 +1,65 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del lector/escritor JSON de la API, incluido el límite de anidamiento.
+ */
+class JsonTest {
+
+    @Test
+    void leeObjetosArraysYLiterales() {
+        Object valor = Json.leer("{\"nombre\": \"Ana\", \"salario\": 1234.50, \"activo\": true, "
+                + "\"jefe\": null, \"ids\": [1, 2]}");
+
+        Map<?, ?> objeto = assertInstanceOf(Map.class, valor);
+        assertEquals("Ana", objeto.get("nombre"));
+        assertEquals(new BigDecimal("1234.50"), objeto.get("salario"));
+        assertEquals(Boolean.TRUE, objeto.get("activo"));
+        assertTrue(objeto.containsKey("jefe"));
+        assertNull(objeto.get("jefe"));
+        assertEquals(List.of(new BigDecimal("1"), new BigDecimal("2")), objeto.get("ids"));
+    }
+
+    @Test
+    void rechazaContenidoTrasElFinal() {
+        assertThrows(IllegalArgumentException.class, () -> Json.leer("{} {}"));
+    }
+
+    @Test
+    void admiteAnidamientoHastaElLimite() {
+        String texto = "[".repeat(32) + "]".repeat(32);
+
+        assertInstanceOf(List.class, Json.leer(texto));
+    }
+
+    @Test
+    void rechazaAnidamientoExcesivoSinAgotarLaPila() {
+        String texto = "[".repeat(33) + "]".repeat(33);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Json.leer(texto));
+        assertTrue(e.getMessage().contains("anidamiento"), e.getMessage());
+
+        // Un cuerpo enorme da el mismo error de datos, no StackOverflowError
+        assertThrows(IllegalArgumentException.class, () -> Json.leer("{\"a\":".repeat(100_000)));
+    }
+
+    @Test
+    void cadenaEscapaComillasBarrasYControles() {
+        assertEquals("\"dice \\\"hola\\\" \\\\ \\n\"", Json.cadena("dice \"hola\" \\ \n"));
+        assertEquals("null", Json.cadena(null));
+    }
+
+    @Test
+    void cadenaYLeerSonInversas() {
+        String original = "línea 1\r\n\t\"fin\"";
+
+        assertEquals(original, Json.leer(Json.cadena(original)));
+    }
+}
@@ -0,0 +1,88 @@
+package csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del lector CSV: comillas, saltos de línea, BOM y finales de línea.
+ */
+class LectorCsvTest {
+
+    private static List<String[]> leerTodo(String texto, char separador) throws IOException {
+        List<String[]> registros = new ArrayList<>();
+        try (LectorCsv lector = new LectorCsv(new StringReader(texto), separador)) {
+            String[] registro;
+            while ((registro = lector.siguiente()) != null) {
+                registros.add(registro);
+            }
+        }
+        return registros;
+    }
+
+    @Test
+    void leeRegistrosSimples() throws IOException {
+        List<String[]> registros = leerTodo("id,nombre\n1,Ana\n2,Luis\n", ',');
+
+        assertEquals(3, registros.size());
+        assertArrayEquals(new String[]{"id", "nombre"}, registros.get(0));
+        assertArrayEquals(new String[]{"2", "Luis"}, registros.get(2));
+    }
+
+    @Test
+    void respetaComillasSeparadoresYSaltosDentroDelCampo() throws IOException {
+        List<String[]> registros = leerTodo("1,\"Pérez, Ana\",\"línea 1\nlínea 2\",\"dice \"\"hola\"\"\"\n", ',');
+
+        assertEquals(1, registros.size());
+        assertArrayEquals(new String[]{"1", "Pérez, Ana", "línea 1\nlínea 2", "dice \"hola\""}, registros.get(0));
+    }
+
+    @Test
+    void aceptaCrlfYUltimaLineaSinSalto() throws IOException {
+        List<String[]> registros = leerTodo("a;b\r\nc;d", ';');
+
+        assertEquals(2, registros.size());
+        assertArrayEquals(new String[]{"a", "b"}, registros.get(0));
+        assertArrayEquals(new String[]{"c", "d"}, registros.get(1));
+    }
+
+    @Test
+    void conservaCamposVacios() throws IOException {
+        List<String[]> registros = leerTodo(",,\n", ',');
+
+        assertArrayEquals(new String[]{"", "", ""}, registros.get(0));
+    }
+
+    @Test
+    void ignoraElBomInicial() throws IOException {
+        List<String[]> registros = leerTodo("\uFEFFid,nombre\n", ',');
+
+        assertEquals("id", registros.get(0)[0]);
+    }
+
+    @Test
+    void cuentaLosRegistrosLeidos() throws IOException {
+        try (LectorCsv lector = new LectorCsv(new StringReader("a\nb\nc\n"), ',')) {
+            while (lector.siguiente() != null) {
+                // Solo se recorren
+            }
+            assertEquals(3, lector.getRegistros());
+        }
+    }
+
+    @Test
+    void ficheroVacioNoTieneRegistros() throws IOException {
+        assertTrue(leerTodo("", ',').isEmpty());
+    }
+
+    @Test
+    void comillasSinCerrarEsUnError() {
+        IOException e = assertThrows(IOException.class, () -> leerTodo("id\n\"abierta,1\n", ','));
+        assertTrue(e.getMessage().contains("registro 2"), e.getMessage());
+    }
+}
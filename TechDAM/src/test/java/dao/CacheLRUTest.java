@@ -0,0 +1,141 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché LRU: aciertos, expulsión, TTL, copias e invalidación concurrente.
+ */
+class CacheLRUTest {
+
+    private static final long UNA_HORA = 3_600_000L;
+
+    /** Valor mutable, como los objetos del modelo. */
+    private static final class Valor {
+        private String texto;
+
+        Valor(String texto) {
+            this.texto = texto;
+        }
+
+        Valor copia() {
+            return new Valor(texto);
+        }
+    }
+
+    private static Function<Integer, Optional<Valor>> cargador(AtomicInteger cargas) {
+        return clave -> {
+            cargas.incrementAndGet();
+            return Optional.of(new Valor("v" + clave));
+        };
+    }
+
+    @Test
+    void laSegundaLecturaEsUnAcierto() {
+        CacheLRU<Integer, Valor> cache = new CacheLRU<>("prueba", 10, UNA_HORA, Valor::copia);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener(1, cargador(cargas));
+        Optional<Valor> valor = cache.obtener(1, cargador(cargas));
+
+        assertEquals("v1", valor.orElseThrow().texto);
+        assertEquals(1, cargas.get());
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    void expulsaLaEntradaMenosUsada() {
+        CacheLRU<Integer, Valor> cache = new CacheLRU<>("prueba", 2, UNA_HORA, Valor::copia);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener(1, cargador(cargas));
+        cache.obtener(2, cargador(cargas));
+        cache.obtener(1, cargador(cargas)); // 1 pasa a ser la más reciente
+        cache.obtener(3, cargador(cargas)); // expulsa 2
+
+        assertEquals(2, cache.getTamano());
+        assertEquals(1, cache.getExpulsiones());
+        cache.obtener(1, cargador(cargas));
+        assertEquals(3, cargas.get(), "1 debe seguir en la caché");
+        cache.obtener(2, cargador(cargas));
+        assertEquals(4, cargas.get(), "2 debe haberse expulsado");
+    }
+
+    @Test
+    void unaEntradaCaducadaSeVuelveACargar() {
+        CacheLRU<Integer, Valor> cache = new CacheLRU<>("prueba", 10, 0, Valor::copia);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener(1, cargador(cargas));
+        cache.obtener(1, cargador(cargas));
+
+        assertEquals(2, cargas.get());
+        assertEquals(1, cache.getCaducadas());
+        assertEquals(0, cache.getAciertos());
+    }
+
+    @Test
+    void devuelveCopiasIndependientes() {
+        CacheLRU<Integer, Valor> cache = new CacheLRU<>("prueba", 10, UNA_HORA, Valor::copia);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener(1, cargador(cargas)).orElseThrow().texto = "modificado";
+
+        assertEquals("v1", cache.obtener(1, cargador(cargas)).orElseThrow().texto);
+    }
+
+    @Test
+    void noCacheaResultadosVacios() {
+        CacheLRU<Integer, Valor> cache = new CacheLRU<>("prueba", 10, UNA_HORA, Valor::copia);
+
+        cache.obtener(1, clave -> Optional.empty());
+
+        assertEquals(0, cache.getTamano());
+    }
+
+    @Test
+    void noGuardaUnValorLeidoAntesDeUnaInvalidacion() {
+        CacheLRU<Integer, Valor> cache = new CacheLRU<>("prueba", 10, UNA_HORA, Valor::copia);
+
+        // Otro hilo actualiza la fila e invalida mientras esta lectura consulta la BD
+        Optional<Valor> leido = cache.obtener(1, clave -> {
+            cache.invalidar(clave);
+            return Optional.of(new Valor("obsoleto"));
+        });
+
+        assertEquals("obsoleto", leido.orElseThrow().texto);
+        assertEquals(0, cache.getTamano());
+    }
+
+    @Test
+    void invalidarSiEliminaSoloLasEntradasQueCumplen() {
+        CacheLRU<Integer, Valor> cache = new CacheLRU<>("prueba", 10, UNA_HORA, Valor::copia);
+        AtomicInteger cargas = new AtomicInteger();
+        cache.obtener(1, cargador(cargas));
+        cache.obtener(2, cargador(cargas));
+
+        cache.invalidarSi(valor -> valor.texto.equals("v1"));
+
+        assertEquals(1, cache.getTamano());
+        cache.obtener(2, cargador(cargas));
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void tamanoCeroDesactivaLaCache() {
+        CacheLRU<Integer, Valor> cache = new CacheLRU<>("prueba", 0, UNA_HORA, Valor::copia);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener(1, cargador(cargas));
+        cache.obtener(1, cargador(cargas));
+
+        assertEquals(2, cargas.get());
+        assertEquals(0, cache.getTamano());
+    }
+}
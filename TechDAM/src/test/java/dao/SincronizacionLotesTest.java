@@ -0,0 +1,52 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de las partes de la sincronización que no tocan la BD: la huella y el filtrado de IDs.
+ */
+class SincronizacionLotesTest {
+
+    @Test
+    void unirSeSaltaLosNulosComoConcatWs() {
+        assertEquals("Ana|Ventas|1200.00", SincronizacionLotes.unir("Ana", null, "Ventas", new BigDecimal("1200.00")));
+        assertEquals("", SincronizacionLotes.unir(null, null));
+        assertEquals("true", SincronizacionLotes.unir(true));
+    }
+
+    @Test
+    void posicionesValidasDescartaIdsNoPositivos() {
+        ResultadoUpsert resultado = new ResultadoUpsert(3);
+
+        List<Integer> posiciones = SincronizacionLotes.posicionesValidas(List.of(5, 0, -2), id -> id, resultado);
+
+        assertEquals(List.of(0), posiciones);
+        assertEquals(2, resultado.getFallidas());
+        assertTrue(resultado.getErrores().containsKey(1));
+        assertTrue(resultado.getErrores().containsKey(2));
+    }
+
+    @Test
+    void posicionesValidasSeQuedaConLaUltimaAparicion() {
+        ResultadoUpsert resultado = new ResultadoUpsert(4);
+
+        List<Integer> posiciones = SincronizacionLotes.posicionesValidas(List.of(7, 8, 7, 9), id -> id, resultado);
+
+        assertEquals(List.of(1, 2, 3), posiciones);
+        assertEquals(1, resultado.getFallidas());
+        assertTrue(resultado.getErrores().get(0).contains("posición 2"), resultado.getErrores().get(0));
+    }
+
+    @Test
+    void posicionesValidasSinErroresConservaElOrden() {
+        ResultadoUpsert resultado = new ResultadoUpsert(3);
+
+        assertEquals(List.of(0, 1, 2), SincronizacionLotes.posicionesValidas(List.of(3, 1, 2), id -> id, resultado));
+        assertTrue(resultado.isCompleto());
+    }
+}
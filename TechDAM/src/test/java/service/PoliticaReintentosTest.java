@@ -0,0 +1,123 @@
+package service;
+
+import config.UnidadDeTrabajo;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la política de reintentos: clasificación de errores y commits inciertos.
+ * No necesitan base de datos: los intentos lanzan las SQLException que daría el driver.
+ */
+class PoliticaReintentosTest {
+
+    private static PoliticaReintentos politica(int maxReintentos) {
+        return new PoliticaReintentos(maxReintentos, Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofSeconds(10));
+    }
+
+    private static SQLException interbloqueo() {
+        return new SQLException("Deadlock found when trying to get lock", "40001", PoliticaReintentos.ERROR_INTERBLOQUEO);
+    }
+
+    @Test
+    void clasificaLosErroresReintentables() {
+        assertTrue(PoliticaReintentos.esReintentable(interbloqueo()));
+        assertTrue(PoliticaReintentos.esReintentable(
+                new SQLException("Lock wait timeout exceeded", "HY000", PoliticaReintentos.ERROR_TIMEOUT_BLOQUEO)));
+        assertTrue(PoliticaReintentos.esReintentable(new SQLException("Communications link failure", "08S01")));
+
+        assertFalse(PoliticaReintentos.esReintentable(new SQLException("Duplicate entry", "23000", 1062)));
+        assertFalse(PoliticaReintentos.esReintentable(new SQLException("sin estado")));
+    }
+
+    @Test
+    void buscaElErrorEnLaCadenaDeCausas() {
+        SQLException envuelta = new SQLException("La unidad de trabajo se marcó para rollback", interbloqueo());
+
+        assertTrue(PoliticaReintentos.esReintentable(envuelta));
+    }
+
+    @Test
+    void unCommitInciertoNoEsReintentable() {
+        SQLException perdida = new SQLException("Communications link failure", "08S01");
+        SQLException incierto = new SQLException("Se perdió la conexión durante el commit",
+                UnidadDeTrabajo.ESTADO_COMMIT_INCIERTO, perdida);
+
+        assertTrue(UnidadDeTrabajo.esCommitIncierto(incierto));
+        assertFalse(PoliticaReintentos.esReintentable(incierto));
+    }
+
+    @Test
+    void reintentaHastaQueElIntentoTerminaBien() throws SQLException {
+        PoliticaReintentos politica = politica(5);
+        AtomicInteger intentos = new AtomicInteger();
+
+        String resultado = politica.ejecutar(() -> {
+            if (intentos.incrementAndGet() < 3) {
+                throw interbloqueo();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        assertEquals(3, intentos.get());
+        assertEquals(2, politica.getReintentos());
+        assertEquals(2, politica.getInterbloqueos());
+        assertEquals(1, politica.getExitosTrasReintento());
+    }
+
+    @Test
+    void devuelveElUltimoErrorAlAgotarLosReintentos() {
+        PoliticaReintentos politica = politica(2);
+        AtomicInteger intentos = new AtomicInteger();
+
+        SQLException e = assertThrows(SQLException.class, () -> politica.ejecutar(() -> {
+            intentos.incrementAndGet();
+            throw interbloqueo();
+        }));
+
+        assertEquals(PoliticaReintentos.ERROR_INTERBLOQUEO, e.getErrorCode());
+        assertEquals(3, intentos.get());
+        assertEquals(1, politica.getAgotadas());
+    }
+
+    @Test
+    void noRepiteErroresNoReintentables() {
+        PoliticaReintentos politica = politica(5);
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThrows(SQLException.class, () -> politica.ejecutar(() -> {
+            intentos.incrementAndGet();
+            throw new SQLException("Duplicate entry", "23000", 1062);
+        }));
+
+        assertEquals(1, intentos.get());
+        assertEquals(0, politica.getReintentos());
+    }
+
+    @Test
+    void noRepiteUnCommitIncierto() {
+        PoliticaReintentos politica = politica(5);
+        AtomicInteger intentos = new AtomicInteger();
+
+        SQLException e = assertThrows(SQLException.class, () -> politica.ejecutar(() -> {
+            intentos.incrementAndGet();
+            throw new SQLException("Se perdió la conexión durante el commit",
+                    UnidadDeTrabajo.ESTADO_COMMIT_INCIERTO, new SQLException("Communications link failure", "08S01"));
+        }));
+
+        assertEquals(UnidadDeTrabajo.ESTADO_COMMIT_INCIERTO, e.getSQLState());
+        assertEquals(1, intentos.get());
+        assertEquals(1, politica.getCommitsInciertos());
+        assertEquals(0, politica.getConexionesPerdidas());
+    }
+
+    @Test
+    void rechazaUnNumeroDeReintentosNegativo() {
+        assertThrows(IllegalArgumentException.class, () -> politica(-1));
+    }
+}
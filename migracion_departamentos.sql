@@ -0,0 +1,70 @@
+-- Migración de una base de datos techdam existente a la tabla departamentos
+-- (empleados.departamento VARCHAR -> empleados.departamento_id INT)
+-- Las bases de datos nuevas ya se crean así con techdam_completo.sql.
+
+USE techdam;
+
+-- ==========================================
+-- 1. Crear tabla departamentos con los nombres existentes
+-- ==========================================
+CREATE TABLE departamentos (
+    id INT AUTO_INCREMENT PRIMARY KEY,           -- Código entero del departamento
+    nombre VARCHAR(50) NOT NULL UNIQUE           -- Nombre del departamento
+);
+
+INSERT INTO departamentos (nombre)
+SELECT DISTINCT departamento FROM empleados ORDER BY departamento;
+
+-- ==========================================
+-- 2. Añadir departamento_id y rellenarlo a partir del nombre
+-- ==========================================
+ALTER TABLE empleados ADD COLUMN departamento_id INT NULL AFTER departamento;
+
+UPDATE empleados e
+JOIN departamentos d ON d.nombre = e.departamento
+SET e.departamento_id = d.id;
+
+ALTER TABLE empleados MODIFY departamento_id INT NOT NULL;
+
+-- ==========================================
+-- 3. Sustituir el índice, eliminar la columna de texto y añadir la clave foránea
+-- ==========================================
+-- El índice (departamento, id) solo existe si ya se creó para la paginación por keyset
+SET @existe_indice = (SELECT COUNT(*) FROM information_schema.statistics
+                      WHERE table_schema = DATABASE() AND table_name = 'empleados'
+                        AND index_name = 'idx_empleados_departamento_id');
+SET @sql = IF(@existe_indice > 0, 'DROP INDEX idx_empleados_departamento_id ON empleados', 'DO 0');
+PREPARE sentencia FROM @sql;
+EXECUTE sentencia;
+DEALLOCATE PREPARE sentencia;
+
+ALTER TABLE empleados DROP COLUMN departamento;
+-- Se crea antes de la clave foránea para que esta lo reutilice y no cree otro índice
+CREATE INDEX idx_empleados_departamento_id ON empleados (departamento_id, id);
+ALTER TABLE empleados ADD FOREIGN KEY (departamento_id) REFERENCES departamentos(id);
+
+-- ==========================================
+-- 4. Procedimiento actualizar_salario_departamento sobre el código entero
+-- ==========================================
+DROP PROCEDURE IF EXISTS actualizar_salario_departamento;
+
+DELIMITER $$
+CREATE PROCEDURE actualizar_salario_departamento(
+    IN p_departamento VARCHAR(50),
+    IN p_porcentaje DECIMAL(5,2),
+    OUT p_empleados_actualizados INT
+)
+BEGIN
+    -- Resolvemos el nombre a su código para filtrar por el índice entero
+    DECLARE v_departamento_id INT;
+    SET v_departamento_id = (SELECT id FROM departamentos WHERE nombre = p_departamento);
+
+    -- Actualizamos los salarios de los empleados activos en el departamento
+    UPDATE empleados
+    SET salario = salario * (1 + p_porcentaje / 100)
+    WHERE departamento_id = v_departamento_id AND activo = TRUE;
+
+    -- Retornamos el número de empleados afectados
+    SET p_empleados_actualizados = ROW_COUNT();
+END$$
+DELIMITER ;
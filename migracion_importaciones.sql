@@ -0,0 +1,18 @@
+-- Migración de una base de datos techdam existente: tabla de control de importaciones CSV
+-- (la usa csv.ImportadorCsv para reanudar una importación interrumpida).
+-- Las bases de datos nuevas ya se crean con ella en techdam_completo.sql (sección 9).
+-- Se puede ejecutar más de una vez.
+
+USE techdam;
+
+-- ==========================================
+-- 1. Tabla de control de importaciones CSV
+-- Registros confirmados por fichero, para reanudar una importación interrumpida
+-- ==========================================
+CREATE TABLE IF NOT EXISTS importaciones_progreso (
+    fichero VARCHAR(255) PRIMARY KEY,            -- Ruta absoluta del fichero CSV
+    entidad VARCHAR(50) NOT NULL,                -- Tabla de destino (empleados, proyectos)
+    huella VARCHAR(100) NOT NULL,                -- Tamaño y fecha de modificación del fichero
+    registros_confirmados BIGINT NOT NULL,       -- Registros de datos ya confirmados
+    actualizado TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
@@ -5,27 +5,49 @@ create database if not exists techdam;
 USE techdam;
 
 -- ==========================================
--- 2. Crear tabla empleados
+-- 2. Crear tabla departamentos
+-- Tabla de referencia: cada departamento se guarda una sola vez
+-- ==========================================
+CREATE TABLE departamentos (
+    id INT AUTO_INCREMENT PRIMARY KEY,           -- Código entero del departamento
+    nombre VARCHAR(50) NOT NULL UNIQUE           -- Nombre del departamento
+);
+
+-- Insertar departamentos de prueba
+INSERT INTO departamentos (nombre) VALUES
+('Desarrollo'),
+('Marketing'),
+('Ventas');
+
+-- ==========================================
+-- 3. Crear tabla empleados
 -- Contendrá información de los empleados
 -- ==========================================
 CREATE TABLE empleados (
     id INT AUTO_INCREMENT PRIMARY KEY,           -- Clave primaria única
     nombre VARCHAR(100) NOT NULL,               -- Nombre del empleado
-    departamento VARCHAR(50) NOT NULL,          -- Departamento al que pertenece
+    departamento_id INT NOT NULL,               -- Departamento al que pertenece
     salario DECIMAL(10,2) NOT NULL,             -- Salario del empleado
-    activo BOOLEAN DEFAULT TRUE                 -- Indica si el empleado sigue activo
+    activo BOOLEAN DEFAULT TRUE,                -- Indica si el empleado sigue activo
+    FOREIGN KEY (departamento_id) REFERENCES departamentos(id)   -- Clave foránea a departamentos
 );
 
 -- Insertar registros de prueba en empleados
-INSERT INTO empleados (nombre, departamento, salario, activo) VALUES
-('Ana', 'Desarrollo', 1500.00, TRUE),
-('Luis', 'Marketing', 1800.00, TRUE),
-('Marta', 'Desarrollo', 2000.00, TRUE),
-('Pedro', 'Ventas', 1750.00, TRUE),
-('Sofía', 'Marketing', 1900.00, TRUE);
+INSERT INTO empleados (nombre, departamento_id, salario, activo) VALUES
+('Ana', 1, 1500.00, TRUE),
+('Luis', 2, 1800.00, TRUE),
+('Marta', 1, 2000.00, TRUE),
+('Pedro', 3, 1750.00, TRUE),
+('Sofía', 2, 1900.00, TRUE);
+
+-- Índices para la paginación por keyset con filtros
+-- (WHERE departamento_id = ? AND id > ? ORDER BY id LIMIT ?)
+-- y para las actualizaciones por departamento del procedimiento
+CREATE INDEX idx_empleados_departamento_id ON empleados (departamento_id, id);
+CREATE INDEX idx_empleados_activo_id ON empleados (activo, id);
 
 -- ==========================================
--- 3. Crear tabla proyectos
+-- 4. Crear tabla proyectos
 -- Contendrá información de los proyectos
 -- ==========================================
 CREATE TABLE proyectos (
@@ -43,7 +65,7 @@ INSERT INTO proyectos (nombre, presupuesto) VALUES
 ('Proyecto E', 12000.00);
 
 -- ==========================================
--- 4. Crear tabla asignaciones
+-- 5. Crear tabla asignaciones
 -- Relaciona empleados con proyectos
 -- ==========================================
 CREATE TABLE asignaciones (
@@ -66,7 +88,7 @@ INSERT INTO asignaciones (empleado_id, proyecto_id, horas_asignadas, rol) VALUES
 (5, 2, 25, 'Marketing');
 
 -- ==========================================
--- 5. Procedimiento almacenado: actualizar salario de un departamento
+-- 6. Procedimiento almacenado: actualizar salario de un departamento
 -- Incrementa el salario de todos los empleados de un departamento activo
 -- ==========================================
 DELIMITER $$
@@ -76,10 +98,14 @@ CREATE PROCEDURE actualizar_salario_departamento(
     OUT p_empleados_actualizados INT
 )
 BEGIN
+    -- Resolvemos el nombre a su código para filtrar por el índice entero
+    DECLARE v_departamento_id INT;
+    SET v_departamento_id = (SELECT id FROM departamentos WHERE nombre = p_departamento);
+
     -- Actualizamos los salarios de los empleados activos en el departamento
     UPDATE empleados
     SET salario = salario * (1 + p_porcentaje / 100)
-    WHERE departamento = p_departamento AND activo = TRUE;
+    WHERE departamento_id = v_departamento_id AND activo = TRUE;
 
     -- Retornamos el número de empleados afectados
     SET p_empleados_actualizados = ROW_COUNT();
@@ -87,7 +113,7 @@ END$$
 DELIMITER ;
 
 -- ==========================================
--- 6. Procedimiento almacenado: asignar empleado a proyecto
+-- 7. Procedimiento almacenado: asignar empleado a proyecto
 -- Registra un empleado en un proyecto con horas y rol
 -- ==========================================
 DELIMITER $$
@@ -105,7 +131,7 @@ END$$
 DELIMITER ;
 
 -- ==========================================
--- 7. Función almacenada: obtener salario de un empleado
+-- 8. Función almacenada: obtener salario de un empleado
 -- Devuelve el salario actual de un empleado
 -- ==========================================
 DELIMITER $$
@@ -119,3 +145,15 @@ BEGIN
     RETURN v_salario;
 END$$
 DELIMITER ;
+
+-- ==========================================
+-- 9. Tabla de control de importaciones CSV
+-- Registros confirmados por fichero, para reanudar una importación interrumpida
+-- ==========================================
+CREATE TABLE importaciones_progreso (
+    fichero VARCHAR(255) PRIMARY KEY,            -- Ruta absoluta del fichero CSV
+    entidad VARCHAR(50) NOT NULL,                -- Tabla de destino (empleados, proyectos)
+    huella VARCHAR(100) NOT NULL,                -- Tamaño y fecha de modificación del fichero
+    registros_confirmados BIGINT NOT NULL,       -- Registros de datos ya confirmados
+    actualizado TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);